@@ -0,0 +1,4 @@
+#!/bin/bash
+# Solo se ejecuta al crear el volumen de product-db: habilita las conexiones de replicación desde la red interna
+set -e
+echo "host replication all all scram-sha-256" >> "$PGDATA/pg_hba.conf"
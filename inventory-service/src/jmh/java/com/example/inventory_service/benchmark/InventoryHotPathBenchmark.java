@@ -0,0 +1,89 @@
+package com.example.inventory_service.benchmark;
+
+import com.example.inventory_service.dto.InventoryResponse;
+import com.example.inventory_service.dto.InventoryUpdateRequest;
+import com.example.inventory_service.dto.ProductoDto;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+/**
+ * Rutas calientes de una solicitud en inventory-service, sin red ni base de datos.
+ * Con el perfil gc, {@code gc.alloc.rate.norm} indica los bytes asignados por operación.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class InventoryHotPathBenchmark {
+
+    @Param({"100", "1000"})
+    private int listSize;
+
+    private ObjectWriter writer;
+    private ValidatorFactory validatorFactory;
+    private Validator validator;
+
+    private ProductoDto producto;
+    private InventoryUpdateRequest request;
+    private InventoryUpdateRequest invalidRequest;
+    private List<InventoryResponse> responses;
+
+    @Setup
+    public void setUp() {
+        // Misma configuración base que el ObjectMapper de Spring Boot
+        writer = Jackson2ObjectMapperBuilder.json().build().writer();
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        validator = validatorFactory.getValidator();
+
+        producto = new ProductoDto(1L, "Smartphone Samsung", 999.99, 3L);
+        request = new InventoryUpdateRequest(25);
+        invalidRequest = new InventoryUpdateRequest(-1);
+
+        responses = LongStream.rangeClosed(1, listSize)
+                .mapToObj(id -> InventoryResponse.builder()
+                        .productoId(id)
+                        .productoNombre("Producto " + id)
+                        .cantidad((int) id)
+                        .build())
+                .toList();
+    }
+
+    @TearDown
+    public void tearDown() {
+        validatorFactory.close();
+    }
+
+    @Benchmark
+    public InventoryResponse buildResponse() {
+        return InventoryResponse.builder()
+                .productoId(producto.getId())
+                .productoNombre(producto.getNombre())
+                .cantidad(request.getCantidad())
+                .build();
+    }
+
+    @Benchmark
+    public byte[] serializeList() throws JsonProcessingException {
+        return writer.writeValueAsBytes(responses);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<InventoryUpdateRequest>> validateRequest() {
+        return validator.validate(request);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<InventoryUpdateRequest>> validateInvalidRequest() {
+        return validator.validate(invalidRequest);
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.inventory_service.loadtest;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongFunction;
+
+/**
+ * Generador de modelo cerrado: {@code connections} clientes, cada uno con su conexión, que envían la siguiente
+ * solicitud en cuanto reciben la respuesta anterior. Mide cuánto rendimiento sostiene el servidor con esa
+ * concurrencia; a diferencia de {@link OpenModelLoadGenerator}, la latencia no incluye la espera de arribo.
+ */
+public class ClosedModelLoadGenerator {
+
+    public record Result(long requests, long errors, Duration duration) {
+        public double throughput() {
+            return requests / (duration.toNanos() / 1e9);
+        }
+    }
+
+    private final HttpClient httpClient;
+    private final LatencyReport report;
+
+    public ClosedModelLoadGenerator(HttpClient httpClient, LatencyReport report) {
+        this.httpClient = httpClient;
+        this.report = report;
+    }
+
+    /**
+     * Mantiene {@code connections} clientes durante {@code warmup + duration}; solo cuentan las solicitudes
+     * enviadas en el periodo de medición.
+     */
+    public Result run(String name, int connections, Duration warmup, Duration duration,
+                      LongFunction<HttpRequest> requestFactory) throws InterruptedException {
+        long measureFrom = System.nanoTime() + warmup.toNanos();
+        long end = measureFrom + duration.toNanos();
+        AtomicLong requests = new AtomicLong();
+        AtomicLong errors = new AtomicLong();
+        AtomicLong sequence = new AtomicLong();
+
+        // Un hilo virtual por cliente: el generador no debe ser el que limite la concurrencia
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < connections; c++) {
+                clients.submit(() -> {
+                    long sent;
+                    while ((sent = System.nanoTime()) < end) {
+                        boolean failed;
+                        try {
+                            HttpResponse<Void> response = httpClient.send(
+                                    requestFactory.apply(sequence.getAndIncrement()), HttpResponse.BodyHandlers.discarding());
+                            failed = response.statusCode() >= 400;
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            return;
+                        } catch (Exception e) {
+                            failed = true;
+                        }
+                        if (sent >= measureFrom) {
+                            requests.incrementAndGet();
+                            if (failed) {
+                                errors.incrementAndGet();
+                            }
+                            report.record(name, TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - sent), failed);
+                        }
+                    }
+                });
+            }
+        }
+        return new Result(requests.get(), errors.get(), duration);
+    }
+}
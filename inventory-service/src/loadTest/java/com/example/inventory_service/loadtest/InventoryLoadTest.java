@@ -0,0 +1,140 @@
+package com.example.inventory_service.loadtest;
+
+import com.example.inventory_service.service.InventoryBulkWriter;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Carga de arribo constante contra cada endpoint de InventoryController, con inventory-service completo
+ * sobre un PostgreSQL embebido y {@link StubProductClient} en lugar de product-service.
+ * <p>
+ * Parámetros (propiedades de sistema): {@code loadtest.rate} (solicitudes/s), {@code loadtest.warmup},
+ * {@code loadtest.duration}, {@code loadtest.products}, {@code loadtest.stub.latency},
+ * {@code loadtest.stub.jitter} y {@code loadtest.stub.error-rate}.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        // Caché chica para que una parte de las lecturas llegue al stub
+        "inventory.product-cache.maximum-size=${loadtest.cache-size:1000}",
+        "logging.level.com.example.inventory_service=WARN"
+})
+@Import(StubProductClientConfiguration.class)
+class InventoryLoadTest {
+
+    private static EmbeddedPostgres postgres;
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) throws IOException {
+        postgres = EmbeddedPostgres.builder().start();
+        registry.add("spring.datasource.url", () -> postgres.getJdbcUrl("postgres", "postgres") + "&reWriteBatchedInserts=true");
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "postgres");
+    }
+
+    @AfterAll
+    static void stopDatabase() throws IOException {
+        if (postgres != null) {
+            postgres.close();
+        }
+    }
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private InventoryBulkWriter inventoryBulkWriter;
+
+    @Autowired
+    private StubProductClient stubProductClient;
+
+    @Value("${loadtest.rate:200}")
+    private int rate;
+
+    @Value("${loadtest.warmup:5s}")
+    private Duration warmup;
+
+    @Value("${loadtest.duration:20s}")
+    private Duration duration;
+
+    @Value("${loadtest.products:10000}")
+    private int products;
+
+    @Value("${loadtest.max-in-flight:10000}")
+    private int maxInFlight;
+
+    @Value("${loadtest.report-dir:build/reports/loadtest}")
+    private String reportDir;
+
+    @Test
+    void constantArrivalRate_perEndpoint() throws Exception {
+        inventoryBulkWriter.write(LongStream.rangeClosed(1, products).boxed()
+                .collect(Collectors.toMap(Function.identity(), id -> 1_000_000)));
+
+        LatencyReport report = new LatencyReport();
+        ExecutorService clientExecutor = Executors.newFixedThreadPool(8);
+        try {
+            HttpClient httpClient = HttpClient.newBuilder()
+                    .executor(clientExecutor)
+                    .connectTimeout(Duration.ofSeconds(2))
+                    .build();
+            OpenModelLoadGenerator generator = new OpenModelLoadGenerator(httpClient, report, maxInFlight);
+
+            for (OpenModelLoadGenerator.Scenario scenario : scenarios()) {
+                generator.run(scenario, rate, warmup, duration);
+            }
+        } finally {
+            clientExecutor.shutdownNow();
+        }
+
+        System.out.printf("%nCarga: %d req/s por endpoint, %s de medición. Llamadas al stub: %d (errores inyectados: %d)%n",
+                rate, duration, stubProductClient.getCalls(), stubProductClient.getErrors());
+        report.printSummary(System.out);
+        report.writeTo(Path.of(reportDir));
+
+        for (OpenModelLoadGenerator.Scenario scenario : scenarios()) {
+            assertTrue(report.count(scenario.name()) > 0, "Sin mediciones para " + scenario.name());
+        }
+    }
+
+    private List<OpenModelLoadGenerator.Scenario> scenarios() {
+        String base = "http://localhost:" + port + "/api/v1/inventory";
+        return List.of(
+                new OpenModelLoadGenerator.Scenario("GET /inventory/{productId}",
+                        i -> OpenModelLoadGenerator.get(URI.create(base + "/" + randomProduct()))),
+                new OpenModelLoadGenerator.Scenario("POST /inventory/{productId}",
+                        i -> OpenModelLoadGenerator.postJson(URI.create(base + "/" + randomProduct()),
+                                "{\"cantidad\":" + (i % 1000) + "}")),
+                new OpenModelLoadGenerator.Scenario("POST /inventory/{productId}/increment",
+                        i -> OpenModelLoadGenerator.postJson(URI.create(base + "/" + randomProduct() + "/increment"),
+                                "{\"cantidad\":1}")),
+                new OpenModelLoadGenerator.Scenario("GET /inventory/page",
+                        i -> OpenModelLoadGenerator.get(URI.create(base + "/page?size=100&after=" + ThreadLocalRandom.current().nextInt(products))))
+        );
+    }
+
+    private long randomProduct() {
+        return ThreadLocalRandom.current().nextLong(1, products + 1L);
+    }
+}
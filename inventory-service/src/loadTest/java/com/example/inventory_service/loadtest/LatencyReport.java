@@ -0,0 +1,68 @@
+package com.example.inventory_service.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Latencias por endpoint en microsegundos, con 3 dígitos significativos.
+ */
+public class LatencyReport {
+
+    private static final double MICROS_PER_MILLI = 1000.0;
+
+    private final Map<String, Histogram> histograms = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLong> errors = new ConcurrentHashMap<>();
+
+    public void record(String endpoint, long latencyMicros, boolean error) {
+        histograms.computeIfAbsent(endpoint, e -> new ConcurrentHistogram(3)).recordValue(Math.max(latencyMicros, 1));
+        if (error) {
+            errors.computeIfAbsent(endpoint, e -> new AtomicLong()).incrementAndGet();
+        }
+    }
+
+    public long count(String endpoint) {
+        Histogram histogram = histograms.get(endpoint);
+        return histogram == null ? 0 : histogram.getTotalCount();
+    }
+
+    public long errors(String endpoint) {
+        AtomicLong count = errors.get(endpoint);
+        return count == null ? 0 : count.get();
+    }
+
+    public void printSummary(PrintStream out) {
+        out.printf("%-40s %10s %8s %10s %10s %10s %10s %10s%n",
+                "endpoint", "requests", "errors", "p50 ms", "p99 ms", "p99.9 ms", "max ms", "mean ms");
+        histograms.forEach((endpoint, histogram) -> out.printf("%-40s %10d %8d %10.2f %10.2f %10.2f %10.2f %10.2f%n",
+                endpoint,
+                histogram.getTotalCount(),
+                errors(endpoint),
+                histogram.getValueAtPercentile(50) / MICROS_PER_MILLI,
+                histogram.getValueAtPercentile(99) / MICROS_PER_MILLI,
+                histogram.getValueAtPercentile(99.9) / MICROS_PER_MILLI,
+                histogram.getMaxValue() / MICROS_PER_MILLI,
+                histogram.getMean() / MICROS_PER_MILLI));
+    }
+
+    /**
+     * Escribe un {@code .hgrm} por endpoint (distribución completa en ms), que se puede graficar con
+     * el HdrHistogram plotter.
+     */
+    public void writeTo(Path dir) throws IOException {
+        Files.createDirectories(dir);
+        for (Map.Entry<String, Histogram> entry : histograms.entrySet()) {
+            String fileName = entry.getKey().replaceAll("[^A-Za-z0-9]+", "_").replaceAll("^_|_$", "") + ".hgrm";
+            try (PrintStream out = new PrintStream(Files.newOutputStream(dir.resolve(fileName)))) {
+                entry.getValue().outputPercentileDistribution(out, MICROS_PER_MILLI);
+            }
+        }
+    }
+}
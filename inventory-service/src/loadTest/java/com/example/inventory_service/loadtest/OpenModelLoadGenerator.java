@@ -0,0 +1,104 @@
+package com.example.inventory_service.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.Phaser;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongFunction;
+
+/**
+ * Generador de carga de modelo abierto: las solicitudes salen a una tasa constante sin importar cuántas
+ * sigan en vuelo, como llegan los clientes reales.
+ * <p>
+ * La latencia se mide desde el instante en que la solicitud <em>debía</em> salir, no desde que salió: si
+ * el generador o el servidor se atrasan, la espera cuenta (corrección de coordinated omission).
+ */
+public class OpenModelLoadGenerator {
+
+    /**
+     * Construye la solicitud número {@code i} del escenario.
+     */
+    public record Scenario(String name, LongFunction<HttpRequest> requestFactory) {
+    }
+
+    private final HttpClient httpClient;
+    private final LatencyReport report;
+    private final int maxInFlight;
+
+    public OpenModelLoadGenerator(HttpClient httpClient, LatencyReport report, int maxInFlight) {
+        this.httpClient = httpClient;
+        this.report = report;
+        this.maxInFlight = maxInFlight;
+    }
+
+    /**
+     * Envía {@code ratePerSecond} solicitudes por segundo durante {@code warmup + duration}; solo se
+     * registran las del periodo de medición.
+     */
+    public void run(Scenario scenario, int ratePerSecond, Duration warmup, Duration duration) throws InterruptedException {
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / ratePerSecond;
+        long warmupRequests = warmup.toNanos() / intervalNanos;
+        long totalRequests = warmupRequests + duration.toNanos() / intervalNanos;
+
+        AtomicInteger inFlight = new AtomicInteger();
+        Phaser pending = new Phaser(1);
+        long start = System.nanoTime();
+
+        for (long i = 0; i < totalRequests; i++) {
+            long intended = start + i * intervalNanos;
+            long wait = intended - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+
+            boolean measured = i >= warmupRequests;
+            if (inFlight.get() >= maxInFlight) {
+                // Protege la memoria del generador; cuenta como error con la latencia acumulada hasta ahora
+                if (measured) {
+                    report.record(scenario.name(), micros(System.nanoTime() - intended), true);
+                }
+                continue;
+            }
+
+            inFlight.incrementAndGet();
+            pending.register();
+            httpClient.sendAsync(scenario.requestFactory().apply(i), HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, error) -> {
+                        if (measured) {
+                            boolean failed = error != null || response.statusCode() >= 400;
+                            report.record(scenario.name(), micros(System.nanoTime() - intended), failed);
+                        }
+                        inFlight.decrementAndGet();
+                        pending.arriveAndDeregister();
+                    });
+        }
+
+        try {
+            pending.awaitAdvanceInterruptibly(pending.arrive(), 30, TimeUnit.SECONDS);
+        } catch (TimeoutException e) {
+            throw new IllegalStateException("Quedaron " + inFlight.get() + " solicitudes sin respuesta en " + scenario.name(), e);
+        }
+    }
+
+    public static HttpRequest get(URI uri) {
+        return HttpRequest.newBuilder(uri).timeout(Duration.ofSeconds(10)).GET().build();
+    }
+
+    public static HttpRequest postJson(URI uri, String body) {
+        return HttpRequest.newBuilder(uri)
+                .timeout(Duration.ofSeconds(10))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private static long micros(long nanos) {
+        return TimeUnit.NANOSECONDS.toMicros(nanos);
+    }
+}
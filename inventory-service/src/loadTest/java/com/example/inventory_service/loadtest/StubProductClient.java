@@ -0,0 +1,98 @@
+package com.example.inventory_service.loadtest;
+
+import com.example.inventory_service.client.ProductClient;
+import com.example.inventory_service.dto.ProductoDto;
+import feign.FeignException;
+import feign.Request;
+import feign.Response;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Sustituto local de product-service: responde cualquier ID con latencia y errores configurables.
+ * <p>
+ * Cada llamada espera {@code latency} más un extra aleatorio de hasta {@code jitter}, y con probabilidad
+ * {@code errorRate} falla como lo haría Feign ante un 503.
+ */
+public class StubProductClient implements ProductClient {
+
+    private final long latencyNanos;
+    private final long jitterNanos;
+    private final double errorRate;
+    private final AtomicLong calls = new AtomicLong();
+    private final AtomicLong errors = new AtomicLong();
+
+    public StubProductClient(Duration latency, Duration jitter, double errorRate) {
+        this.latencyNanos = latency.toNanos();
+        this.jitterNanos = jitter.toNanos();
+        this.errorRate = errorRate;
+    }
+
+    @Override
+    public ProductoDto getProductoById(Long id) {
+        simulate("/api/v1/products/" + id);
+        return producto(id);
+    }
+
+    @Override
+    public Response getProductoByIdIfNoneMatch(Long id, String etag) {
+        Request request = request("/api/v1/products/" + id);
+        simulate(request);
+        // Los productos del stub nunca cambian
+        return Response.builder()
+                .status(304)
+                .headers(Map.of())
+                .request(request)
+                .build();
+    }
+
+    @Override
+    public List<ProductoDto> getProductosByIds(List<Long> ids) {
+        simulate("/api/v1/products/batch");
+        return ids.stream().map(this::producto).toList();
+    }
+
+    public long getCalls() {
+        return calls.get();
+    }
+
+    public long getErrors() {
+        return errors.get();
+    }
+
+    private ProductoDto producto(Long id) {
+        return new ProductoDto(id, "Producto " + id, 10.0, 0L);
+    }
+
+    private void simulate(String path) {
+        simulate(request(path));
+    }
+
+    private void simulate(Request request) {
+        calls.incrementAndGet();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long delay = latencyNanos + (jitterNanos > 0 ? random.nextLong(jitterNanos) : 0);
+        if (delay > 0) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(delay);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (errorRate > 0 && random.nextDouble() < errorRate) {
+            errors.incrementAndGet();
+            throw new FeignException.ServiceUnavailable("Error simulado de product-service", request, null, null);
+        }
+    }
+
+    private static Request request(String path) {
+        return Request.create(Request.HttpMethod.GET, "http://product-service:8081" + path,
+                Map.of(), null, StandardCharsets.UTF_8, null);
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.inventory_service.loadtest;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+
+import java.time.Duration;
+
+@TestConfiguration(proxyBeanMethods = false)
+class StubProductClientConfiguration {
+
+    // @Primary: se inyecta en lugar del cliente Feign, que sigue registrado pero sin uso
+    @Bean
+    @Primary
+    StubProductClient stubProductClient(@Value("${loadtest.stub.latency:5ms}") Duration latency,
+                                        @Value("${loadtest.stub.jitter:5ms}") Duration jitter,
+                                        @Value("${loadtest.stub.error-rate:0.0}") double errorRate) {
+        return new StubProductClient(latency, jitter, errorRate);
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.inventory_service.loadtest;
+
+import com.example.inventory_service.InventoryServiceApplication;
+import com.example.inventory_service.service.InventoryBulkWriter;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compara inventory-service con hilos de plataforma y con el perfil {@code virtual} a la misma concurrencia:
+ * {@code loadtest.connections} clientes en modelo cerrado contra {@code GET /inventory/{productId}}, con
+ * la caché de productos desactivada para que cada solicitud espere a {@link StubProductClient}.
+ * <p>
+ * Con la latencia del stub ({@code loadtest.stub.latency}, 50 ms por defecto) el límite con hilos de
+ * plataforma es {@code server.tomcat.threads.max / latencia}; con hilos virtuales pasa a ser el pool de
+ * Hikari, el bulkhead o la CPU.
+ */
+class ThreadingModeLoadTest {
+
+    private static final int CONNECTIONS = Integer.getInteger("loadtest.connections", 1000);
+    private static final int PRODUCTS = Integer.getInteger("loadtest.products", 10000);
+    private static final Duration WARMUP = DurationStyle.detectAndParse(System.getProperty("loadtest.warmup", "5s"));
+    private static final Duration DURATION = DurationStyle.detectAndParse(System.getProperty("loadtest.duration", "20s"));
+
+    private static EmbeddedPostgres postgres;
+
+    @BeforeAll
+    static void startDatabase() throws IOException {
+        postgres = EmbeddedPostgres.builder().start();
+    }
+
+    @AfterAll
+    static void stopDatabase() throws IOException {
+        if (postgres != null) {
+            postgres.close();
+        }
+    }
+
+    @Test
+    void platformVsVirtualThreads() throws Exception {
+        LatencyReport report = new LatencyReport();
+        Map<String, ClosedModelLoadGenerator.Result> results = new LinkedHashMap<>();
+        results.put("platform", run("platform", new String[0], report));
+        results.put("virtual", run("virtual", new String[]{"virtual"}, report));
+
+        System.out.printf("%nModelo cerrado: %d conexiones, %s de medición, latencia del stub %s%n",
+                CONNECTIONS, DURATION, System.getProperty("loadtest.stub.latency", "50ms"));
+        System.out.printf("%-10s %12s %8s %12s%n", "modo", "requests", "errors", "req/s");
+        results.forEach((mode, result) -> System.out.printf("%-10s %12d %8d %12.1f%n",
+                mode, result.requests(), result.errors(), result.throughput()));
+        report.printSummary(System.out);
+        report.writeTo(Path.of(System.getProperty("loadtest.report-dir", "build/reports/loadtest"), "threading"));
+
+        results.forEach((mode, result) -> assertTrue(result.requests() > 0, "Sin mediciones para " + mode));
+    }
+
+    private ClosedModelLoadGenerator.Result run(String mode, String[] profiles, LatencyReport report) throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(
+                InventoryServiceApplication.class, StubProductClientConfiguration.class)
+                .profiles(profiles)
+                .properties(properties())
+                .run()) {
+            // En el segundo arranque las filas ya existen y solo se actualizan: los dos modos parten del mismo estado
+            context.getBean(InventoryBulkWriter.class).write(LongStream.rangeClosed(1, PRODUCTS).boxed()
+                    .collect(Collectors.toMap(Function.identity(), id -> 1_000_000)));
+
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            String base = "http://localhost:" + port + "/api/v1/inventory/";
+            HttpClient httpClient = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofSeconds(2))
+                    .build();
+            return new ClosedModelLoadGenerator(httpClient, report).run("GET /inventory/{productId} [" + mode + "]",
+                    CONNECTIONS, WARMUP, DURATION,
+                    i -> HttpRequest.newBuilder(URI.create(base + ThreadLocalRandom.current().nextLong(1, PRODUCTS + 1L)))
+                            .timeout(Duration.ofSeconds(30))
+                            .GET()
+                            .build());
+        }
+    }
+
+    private static Map<String, Object> properties() {
+        Map<String, Object> properties = new LinkedHashMap<>();
+        properties.put("server.port", 0);
+        properties.put("spring.datasource.url", postgres.getJdbcUrl("postgres", "postgres") + "&reWriteBatchedInserts=true");
+        properties.put("spring.datasource.username", "postgres");
+        properties.put("spring.datasource.password", "postgres");
+        properties.put("logging.level.com.example.inventory_service", "WARN");
+        // Sin caché, cada solicitud llega al stub; el bulkhead y el breaker no deben ser el límite
+        properties.put("inventory.product-cache.maximum-size", 0);
+        properties.put("inventory.product-client.max-concurrent-calls", CONNECTIONS);
+        properties.put("inventory.product-client.slow-call-threshold", "1m");
+        properties.put("loadtest.stub.latency", System.getProperty("loadtest.stub.latency", "50ms"));
+        properties.put("loadtest.stub.jitter", System.getProperty("loadtest.stub.jitter", "0ms"));
+        return properties;
+    }
+}
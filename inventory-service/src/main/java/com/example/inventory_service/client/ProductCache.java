@@ -0,0 +1,286 @@
+package com.example.inventory_service.client;
+
+import com.example.inventory_service.dto.ProductoDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import feign.Response;
+import feign.FeignException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+
+/**
+ * Caché de lectura en memoria delante de {@link ProductClient}.
+ * <p>
+ * Acotada por tamaño y TTL; Caffeine usa W-TinyLFU, que tiene en cuenta la frecuencia de acceso
+ * al desalojar. Las estadísticas (aciertos, fallos, desalojos) se publican en Actuator como
+ * {@code cache.gets}, {@code cache.evictions}, etc. con la etiqueta {@code cache=productos}.
+ * product-service notifica los cambios de productos ({@code ProductEventController}), así que el TTL
+ * solo cubre notificaciones perdidas y puede ser largo. Pasado {@code refresh-after}, el siguiente acceso
+ * revalida la entrada en segundo plano con {@code If-None-Match}: si el producto no cambió, product-service
+ * responde 304 sin cuerpo y se conserva el valor actual.
+ * <p>
+ * Cada llamada a product-service se mide en el timer {@code product.client.requests}, etiquetado por
+ * {@code operation} (get, batch, revalidate) y {@code outcome}, y pasa por {@link ProductClientGuard}.
+ * Para las lecturas, {@link #getOrLastKnown} y {@link #getAllOrLastKnown} recurren al último valor conocido
+ * de cada producto (que sobrevive a la expiración y a la invalidación) cuando product-service falla o el
+ * circuito está abierto; ese valor no se guarda en la caché principal.
+ * <p>
+ * Las cargas pasan por un {@link SingleFlight} común: Caffeine ya agrupa las cargas concurrentes de una misma
+ * clave, pero no un lote con las cargas individuales (o con otro lote) que piden los mismos IDs.
+ * <p>
+ * La caché es asíncrona por dentro: Caffeine solo registra el futuro de la carga bajo el lock de
+ * {@code ConcurrentHashMap.compute}, y la llamada a product-service (y la espera de {@link SingleFlight}) corre
+ * en {@link #LOADER}, un hilo virtual por carga. Así, con el perfil {@code virtual}, quien espera un producto
+ * no fija su hilo portador durante la llamada remota (se comprueba con {@code -Djdk.tracePinnedThreads=short}).
+ */
+@Slf4j
+@Component
+public class ProductCache {
+
+    public static final String CACHE_NAME = "productos";
+    public static final String CLIENT_TIMER = "product.client.requests";
+
+    // Las cargas solo esperan red: un hilo virtual por carga, limitado por el bulkhead de ProductClientGuard
+    static final Executor LOADER = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("product-cache-", 0).factory());
+
+    private final LoadingCache<Long, ProductoDto> cache;
+    private final Cache<Long, ProductoDto> lastKnown;
+    private final ProductClientGuard guard;
+    private final MeterRegistry meterRegistry;
+    private final SingleFlight<Long, ProductoDto> singleFlight;
+
+    public ProductCache(ProductClient productClient,
+                        ProductClientGuard guard,
+                        ObjectMapper objectMapper,
+                        MeterRegistry meterRegistry,
+                        @Value("${inventory.product-cache.maximum-size:10000}") long maximumSize,
+                        @Value("${inventory.product-cache.ttl:1h}") Duration ttl,
+                        @Value("${inventory.product-cache.refresh-after:5m}") Duration refreshAfter) {
+        this.guard = guard;
+        this.meterRegistry = meterRegistry;
+        this.singleFlight = new SingleFlight<>(meterRegistry, CACHE_NAME);
+        this.lastKnown = Caffeine.newBuilder().maximumSize(maximumSize).build();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .refreshAfterWrite(refreshAfter)
+                .executor(LOADER)
+                .recordStats()
+                .buildAsync(new CacheLoader<Long, ProductoDto>() {
+                    @Override
+                    public ProductoDto load(Long productoId) throws Exception {
+                        // Un null no se almacena: el siguiente acceso vuelve a consultar product-service
+                        return singleFlight.execute(productoId, () -> rememberOrForget(productoId, timed("get",
+                                () -> productClient.getProductoById(productoId),
+                                producto -> producto == null ? "NOT_FOUND" : "SUCCESS")));
+                    }
+
+                    @Override
+                    public Map<Long, ProductoDto> loadAll(Set<? extends Long> productoIds) throws Exception {
+                        return singleFlight.executeAll(productoIds, pendientes -> {
+                            List<ProductoDto> productos = timed("batch",
+                                    () -> productClient.getProductosByIds(new ArrayList<>(pendientes)), p -> "SUCCESS");
+                            Map<Long, ProductoDto> result = new HashMap<>();
+                            if (productos != null) {
+                                productos.forEach(producto -> result.put(producto.getId(), remember(producto)));
+                            }
+                            // Un ID que el lote no devuelve ya no existe: no debe volver por el valor conocido
+                            pendientes.stream().filter(id -> !result.containsKey(id)).forEach(lastKnown::invalidate);
+                            return result;
+                        });
+                    }
+
+                    @Override
+                    public ProductoDto reload(Long productoId, ProductoDto actual) throws Exception {
+                        if (actual.getVersion() == null) {
+                            return load(productoId);
+                        }
+                        try (Response response = timed("revalidate",
+                                () -> productClient.getProductoByIdIfNoneMatch(productoId, etag(actual)),
+                                ProductCache::revalidationOutcome)) {
+                            if (response.status() == HttpStatus.NOT_MODIFIED.value()) {
+                                return actual;
+                            }
+                            if (response.status() == HttpStatus.NOT_FOUND.value()) {
+                                // null elimina la entrada
+                                lastKnown.invalidate(productoId);
+                                return null;
+                            }
+                            if (response.status() != HttpStatus.OK.value() || response.body() == null) {
+                                // Caffeine conserva el valor actual y lo reintenta en el siguiente acceso
+                                throw new IllegalStateException("Respuesta inesperada de product-service: " + response.status());
+                            }
+                            return remember(objectMapper.readValue(response.body().asInputStream(), ProductoDto.class));
+                        }
+                    }
+                })
+                // Vista síncrona: get espera el futuro fuera del lock y relanza la excepción original de la carga
+                .synchronous();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    public ProductoDto get(Long productoId) {
+        return cache.get(productoId);
+    }
+
+    /**
+     * Como {@link #get}, pero si product-service no responde devuelve el último valor conocido del producto.
+     * Solo para lecturas: una escritura no debe validar contra datos posiblemente obsoletos.
+     */
+    public ProductoDto getOrLastKnown(Long productoId) {
+        try {
+            return cache.get(productoId);
+        } catch (FeignException.NotFound e) {
+            lastKnown.invalidate(productoId);
+            throw e;
+        } catch (RuntimeException e) {
+            ProductoDto producto = lastKnown.getIfPresent(productoId);
+            if (producto == null) {
+                throw e;
+            }
+            log.warn("product-service no disponible ({}); se usa el último valor conocido del producto ID {}",
+                    e.getMessage(), productoId);
+            return producto;
+        }
+    }
+
+    /**
+     * Devuelve los productos encontrados; solo los IDs ausentes de la caché se piden a product-service,
+     * en una única llamada por lote.
+     */
+    public Map<Long, ProductoDto> getAll(Collection<Long> productoIds) {
+        return cache.getAll(productoIds);
+    }
+
+    /**
+     * Como {@link #getAll}, pero si product-service no responde devuelve los productos con valor conocido.
+     */
+    public Map<Long, ProductoDto> getAllOrLastKnown(Collection<Long> productoIds) {
+        try {
+            return cache.getAll(productoIds);
+        } catch (RuntimeException e) {
+            Map<Long, ProductoDto> conocidos = lastKnown.getAllPresent(productoIds);
+            log.warn("product-service no disponible ({}); se usan {} de {} productos conocidos",
+                    e.getMessage(), conocidos.size(), productoIds.size());
+            return conocidos;
+        }
+    }
+
+    /**
+     * Solo memoria, sin llamar a product-service: para la variante reactiva, que consulta lo que falte
+     * con {@link ReactiveProductClient} y lo guarda con {@link #put}.
+     */
+    public ProductoDto getIfPresent(Long productoId) {
+        return cache.getIfPresent(productoId);
+    }
+
+    public Map<Long, ProductoDto> getAllPresent(Collection<Long> productoIds) {
+        return cache.getAllPresent(productoIds);
+    }
+
+    public ProductoDto getLastKnown(Long productoId) {
+        return lastKnown.getIfPresent(productoId);
+    }
+
+    public Map<Long, ProductoDto> getAllLastKnown(Collection<Long> productoIds) {
+        return lastKnown.getAllPresent(productoIds);
+    }
+
+    public void put(ProductoDto producto) {
+        cache.put(producto.getId(), remember(producto));
+    }
+
+    public void invalidate(Long productoId) {
+        cache.invalidate(productoId);
+    }
+
+    public void invalidateAll(Collection<Long> productoIds) {
+        cache.invalidateAll(productoIds);
+    }
+
+    /**
+     * Productos eliminados en product-service: además de la caché se olvida su último valor conocido, para que
+     * no reaparezcan en las lecturas degradadas.
+     */
+    public void evictDeleted(Collection<Long> productoIds) {
+        lastKnown.invalidateAll(productoIds);
+        cache.invalidateAll(productoIds);
+    }
+
+    CompletableFuture<ProductoDto> refresh(Long productoId) {
+        return cache.refresh(productoId);
+    }
+
+    private ProductoDto rememberOrForget(Long productoId, ProductoDto producto) {
+        if (producto == null) {
+            lastKnown.invalidate(productoId);
+        }
+        return remember(producto);
+    }
+
+    private ProductoDto remember(ProductoDto producto) {
+        if (producto != null) {
+            lastKnown.put(producto.getId(), producto);
+        }
+        return producto;
+    }
+
+    private <T> T timed(String operation, Callable<T> call, Function<T, String> outcomeOf) throws Exception {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "ERROR";
+        try {
+            T result = guard.call(call);
+            outcome = outcomeOf.apply(result);
+            return result;
+        } catch (FeignException.NotFound e) {
+            outcome = "NOT_FOUND";
+            throw e;
+        } catch (Exception e) {
+            if (ProductClientGuard.isRejection(e)) {
+                outcome = "REJECTED";
+            }
+            throw e;
+        } finally {
+            sample.stop(Timer.builder(CLIENT_TIMER)
+                    .description("Llamadas de inventory-service a product-service")
+                    .tag("operation", operation)
+                    .tag("outcome", outcome)
+                    .register(meterRegistry));
+        }
+    }
+
+    private static String revalidationOutcome(Response response) {
+        return switch (response.status()) {
+            case 200 -> "SUCCESS";
+            case 304 -> "NOT_MODIFIED";
+            case 404 -> "NOT_FOUND";
+            default -> "ERROR";
+        };
+    }
+
+    // Mismo formato que el ETag que product-service calcula a partir de la versión
+    static String etag(ProductoDto producto) {
+        return "\"" + producto.getVersion() + "\"";
+    }
+}
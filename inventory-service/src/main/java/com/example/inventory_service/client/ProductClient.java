@@ -1,13 +1,27 @@
 package com.example.inventory_service.client;
 
 import com.example.inventory_service.dto.ProductoDto;
+import feign.Response;
 import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.http.HttpHeaders;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
+
+import java.util.List;
 
 @FeignClient(name = "product-service", url = "http://product-service:8081")
 public interface ProductClient {
 
     @GetMapping("/api/v1/products/{id}")
     ProductoDto getProductoById(@PathVariable("id") Long id);  // Asegúrate de que Long esté bien escrito
+
+    // Respuesta sin decodificar: Feign trataría el 304 como error y aquí es el caso esperado
+    @GetMapping("/api/v1/products/{id}")
+    Response getProductoByIdIfNoneMatch(@PathVariable("id") Long id,
+                                        @RequestHeader(HttpHeaders.IF_NONE_MATCH) String etag);
+
+    @GetMapping("/api/v1/products/batch")
+    List<ProductoDto> getProductosByIds(@RequestParam("ids") List<Long> ids);
 }
@@ -0,0 +1,91 @@
+package com.example.inventory_service.client;
+
+import feign.FeignException;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.micrometer.tagged.TaggedBulkheadMetrics;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+
+/**
+ * Protección de las llamadas a product-service.
+ * <p>
+ * Un bulkhead por semáforo limita las llamadas simultáneas (si no hay cupo se rechaza al instante, sin
+ * esperar) y un circuit breaker deja de llamar mientras la tasa de errores o de llamadas lentas supere el
+ * umbral. Los 404 no cuentan como fallo. El tiempo máximo de cada llamada lo ponen los timeouts de Feign
+ * ({@code spring.cloud.openfeign.client.config.product-service}).
+ * Estado y rechazos se publican como {@code resilience4j.circuitbreaker.*} y {@code resilience4j.bulkhead.*}.
+ */
+@Component
+public class ProductClientGuard {
+
+    public static final String NAME = "product-service";
+
+    private final Bulkhead bulkhead;
+    private final CircuitBreaker circuitBreaker;
+
+    public ProductClientGuard(MeterRegistry meterRegistry,
+                              @Value("${inventory.product-client.max-concurrent-calls:20}") int maxConcurrentCalls,
+                              @Value("${inventory.product-client.failure-rate-threshold:50}") float failureRateThreshold,
+                              @Value("${inventory.product-client.slow-call-threshold:2s}") Duration slowCallThreshold,
+                              @Value("${inventory.product-client.minimum-calls:20}") int minimumCalls,
+                              @Value("${inventory.product-client.sliding-window-size:50}") int slidingWindowSize,
+                              @Value("${inventory.product-client.wait-in-open-state:10s}") Duration waitInOpenState) {
+        BulkheadRegistry bulkheads = BulkheadRegistry.of(BulkheadConfig.custom()
+                .maxConcurrentCalls(maxConcurrentCalls)
+                .maxWaitDuration(Duration.ZERO)
+                .build());
+        CircuitBreakerRegistry circuitBreakers = CircuitBreakerRegistry.of(CircuitBreakerConfig.custom()
+                .slidingWindowType(CircuitBreakerConfig.SlidingWindowType.COUNT_BASED)
+                .slidingWindowSize(slidingWindowSize)
+                .minimumNumberOfCalls(minimumCalls)
+                .failureRateThreshold(failureRateThreshold)
+                .slowCallDurationThreshold(slowCallThreshold)
+                .slowCallRateThreshold(failureRateThreshold)
+                .waitDurationInOpenState(waitInOpenState)
+                .permittedNumberOfCallsInHalfOpenState(Math.max(1, minimumCalls / 4))
+                .ignoreExceptions(FeignException.NotFound.class)
+                .build());
+        this.bulkhead = bulkheads.bulkhead(NAME);
+        this.circuitBreaker = circuitBreakers.circuitBreaker(NAME);
+        TaggedBulkheadMetrics.ofBulkheadRegistry(bulkheads).bindTo(meterRegistry);
+        TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(circuitBreakers).bindTo(meterRegistry);
+    }
+
+    /**
+     * Ejecuta la llamada si hay cupo y el circuito lo permite; si no, lanza
+     * {@link BulkheadFullException} o {@link CallNotPermittedException} sin llamar a product-service.
+     */
+    public <T> T call(Callable<T> call) throws Exception {
+        // El bulkhead va por fuera: un rechazo por falta de cupo no cuenta como fallo del servicio
+        return Bulkhead.decorateCallable(bulkhead, CircuitBreaker.decorateCallable(circuitBreaker, call)).call();
+    }
+
+    // La variante reactiva aplica los mismos límites con los operadores de resilience4j-reactor
+    Bulkhead getBulkhead() {
+        return bulkhead;
+    }
+
+    CircuitBreaker getCircuitBreaker() {
+        return circuitBreaker;
+    }
+
+    public CircuitBreaker.State getState() {
+        return circuitBreaker.getState();
+    }
+
+    static boolean isRejection(Throwable e) {
+        return e instanceof BulkheadFullException || e instanceof CallNotPermittedException;
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.inventory_service.client;
+
+import com.example.inventory_service.dto.ProductoDto;
+import io.github.resilience4j.bulkhead.operator.BulkheadOperator;
+import io.github.resilience4j.circuitbreaker.operator.CircuitBreakerOperator;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Equivalente no bloqueante de {@link ProductClient} sobre {@code WebClient}.
+ * <p>
+ * Comparte con la variante bloqueante el bulkhead y el circuit breaker de {@link ProductClientGuard} y el
+ * timer {@link ProductCache#CLIENT_TIMER} (operaciones {@code reactive-get} y {@code reactive-batch}). Un 404
+ * se devuelve como {@code Mono} vacío y no cuenta como fallo.
+ */
+@Component
+public class ReactiveProductClient {
+
+    private final WebClient webClient;
+    private final ProductClientGuard guard;
+    private final MeterRegistry meterRegistry;
+
+    public ReactiveProductClient(WebClient productWebClient, ProductClientGuard guard, MeterRegistry meterRegistry) {
+        this.webClient = productWebClient;
+        this.guard = guard;
+        this.meterRegistry = meterRegistry;
+    }
+
+    public Mono<ProductoDto> getProductoById(Long id) {
+        return guarded("reactive-get", webClient.get()
+                .uri("/api/v1/products/{id}", id)
+                .exchangeToMono(response -> {
+                    if (response.statusCode().value() == HttpStatus.NOT_FOUND.value()) {
+                        return response.releaseBody().then(Mono.<ProductoDto>empty());
+                    }
+                    if (!response.statusCode().is2xxSuccessful()) {
+                        return response.<ProductoDto>createError();
+                    }
+                    return response.bodyToMono(ProductoDto.class);
+                }), producto -> "SUCCESS");
+    }
+
+    public Mono<List<ProductoDto>> getProductosByIds(Collection<Long> ids) {
+        return guarded("reactive-batch", webClient.get()
+                .uri(uri -> uri.path("/api/v1/products/batch").queryParam("ids", ids.toArray()).build())
+                .retrieve()
+                .bodyToFlux(ProductoDto.class)
+                .collectList(), productos -> "SUCCESS");
+    }
+
+    private <T> Mono<T> guarded(String operation, Mono<T> call, Function<T, String> outcomeOf) {
+        return Mono.defer(() -> {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            String[] outcome = {"NOT_FOUND"};
+            // El bulkhead va por fuera, como en ProductClientGuard.call
+            return call
+                    .transformDeferred(CircuitBreakerOperator.of(guard.getCircuitBreaker()))
+                    .transformDeferred(BulkheadOperator.of(guard.getBulkhead()))
+                    .doOnNext(result -> outcome[0] = outcomeOf.apply(result))
+                    .doOnError(e -> outcome[0] = ProductClientGuard.isRejection(e) ? "REJECTED" : "ERROR")
+                    .doOnCancel(() -> outcome[0] = "CANCELLED")
+                    .doFinally(signal -> sample.stop(Timer.builder(ProductCache.CLIENT_TIMER)
+                            .description("Llamadas de inventory-service a product-service")
+                            .tag("operation", operation)
+                            .tag("outcome", outcome[0])
+                            .register(meterRegistry)));
+        });
+    }
+}
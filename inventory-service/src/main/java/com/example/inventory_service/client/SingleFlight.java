@@ -0,0 +1,150 @@
+package com.example.inventory_service.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Agrupa las llamadas concurrentes por clave: mientras hay una llamada en curso para una clave, los demás
+ * solicitantes de esa clave esperan su resultado (o su excepción) en lugar de repetirla. No guarda nada:
+ * al terminar la llamada la clave queda libre.
+ * <p>
+ * {@link #executeAll} comparte las claves con las llamadas individuales: se une a las claves ya en curso
+ * y pide el resto en una sola llamada. Cada solicitud se cuenta en {@code product.client.singleflight}
+ * con {@code result=executed} (hizo la llamada) o {@code result=shared} (reutilizó una en curso);
+ * la proporción de {@code shared} es la tasa de agrupamiento.
+ */
+class SingleFlight<K, V> {
+
+    static final String METRIC = "product.client.singleflight";
+
+    @FunctionalInterface
+    interface Call<V> {
+        V call() throws Exception;
+    }
+
+    @FunctionalInterface
+    interface BulkCall<K, V> {
+        Map<K, V> call(Set<K> keys) throws Exception;
+    }
+
+    private final Map<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final Counter executed;
+    private final Counter shared;
+
+    SingleFlight(MeterRegistry meterRegistry, String name) {
+        this.executed = counter(meterRegistry, name, "executed");
+        this.shared = counter(meterRegistry, name, "shared");
+    }
+
+    /**
+     * Ejecuta {@code call} salvo que ya haya una llamada en curso para {@code key}; en ese caso espera
+     * su resultado. El valor puede ser null.
+     */
+    V execute(K key, Call<V> call) throws Exception {
+        CompletableFuture<V> own = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, own);
+        if (existing != null) {
+            shared.increment();
+            return await(existing);
+        }
+        executed.increment();
+        try {
+            V value = call.call();
+            own.complete(value);
+            return value;
+        } catch (Throwable e) {
+            own.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, own);
+        }
+    }
+
+    /**
+     * Devuelve los valores no nulos de {@code keys}. Las claves sin llamada en curso se piden juntas
+     * a {@code call}; las demás se esperan después, así dos lotes que se solapan no se bloquean entre sí.
+     */
+    Map<K, V> executeAll(Collection<? extends K> keys, BulkCall<K, V> call) throws Exception {
+        Map<K, CompletableFuture<V>> own = new LinkedHashMap<>();
+        Map<K, CompletableFuture<V>> joined = new HashMap<>();
+        for (K key : keys) {
+            if (own.containsKey(key) || joined.containsKey(key)) {
+                continue;
+            }
+            CompletableFuture<V> future = new CompletableFuture<>();
+            CompletableFuture<V> existing = inFlight.putIfAbsent(key, future);
+            if (existing == null) {
+                own.put(key, future);
+            } else {
+                joined.put(key, existing);
+            }
+        }
+        executed.increment(own.size());
+        shared.increment(joined.size());
+
+        Map<K, V> result = new HashMap<>();
+        if (!own.isEmpty()) {
+            try {
+                Map<K, V> loaded = call.call(own.keySet());
+                own.forEach((key, future) -> {
+                    V value = loaded == null ? null : loaded.get(key);
+                    future.complete(value);
+                    if (value != null) {
+                        result.put(key, value);
+                    }
+                });
+            } catch (Throwable e) {
+                own.values().forEach(future -> future.completeExceptionally(e));
+                throw e;
+            } finally {
+                own.forEach(inFlight::remove);
+            }
+        }
+        for (Map.Entry<K, CompletableFuture<V>> entry : joined.entrySet()) {
+            V value = await(entry.getValue());
+            if (value != null) {
+                result.put(entry.getKey(), value);
+            }
+        }
+        return result;
+    }
+
+    int inFlight() {
+        return inFlight.size();
+    }
+
+    private V await(CompletableFuture<V> future) throws Exception {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw e;
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof Exception exception) {
+                throw exception;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String name, String result) {
+        return Counter.builder(METRIC)
+                .description("Solicitudes a product-service atendidas con una llamada propia o compartida")
+                .tag("name", name)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
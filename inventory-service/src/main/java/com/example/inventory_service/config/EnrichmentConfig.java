@@ -0,0 +1,35 @@
+package com.example.inventory_service.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+@Configuration
+public class EnrichmentConfig {
+
+    /**
+     * Pool compartido para las consultas a product-service durante el enriquecimiento de listados.
+     * Cada solicitud usa como máximo {@code inventory.enrichment.concurrency} hilos de este pool.
+     */
+    @Bean(destroyMethod = "shutdown")
+    @ConditionalOnThreading(Threading.PLATFORM)
+    public ExecutorService enrichmentExecutor(@Value("${inventory.enrichment.pool-size:16}") int poolSize) {
+        return Executors.newFixedThreadPool(poolSize, new CustomizableThreadFactory("enrichment-"));
+    }
+
+    /**
+     * Con {@code spring.threads.virtual.enabled=true}: un hilo virtual por consulta, sin pool que agotar.
+     * El límite lo siguen poniendo {@code inventory.enrichment.concurrency} y el bulkhead del cliente.
+     */
+    @Bean(name = "enrichmentExecutor", destroyMethod = "shutdown")
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public ExecutorService virtualEnrichmentExecutor() {
+        return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("enrichment-", 0).factory());
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.inventory_service.config;
+
+import feign.Client;
+import feign.hc5.ApacheHttp5Client;
+import feign.http2client.Http2Client;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.pool.PoolConcurrencyPolicy;
+import org.apache.hc.core5.pool.PoolReusePolicy;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+
+/**
+ * Cliente HTTP compartido por las llamadas entre servicios (Feign y RestTemplate).
+ * Por defecto es un pool de conexiones persistentes de Apache HttpClient 5; con
+ * {@code inventory.http-client.http2=true} se usa el cliente del JDK en HTTP/2,
+ * que multiplexa las solicitudes sobre una sola conexión por destino.
+ */
+@Configuration
+public class HttpClientConfig {
+
+    @Bean(destroyMethod = "close")
+    public PoolingHttpClientConnectionManager interServiceConnectionManager(
+            @Value("${inventory.http-client.max-total:200}") int maxTotal,
+            @Value("${inventory.http-client.max-per-route:50}") int maxPerRoute,
+            @Value("${inventory.http-client.connect-timeout:500ms}") Duration connectTimeout,
+            @Value("${inventory.http-client.socket-timeout:2s}") Duration socketTimeout,
+            @Value("${inventory.http-client.time-to-live:5m}") Duration timeToLive) {
+        return PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxTotal)
+                .setMaxConnPerRoute(maxPerRoute)
+                // LIFO reutiliza las conexiones calientes y deja que las demás caduquen por inactividad
+                .setConnPoolPolicy(PoolReusePolicy.LIFO)
+                .setPoolConcurrencyPolicy(PoolConcurrencyPolicy.STRICT)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.of(connectTimeout))
+                        .setSocketTimeout(Timeout.of(socketTimeout))
+                        .setTimeToLive(TimeValue.of(timeToLive))
+                        .setValidateAfterInactivity(TimeValue.ofSeconds(2))
+                        .build())
+                .build();
+    }
+
+    /**
+     * Un bean {@link CloseableHttpClient} propio desactiva la configuración de feign-hc5 de Spring Cloud
+     * OpenFeign (incluido su {@link Client}); Feign lo usa a través de {@link #feignClient}.
+     */
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient interServiceHttpClient(
+            PoolingHttpClientConnectionManager connectionManager,
+            @Value("${inventory.http-client.connection-request-timeout:500ms}") Duration connectionRequestTimeout,
+            @Value("${inventory.http-client.keep-alive:15s}") Duration keepAlive,
+            @Value("${inventory.http-client.idle-eviction:15s}") Duration idleEviction) {
+        return HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        // Espera máxima por una conexión libre del pool antes de fallar
+                        .setConnectionRequestTimeout(Timeout.of(connectionRequestTimeout))
+                        // Se usa cuando el servidor no envía Keep-Alive: timeout=...
+                        .setConnectionKeepAlive(TimeValue.of(keepAlive))
+                        .build())
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.of(idleEviction))
+                .build();
+    }
+
+    /**
+     * Gauges httpcomponents.httpclient.pool.* (conexiones disponibles, prestadas y solicitudes en espera).
+     */
+    @Bean
+    public MeterBinder interServicePoolMetrics(PoolingHttpClientConnectionManager connectionManager) {
+        return new PoolingHttpClientConnectionManagerMetricsBinder(connectionManager, "inter-service");
+    }
+
+    /**
+     * Cliente de Feign sobre el pool compartido. Sin este bean Feign caería en {@code Client.Default}
+     * (HttpURLConnection, sin pool). Los timeouts de {@code spring.cloud.openfeign.client.config} se siguen
+     * aplicando por solicitud.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "inventory.http-client.http2", havingValue = "false", matchIfMissing = true)
+    public Client feignClient(CloseableHttpClient interServiceHttpClient) {
+        return new ApacheHttp5Client(interServiceHttpClient);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "inventory.http-client.http2", havingValue = "true")
+    public HttpClient interServiceHttp2Client(
+            @Value("${inventory.http-client.connect-timeout:500ms}") Duration connectTimeout) {
+        return HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(connectTimeout)
+                .build();
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "inventory.http-client.http2", havingValue = "true")
+    public Client http2FeignClient(HttpClient interServiceHttp2Client) {
+        return new Http2Client(interServiceHttp2Client);
+    }
+
+    @Bean
+    public ClientHttpRequestFactory interServiceRequestFactory(
+            CloseableHttpClient interServiceHttpClient,
+            ObjectProvider<HttpClient> interServiceHttp2Client) {
+        HttpClient http2 = interServiceHttp2Client.getIfAvailable();
+        if (http2 != null) {
+            return new JdkClientHttpRequestFactory(http2);
+        }
+        return new HttpComponentsClientHttpRequestFactory(interServiceHttpClient);
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.inventory_service.config;
+
+import io.netty.channel.ChannelOption;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+
+/**
+ * Cliente no bloqueante hacia product-service para la API reactiva. Reactor Netty atiende todas las
+ * conexiones desde unos pocos hilos de event loop; una respuesta pendiente no ocupa ninguno.
+ * <p>
+ * El pool tiene su propio límite de conexiones y de solicitudes en espera: pasado
+ * {@code pending-acquire-max} se rechaza en lugar de encolar sin fin. Sus métricas se publican como
+ * {@code reactor.netty.connection.provider.*}.
+ */
+@Configuration
+public class ReactiveClientConfig {
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider productConnectionProvider(
+            @Value("${inventory.reactive.max-connections:200}") int maxConnections,
+            @Value("${inventory.reactive.pending-acquire-max:1000}") int pendingAcquireMax,
+            @Value("${inventory.http-client.connection-request-timeout:500ms}") Duration pendingAcquireTimeout,
+            @Value("${inventory.http-client.keep-alive:15s}") Duration maxIdleTime) {
+        return ConnectionProvider.builder("product-service")
+                .maxConnections(maxConnections)
+                .pendingAcquireMaxCount(pendingAcquireMax)
+                .pendingAcquireTimeout(pendingAcquireTimeout)
+                // Igual que el pool de Feign: por debajo del keep-alive de Tomcat en product-service
+                .maxIdleTime(maxIdleTime)
+                .evictInBackground(maxIdleTime)
+                .lifo()
+                .metrics(true)
+                .build();
+    }
+
+    @Bean
+    public WebClient productWebClient(WebClient.Builder builder,
+                                      ConnectionProvider productConnectionProvider,
+                                      @Value("${inventory.reactive.product-service-url:http://product-service:8081}") String baseUrl,
+                                      @Value("${inventory.http-client.connect-timeout:500ms}") Duration connectTimeout,
+                                      @Value("${inventory.http-client.socket-timeout:2s}") Duration responseTimeout) {
+        HttpClient httpClient = HttpClient.create(productConnectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) connectTimeout.toMillis())
+                .responseTimeout(responseTimeout);
+        return builder
+                .baseUrl(baseUrl)
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .build();
+    }
+}
@@ -2,12 +2,13 @@ package com.example.inventory_service.config;
 
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 
 @Configuration
 public class RestTemplateConfig {
     @Bean
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
+    public RestTemplate restTemplate(ClientHttpRequestFactory interServiceRequestFactory) {
+        return new RestTemplate(interServiceRequestFactory);
     }
-}
\ No newline at end of file
+}
@@ -1,8 +1,14 @@
 package com.example.inventory_service.controller;
 
+import com.example.inventory_service.dto.InventoryBulkItem;
+import com.example.inventory_service.dto.InventoryBulkResponse;
+import com.example.inventory_service.dto.InventoryDeltaRequest;
+import com.example.inventory_service.dto.InventoryPageResponse;
 import com.example.inventory_service.dto.InventoryResponse;
 import com.example.inventory_service.dto.InventoryUpdateRequest;
 import com.example.inventory_service.service.InventoryService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -12,10 +18,18 @@ import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
 
+import static com.example.inventory_service.logging.LogMarkers.ACCESS;
+import static net.logstash.logback.argument.StructuredArguments.kv;
+
 @RestController
 @RequestMapping("/api/v1/inventory")
 @Tag(name = "Inventario", description = "Operaciones del microservicio de inventario")
@@ -26,6 +40,9 @@ public class InventoryController {
     @Autowired
     private InventoryService inventoryService;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
     @Operation(summary = "Consultar inventario por ID de producto")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Inventario encontrado"),
@@ -35,7 +52,7 @@ public class InventoryController {
     public InventoryResponse getByProductId(
             @PathVariable
             @Parameter(description = "ID del producto") Long productId) {
-        logger.info("Consultando inventario para producto ID: {}", productId);
+        logger.info(ACCESS, "Consultando inventario: {}", kv("productoId", productId));
         return inventoryService.getByProductId(productId);
     }
 
@@ -48,15 +65,91 @@ public class InventoryController {
     public InventoryResponse updateStock(
             @PathVariable Long productId,
             @Valid @RequestBody InventoryUpdateRequest request) {
-        logger.info("Actualizando inventario para producto ID {}: {}", productId, request);
+        logger.info("Actualizando inventario: {} {}", kv("productoId", productId), kv("cantidad", request.getCantidad()));
         return inventoryService.updateStock(productId, request);
     }
 
+    @Operation(summary = "Incrementar el stock de un producto de forma atómica")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Stock incrementado exitosamente"),
+            @ApiResponse(responseCode = "400", description = "Cantidad inválida o producto inexistente")
+    })
+    @PostMapping("/{productId}/increment")
+    public InventoryResponse incrementStock(
+            @PathVariable Long productId,
+            @Valid @RequestBody InventoryDeltaRequest request) {
+        logger.info("Incrementando inventario: {} {}", kv("productoId", productId), kv("delta", request.getCantidad()));
+        return inventoryService.incrementStock(productId, request);
+    }
+
+    @Operation(summary = "Decrementar el stock de un producto de forma atómica")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Stock decrementado exitosamente"),
+            @ApiResponse(responseCode = "400", description = "Cantidad inválida o stock insuficiente")
+    })
+    @PostMapping("/{productId}/decrement")
+    public InventoryResponse decrementStock(
+            @PathVariable Long productId,
+            @Valid @RequestBody InventoryDeltaRequest request) {
+        logger.info("Decrementando inventario: {} {}", kv("productoId", productId), kv("delta", request.getCantidad()));
+        return inventoryService.decrementStock(productId, request);
+    }
+
+    @Operation(summary = "Actualizar el stock de muchos productos en una sola solicitud")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Carga procesada; incluye los productos inexistentes que se omitieron"),
+            @ApiResponse(responseCode = "400", description = "Carga vacía, demasiado grande o con elementos inválidos")
+    })
+    @PostMapping("/bulk")
+    public InventoryBulkResponse bulkUpdateStock(@RequestBody List<InventoryBulkItem> items) {
+        logger.info("Carga masiva de inventario: {} elementos", items == null ? 0 : items.size());
+        return inventoryService.bulkUpdateStock(items);
+    }
+
     @Operation(summary = "Consultar todos los productos del inventario")
     @ApiResponse(responseCode = "200", description = "Lista de productos del inventario")
     @GetMapping
     public List<InventoryResponse> getAllInventory() {
-        logger.info("Consultando todo el inventario");
+        logger.info(ACCESS, "Consultando todo el inventario");
         return inventoryService.getAllInventory();
     }
+
+    @Operation(summary = "Consultar el inventario paginado por cursor")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Página de inventario; nextCursor es null en la última página"),
+            @ApiResponse(responseCode = "400", description = "Cursor o tamaño de página inválido")
+    })
+    @GetMapping("/page")
+    public InventoryPageResponse getInventoryPage(
+            @RequestParam(required = false)
+            @Parameter(description = "Cursor devuelto por la página anterior (vacío para la primera)") Long after,
+            @RequestParam(defaultValue = "100")
+            @Parameter(description = "Cantidad de elementos por página") int size) {
+        logger.info(ACCESS, "Consultando página de inventario: after={}, size={}", after, size);
+        return inventoryService.getInventoryPage(after, size);
+    }
+
+    @Operation(summary = "Exportar todo el inventario en streaming (NDJSON)")
+    @ApiResponse(responseCode = "200", description = "Un objeto JSON de inventario por línea")
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamInventory() {
+        logger.info(ACCESS, "Exportando inventario en streaming");
+        ObjectWriter writer = objectMapper.writerFor(InventoryResponse.class);
+
+        StreamingResponseBody body = out -> inventoryService.streamInventory(batch -> {
+            try {
+                for (InventoryResponse response : batch) {
+                    out.write(writer.writeValueAsBytes(response));
+                    out.write('\n');
+                }
+                out.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
 }
@@ -0,0 +1,57 @@
+package com.example.inventory_service.controller;
+
+import com.example.inventory_service.client.ProductCache;
+import com.example.inventory_service.dto.ProductChangeEvent;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+@RestController
+@RequestMapping("/internal/product-events")
+@Tag(name = "Eventos de productos", description = "Notificaciones de cambios enviadas por product-service")
+public class ProductEventController {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductEventController.class);
+    private static final String ELIMINADO = "ELIMINADO";
+
+    @Autowired
+    private ProductCache productCache;
+
+    @Operation(summary = "Recibir cambios de productos e invalidar la caché local")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "Cambios aplicados")
+    })
+    @PostMapping
+    public ResponseEntity<Void> onProductChanges(@RequestBody List<ProductChangeEvent> events) {
+        // Se invalida tanto en actualizaciones como en eliminaciones: la siguiente lectura recarga el
+        // producto por lote. Repetir un evento no tiene efecto, así que la entrega duplicada es inocua
+        List<ProductChangeEvent> validos = events == null ? List.of() : events.stream()
+                .filter(Objects::nonNull)
+                .filter(event -> event.getProductId() != null)
+                .toList();
+        List<Long> eliminados = productIds(validos.stream().filter(event -> ELIMINADO.equals(event.getTipo())));
+        List<Long> actualizados = productIds(validos.stream().filter(event -> !ELIMINADO.equals(event.getTipo())));
+        productCache.invalidateAll(actualizados);
+        // Un producto eliminado también se olvida en el último valor conocido
+        productCache.evictDeleted(eliminados);
+        logger.info("Cambios de productos recibidos: {} actualizados, {} eliminados", actualizados.size(), eliminados.size());
+        return ResponseEntity.noContent().build();
+    }
+
+    private static List<Long> productIds(Stream<ProductChangeEvent> events) {
+        return events.map(ProductChangeEvent::getProductId).distinct().toList();
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.inventory_service.controller;
+
+import com.example.inventory_service.dto.InventoryPageResponse;
+import com.example.inventory_service.dto.InventoryResponse;
+import com.example.inventory_service.service.ReactiveInventoryService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import static com.example.inventory_service.logging.LogMarkers.ACCESS;
+import static net.logstash.logback.argument.StructuredArguments.kv;
+
+/**
+ * Las mismas lecturas que {@link InventoryController}, pero sin bloquear: Spring MVC libera el hilo de
+ * Tomcat al recibir el {@code Mono}/{@code Flux} y escribe la respuesta cuando se completa.
+ */
+@RestController
+@RequestMapping("/api/v1/reactive/inventory")
+@Tag(name = "Inventario (reactivo)", description = "Lecturas de inventario no bloqueantes")
+public class ReactiveInventoryController {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveInventoryController.class);
+
+    @Autowired
+    private ReactiveInventoryService reactiveInventoryService;
+
+    @Operation(summary = "Consultar inventario por ID de producto")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Inventario encontrado"),
+            @ApiResponse(responseCode = "404", description = "Producto no encontrado en inventario")
+    })
+    @GetMapping("/{productId}")
+    public Mono<InventoryResponse> getByProductId(
+            @PathVariable
+            @Parameter(description = "ID del producto") Long productId) {
+        logger.info(ACCESS, "Consultando inventario (reactivo): {}", kv("productoId", productId));
+        return reactiveInventoryService.getByProductId(productId);
+    }
+
+    @Operation(summary = "Consultar el inventario paginado por cursor")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Página de inventario; nextCursor es null en la última página"),
+            @ApiResponse(responseCode = "400", description = "Cursor o tamaño de página inválido")
+    })
+    @GetMapping("/page")
+    public Mono<InventoryPageResponse> getInventoryPage(
+            @RequestParam(required = false)
+            @Parameter(description = "Cursor devuelto por la página anterior (vacío para la primera)") Long after,
+            @RequestParam(defaultValue = "100")
+            @Parameter(description = "Cantidad de elementos por página") int size) {
+        logger.info(ACCESS, "Consultando página de inventario (reactivo): after={}, size={}", after, size);
+        return reactiveInventoryService.getInventoryPage(after, size);
+    }
+
+    @Operation(summary = "Exportar todo el inventario en streaming (NDJSON)")
+    @ApiResponse(responseCode = "200", description = "Un objeto JSON de inventario por línea")
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<InventoryResponse> streamInventory() {
+        logger.info(ACCESS, "Exportando inventario en streaming (reactivo)");
+        return reactiveInventoryService.streamInventory();
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.inventory_service.controller;
+
+import com.example.inventory_service.dto.ReservationRequest;
+import com.example.inventory_service.dto.ReservationResponse;
+import com.example.inventory_service.service.ReservationService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/v1/inventory/reservations")
+@Tag(name = "Reservas", description = "Reservas temporales de stock durante el checkout")
+public class ReservationController {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReservationController.class);
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Operation(summary = "Reservar stock de un producto con vencimiento")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Reserva creada"),
+            @ApiResponse(responseCode = "400", description = "Solicitud inválida o stock insuficiente")
+    })
+    @PostMapping
+    public ReservationResponse reserve(@Valid @RequestBody ReservationRequest request) {
+        logger.info("Reservando {} unidades del producto ID {}", request.getCantidad(), request.getProductoId());
+        return reservationService.reserve(request);
+    }
+
+    @Operation(summary = "Confirmar una reserva y descontar el stock")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Reserva confirmada"),
+            @ApiResponse(responseCode = "400", description = "Reserva inexistente, vencida o ya finalizada")
+    })
+    @PostMapping("/{reservationId}/confirm")
+    public ReservationResponse confirm(
+            @PathVariable
+            @Parameter(description = "ID de la reserva") String reservationId) {
+        logger.info("Confirmando reserva {}", reservationId);
+        return reservationService.confirm(reservationId);
+    }
+
+    @Operation(summary = "Liberar una reserva y devolver el stock a disponible")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Reserva liberada"),
+            @ApiResponse(responseCode = "400", description = "Reserva inexistente, vencida o ya finalizada")
+    })
+    @PostMapping("/{reservationId}/release")
+    public ReservationResponse release(
+            @PathVariable
+            @Parameter(description = "ID de la reserva") String reservationId) {
+        logger.info("Liberando reserva {}", reservationId);
+        return reservationService.release(reservationId);
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.inventory_service.dto;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class InventoryBulkItem {
+
+    @NotNull(message = "El ID del producto es obligatorio")
+    @Min(value = 1, message = "El ID del producto no es válido")
+    private Long productoId;
+
+    @NotNull(message = "Cantidad es obligatoria")
+    @Min(value = 0, message = "La cantidad no puede ser negativa")
+    private Integer cantidad;
+}
@@ -0,0 +1,15 @@
+package com.example.inventory_service.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class InventoryBulkResponse {
+    private int procesados;
+    private List<Long> productosNoEncontrados;
+    // Productos cuya cantidad nueva quedaba por debajo del stock reservado
+    private List<Long> productosRechazados;
+}
@@ -0,0 +1,16 @@
+package com.example.inventory_service.dto;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class InventoryDeltaRequest {
+
+    @NotNull(message = "Cantidad es obligatoria")
+    @Min(value = 1, message = "La cantidad debe ser mayor que cero")
+    private Integer cantidad;
+}
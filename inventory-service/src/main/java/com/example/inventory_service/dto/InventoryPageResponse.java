@@ -0,0 +1,14 @@
+package com.example.inventory_service.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class InventoryPageResponse {
+    private List<InventoryResponse> items;
+    // null cuando no hay más resultados
+    private Long nextCursor;
+}
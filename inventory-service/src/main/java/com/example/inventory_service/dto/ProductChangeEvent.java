@@ -0,0 +1,16 @@
+package com.example.inventory_service.dto;
+
+import lombok.*;
+
+import java.time.Instant;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductChangeEvent {
+    private Long productId;
+    // ACTUALIZADO o ELIMINADO
+    private String tipo;
+    private Instant ocurridoEn;
+}
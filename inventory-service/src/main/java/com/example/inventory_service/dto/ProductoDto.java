@@ -11,4 +11,10 @@ public class ProductoDto {
     private Long id;
     private String nombre;
     private Double precio;
+    // Versión en product-service; de ella se deriva el ETag para las consultas condicionales
+    private Long version;
+
+    public ProductoDto(Long id, String nombre, Double precio) {
+        this(id, nombre, precio, null);
+    }
 }
@@ -0,0 +1,24 @@
+package com.example.inventory_service.dto;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReservationRequest {
+
+    @NotNull(message = "El ID del producto es obligatorio")
+    @Min(value = 1, message = "El ID del producto no es válido")
+    private Long productoId;
+
+    @NotNull(message = "Cantidad es obligatoria")
+    @Min(value = 1, message = "La cantidad debe ser mayor que cero")
+    private Integer cantidad;
+
+    // Opcional: si no se indica se usa inventory.reservations.default-ttl
+    @Min(value = 1, message = "La duración de la reserva debe ser mayor que cero")
+    private Integer ttlSegundos;
+}
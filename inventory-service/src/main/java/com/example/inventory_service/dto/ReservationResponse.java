@@ -0,0 +1,17 @@
+package com.example.inventory_service.dto;
+
+import com.example.inventory_service.model.ReservationStatus;
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.Instant;
+
+@Data
+@Builder
+public class ReservationResponse {
+    private String id;
+    private Long productoId;
+    private Integer cantidad;
+    private ReservationStatus estado;
+    private Instant expiraEn;
+}
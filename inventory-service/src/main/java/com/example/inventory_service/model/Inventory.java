@@ -12,8 +12,12 @@ import lombok.*;
 @Builder
 public class Inventory {
 
+    // Secuencia de incremento 1: las altas son upserts nativos con nextval('inventories_seq') y Hibernate
+    // toma los IDs de la misma forma, sin reservar bloques. La migración de bases existentes está en
+    // db/inventory-sequence.sql
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "inventories_seq")
+    @SequenceGenerator(name = "inventories_seq", sequenceName = "inventories_seq", allocationSize = 1)
     private Long id;
 
     @Column(name = "producto_id", nullable = false, unique = true)
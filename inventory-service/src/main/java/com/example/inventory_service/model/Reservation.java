@@ -0,0 +1,37 @@
+package com.example.inventory_service.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+@Entity
+@Table(name = "reservations", indexes = @Index(name = "idx_reservations_estado", columnList = "estado"))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class Reservation {
+
+    // UUID asignado en memoria al reservar; la fila se escribe después, por lotes
+    @Id
+    @Column(length = 36)
+    private String id;
+
+    @Column(name = "producto_id", nullable = false)
+    private Long productoId;
+
+    @Column(nullable = false)
+    private Integer cantidad;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private ReservationStatus estado;
+
+    @Column(name = "expira_en", nullable = false)
+    private Instant expiraEn;
+
+    @Column(name = "actualizado_en", nullable = false)
+    private Instant actualizadoEn;
+}
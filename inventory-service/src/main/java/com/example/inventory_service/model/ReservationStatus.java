@@ -0,0 +1,8 @@
+package com.example.inventory_service.model;
+
+public enum ReservationStatus {
+    ACTIVA,
+    CONFIRMADA,
+    LIBERADA,
+    EXPIRADA
+}
@@ -1,9 +1,47 @@
 package com.example.inventory_service.repository;
 
 import com.example.inventory_service.model.Inventory;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
 import java.util.Optional;
 
 public interface InventoryRepository extends JpaRepository<Inventory, Long> {
     Optional<Inventory> findByProductoId(Long productoId);
+
+    // Paginación por cursor (keyset): usa el índice de la PK y no depende de OFFSET
+    List<Inventory> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    // Las operaciones de stock son una sola sentencia atómica: sin lectura previa ni carreras entre escritores.
+    // Todas las altas de inventario pasan por aquí o por InventoryBulkWriter y toman el ID con nextval
+
+    @Modifying
+    @Transactional
+    @Query(value = """
+            INSERT INTO inventories (id, producto_id, cantidad) VALUES (nextval('inventories_seq'), :productoId, :cantidad)
+            ON CONFLICT (producto_id) DO UPDATE SET cantidad = EXCLUDED.cantidad
+            """, nativeQuery = true)
+    int upsertCantidad(@Param("productoId") Long productoId, @Param("cantidad") int cantidad);
+
+    @Transactional
+    @Query(value = """
+            INSERT INTO inventories (id, producto_id, cantidad) VALUES (nextval('inventories_seq'), :productoId, :delta)
+            ON CONFLICT (producto_id) DO UPDATE SET cantidad = inventories.cantidad + EXCLUDED.cantidad
+            RETURNING cantidad
+            """, nativeQuery = true)
+    Integer incrementCantidad(@Param("productoId") Long productoId, @Param("delta") int delta);
+
+    // Sin fila o sin stock suficiente no se actualiza nada y el resultado es vacío
+    @Transactional
+    @Query(value = """
+            UPDATE inventories SET cantidad = cantidad - :delta
+            WHERE producto_id = :productoId AND cantidad >= :delta
+            RETURNING cantidad
+            """, nativeQuery = true)
+    Optional<Integer> decrementCantidad(@Param("productoId") Long productoId, @Param("delta") int delta);
 }
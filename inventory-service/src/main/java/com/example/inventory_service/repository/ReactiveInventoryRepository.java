@@ -0,0 +1,83 @@
+package com.example.inventory_service.repository;
+
+import com.example.inventory_service.model.Inventory;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import io.r2dbc.spi.Readable;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.JdbcConnectionDetails;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+/**
+ * Lecturas de inventario sobre R2DBC para la API reactiva: ninguna consulta retiene un hilo mientras
+ * espera a PostgreSQL.
+ * <p>
+ * El pool es propio y no un bean {@code ConnectionFactory}: con uno registrado, Boot dejaría de crear el
+ * {@code DataSource} que usa JPA. Toma host, base y credenciales de la conexión JDBC, así que sigue a
+ * {@code spring.datasource.*}, a Testcontainers y a Docker Compose sin configuración adicional.
+ */
+@Repository
+public class ReactiveInventoryRepository implements DisposableBean {
+
+    private final ConnectionPool pool;
+    private final DatabaseClient databaseClient;
+
+    public ReactiveInventoryRepository(JdbcConnectionDetails connectionDetails,
+                                       @Value("${inventory.reactive.r2dbc-pool-size:20}") int poolSize) {
+        ConnectionFactoryOptions options = ConnectionFactoryOptions.parse(toR2dbcUrl(connectionDetails.getJdbcUrl()))
+                .mutate()
+                .option(ConnectionFactoryOptions.USER, connectionDetails.getUsername())
+                .option(ConnectionFactoryOptions.PASSWORD, connectionDetails.getPassword())
+                .build();
+        this.pool = new ConnectionPool(ConnectionPoolConfiguration.builder(ConnectionFactories.get(options))
+                .name("inventory-r2dbc")
+                .initialSize(0)
+                .maxSize(poolSize)
+                .maxAcquireTime(Duration.ofSeconds(2))
+                .maxIdleTime(Duration.ofMinutes(30))
+                .build());
+        this.databaseClient = DatabaseClient.create(pool);
+    }
+
+    public Mono<Integer> findCantidadByProductoId(Long productoId) {
+        return databaseClient.sql("SELECT cantidad FROM inventories WHERE producto_id = :productoId")
+                .bind("productoId", productoId)
+                .map(row -> row.get("cantidad", Integer.class))
+                .one();
+    }
+
+    // Keyset sobre la PK, igual que InventoryRepository.findByIdGreaterThanOrderByIdAsc
+    public Flux<Inventory> findByIdGreaterThan(Long id, int limit) {
+        return databaseClient.sql("SELECT id, producto_id, cantidad FROM inventories WHERE id > :id ORDER BY id LIMIT :limit")
+                .bind("id", id)
+                .bind("limit", limit)
+                .map(ReactiveInventoryRepository::toInventory)
+                .all();
+    }
+
+    @Override
+    public void destroy() {
+        pool.dispose();
+    }
+
+    private static Inventory toInventory(Readable row) {
+        return new Inventory(row.get("id", Long.class), row.get("producto_id", Long.class), row.get("cantidad", Integer.class));
+    }
+
+    // jdbc:postgresql://host:5432/db?param=... -> r2dbc:postgresql://host:5432/db; los parámetros son del driver JDBC
+    static String toR2dbcUrl(String jdbcUrl) {
+        if (jdbcUrl == null || !jdbcUrl.startsWith("jdbc:postgresql:")) {
+            throw new IllegalStateException("Se esperaba una URL JDBC de PostgreSQL: " + jdbcUrl);
+        }
+        int query = jdbcUrl.indexOf('?');
+        return "r2dbc:" + jdbcUrl.substring("jdbc:".length(), query < 0 ? jdbcUrl.length() : query);
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.inventory_service.repository;
+
+import com.example.inventory_service.model.Reservation;
+import com.example.inventory_service.model.ReservationStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+
+public interface ReservationRepository extends JpaRepository<Reservation, String> {
+    List<Reservation> findByEstado(ReservationStatus estado);
+}
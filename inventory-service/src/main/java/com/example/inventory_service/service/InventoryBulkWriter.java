@@ -0,0 +1,43 @@
+package com.example.inventory_service.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Escribe niveles de stock en lotes dentro de una única transacción.
+ * <p>
+ * Cada fila es un {@code INSERT ... ON CONFLICT (producto_id) DO UPDATE}, enviado en lotes JDBC de
+ * {@link #WRITE_BATCH_SIZE}: sin lectura previa, así que un alta concurrente del mismo producto (por
+ * {@code upsertCantidad} o {@code incrementCantidad}) se resuelve como actualización y no aborta el lote.
+ * Las filas van ordenadas por producto para que dos cargas simultáneas bloqueen en el mismo orden.
+ */
+@Component
+@RequiredArgsConstructor
+public class InventoryBulkWriter {
+
+    static final int WRITE_BATCH_SIZE = 500;
+
+    static final String UPSERT_SQL = """
+            INSERT INTO inventories (id, producto_id, cantidad) VALUES (nextval('inventories_seq'), ?, ?)
+            ON CONFLICT (producto_id) DO UPDATE SET cantidad = EXCLUDED.cantidad
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Transactional
+    public void write(Map<Long, Integer> cantidadesPorProducto) {
+        List<Object[]> rows = new ArrayList<>(cantidadesPorProducto.size());
+        new TreeMap<>(cantidadesPorProducto).forEach((productoId, cantidad) -> rows.add(new Object[]{productoId, cantidad}));
+
+        for (int from = 0; from < rows.size(); from += WRITE_BATCH_SIZE) {
+            jdbcTemplate.batchUpdate(UPSERT_SQL, rows.subList(from, Math.min(from + WRITE_BATCH_SIZE, rows.size())));
+        }
+    }
+}
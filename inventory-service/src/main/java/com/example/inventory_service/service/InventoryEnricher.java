@@ -0,0 +1,126 @@
+package com.example.inventory_service.service;
+
+import com.example.inventory_service.client.ProductCache;
+import com.example.inventory_service.dto.InventoryResponse;
+import com.example.inventory_service.dto.ProductoDto;
+import com.example.inventory_service.model.Inventory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Completa filas de inventario con el nombre del producto, consultando product-service por bloques.
+ * <p>
+ * Con {@code inventory.enrichment.concurrency > 1} los bloques se reparten en ese número de carriles
+ * que se ejecutan en paralelo; cada carril procesa sus bloques en secuencia, así que el tiempo total
+ * queda acotado por el carril más lento y no por la suma de todas las llamadas. El resultado conserva
+ * el orden de entrada.
+ */
+@Slf4j
+@Component
+public class InventoryEnricher {
+
+    // Debe ser <= al máximo aceptado por GET /api/v1/products/batch en product-service
+    static final int PRODUCT_BATCH_SIZE = 200;
+
+    private final ProductCache productCache;
+    private final ExecutorService executor;
+    private final int concurrency;
+    private final Duration timeout;
+
+    public InventoryEnricher(ProductCache productCache,
+                             @Qualifier("enrichmentExecutor") ExecutorService executor,
+                             @Value("${inventory.enrichment.concurrency:4}") int concurrency,
+                             @Value("${inventory.enrichment.timeout:5s}") Duration timeout) {
+        this.productCache = productCache;
+        this.executor = executor;
+        this.concurrency = concurrency;
+        this.timeout = timeout;
+    }
+
+    public List<InventoryResponse> enrich(List<Inventory> inventories) {
+        List<List<Inventory>> chunks = new ArrayList<>();
+        for (int from = 0; from < inventories.size(); from += PRODUCT_BATCH_SIZE) {
+            chunks.add(inventories.subList(from, Math.min(from + PRODUCT_BATCH_SIZE, inventories.size())));
+        }
+
+        if (chunks.size() <= 1 || concurrency <= 1) {
+            List<InventoryResponse> responses = new ArrayList<>(inventories.size());
+            chunks.forEach(chunk -> responses.addAll(enrichChunk(chunk)));
+            return responses;
+        }
+        return enrichConcurrently(chunks, inventories.size());
+    }
+
+    private List<InventoryResponse> enrichConcurrently(List<List<Inventory>> chunks, int totalRows) {
+        @SuppressWarnings("unchecked")
+        List<InventoryResponse>[] results = new List[chunks.size()];
+        AtomicBoolean cancelled = new AtomicBoolean(false);
+        int lanes = Math.min(concurrency, chunks.size());
+
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[lanes];
+        for (int lane = 0; lane < lanes; lane++) {
+            int firstChunk = lane;
+            futures[lane] = CompletableFuture.runAsync(() -> {
+                for (int i = firstChunk; i < chunks.size() && !cancelled.get(); i += lanes) {
+                    results[i] = enrichChunk(chunks.get(i));
+                }
+            }, executor);
+        }
+
+        try {
+            CompletableFuture.allOf(futures).get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            cancelled.set(true);
+            throw new RuntimeException("Tiempo de espera agotado al consultar los productos del inventario");
+        } catch (InterruptedException e) {
+            cancelled.set(true);
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Consulta de productos interrumpida", e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Error al enriquecer el inventario: " + e.getCause().getMessage(), e.getCause());
+        }
+
+        List<InventoryResponse> responses = new ArrayList<>(totalRows);
+        for (List<InventoryResponse> result : results) {
+            responses.addAll(result);
+        }
+        return responses;
+    }
+
+    private List<InventoryResponse> enrichChunk(List<Inventory> chunk) {
+        Map<Long, ProductoDto> productos = obtenerProductos(chunk.stream().map(Inventory::getProductoId).toList());
+
+        List<InventoryResponse> responses = new ArrayList<>(chunk.size());
+        for (Inventory inventory : chunk) {
+            ProductoDto producto = productos.get(inventory.getProductoId());
+            responses.add(InventoryResponse.builder()
+                    .productoId(inventory.getProductoId())
+                    .productoNombre(producto != null ? producto.getNombre() : null)
+                    .cantidad(inventory.getCantidad())
+                    .build());
+        }
+        return responses;
+    }
+
+    private Map<Long, ProductoDto> obtenerProductos(List<Long> productIds) {
+        try {
+            return productCache.getAllOrLastKnown(productIds);
+        } catch (Exception e) {
+            log.error("Error al obtener productos por lote desde product-service: {}", e.getMessage());
+            return Map.of();
+        }
+    }
+}
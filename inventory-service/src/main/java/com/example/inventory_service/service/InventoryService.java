@@ -1,12 +1,22 @@
 package com.example.inventory_service.service;
 
+import com.example.inventory_service.dto.InventoryBulkItem;
+import com.example.inventory_service.dto.InventoryBulkResponse;
+import com.example.inventory_service.dto.InventoryDeltaRequest;
+import com.example.inventory_service.dto.InventoryPageResponse;
 import com.example.inventory_service.dto.InventoryResponse;
 import com.example.inventory_service.dto.InventoryUpdateRequest;
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface InventoryService {
     InventoryResponse getByProductId(Long productId);
     InventoryResponse updateStock(Long productId, InventoryUpdateRequest request);
+    InventoryResponse incrementStock(Long productId, InventoryDeltaRequest request);
+    InventoryResponse decrementStock(Long productId, InventoryDeltaRequest request);
+    InventoryBulkResponse bulkUpdateStock(List<InventoryBulkItem> items);
     List<InventoryResponse> getAllInventory();
+    InventoryPageResponse getInventoryPage(Long after, int size);
+    void streamInventory(Consumer<List<InventoryResponse>> batchConsumer);
 
 }
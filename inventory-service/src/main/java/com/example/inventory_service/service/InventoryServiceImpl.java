@@ -1,6 +1,10 @@
 package com.example.inventory_service.service;
 
-import com.example.inventory_service.client.ProductClient;
+import com.example.inventory_service.client.ProductCache;
+import com.example.inventory_service.dto.InventoryBulkItem;
+import com.example.inventory_service.dto.InventoryBulkResponse;
+import com.example.inventory_service.dto.InventoryDeltaRequest;
+import com.example.inventory_service.dto.InventoryPageResponse;
 import com.example.inventory_service.dto.InventoryResponse;
 import com.example.inventory_service.dto.InventoryUpdateRequest;
 import com.example.inventory_service.dto.ProductoDto;
@@ -8,23 +12,45 @@ import com.example.inventory_service.model.Inventory;
 import com.example.inventory_service.repository.InventoryRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import static net.logstash.logback.argument.StructuredArguments.kv;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class InventoryServiceImpl implements InventoryService {
 
+    static final int MAX_PAGE_SIZE = 1000;
+    static final int STREAM_BATCH_SIZE = 500;
+    static final int MAX_BULK_ITEMS = 50_000;
+
     private final InventoryRepository inventoryRepository;
-    private final ProductClient productClient;
+    private final ProductCache productCache;
+    private final InventoryEnricher inventoryEnricher;
+    private final InventoryBulkWriter inventoryBulkWriter;
+    private final StockWriteBuffer stockWriteBuffer;
+    private final StockLedger stockLedger;
 
     @Override
     public InventoryResponse getByProductId(Long productoId) {
-        Inventory inventory = inventoryRepository.findByProductoId(productoId)
-                .orElseThrow(() -> new RuntimeException("Producto no encontrado en inventario"));
+        // Un valor pendiente en el buffer de escritura es más reciente que el de la base
+        Integer cantidad = stockWriteBuffer.peek(productoId);
+        if (cantidad == null) {
+            cantidad = inventoryRepository.findByProductoId(productoId)
+                    .orElseThrow(() -> new RuntimeException("Producto no encontrado en inventario"))
+                    .getCantidad();
+        }
 
-        ProductoDto producto = productClient.getProductoById(productoId);
+        // Lectura: si product-service está degradado se responde con el último nombre conocido
+        ProductoDto producto = productCache.getOrLastKnown(productoId);
         if (producto == null) {
             throw new RuntimeException("Producto no encontrado");
         }
@@ -32,63 +58,201 @@ public class InventoryServiceImpl implements InventoryService {
         return InventoryResponse.builder()
                 .productoId(producto.getId())
                 .productoNombre(producto.getNombre())
-                .cantidad(inventory.getCantidad())
+                .cantidad(cantidad)
                 .build();
     }
     @Override
     public InventoryResponse updateStock(Long productId, InventoryUpdateRequest request) {
         // Validaciones iniciales
-        if (productId == null || productId <= 0) {
-            throw new IllegalArgumentException("El ID del producto no es válido");
-        }
+        validarProductId(productId);
 
         if (request == null || request.getCantidad() == null || request.getCantidad() < 0) {
             throw new IllegalArgumentException("La cantidad proporcionada no es válida");
         }
 
-        // Consultar el producto
-        ProductoDto producto;
+        ProductoDto producto = consultarProductoExistente(productId);
+
+        // El ledger se actualiza antes que la base para que ninguna reserva concurrente se quede sin cubrir
+        if (!stockLedger.trySetOnHand(productId, request.getCantidad())) {
+            throw new RuntimeException("La cantidad no puede ser menor que el stock reservado");
+        }
+
+        // Un único INSERT ... ON CONFLICT: crea o actualiza sin leer antes la fila.
+        // En modo write-behind la escritura se fusiona en memoria y se persiste en lote
         try {
-            producto = obtenerProducto(productId);
+            if (stockWriteBuffer.isEnabled()) {
+                stockWriteBuffer.write(productId, request.getCantidad());
+            } else {
+                inventoryRepository.upsertCantidad(productId, request.getCantidad());
+            }
         } catch (Exception e) {
-            throw new RuntimeException("Error al consultar el producto: " + e.getMessage(), e);
+            stockLedger.reload(productId);
+            throw new RuntimeException("Error al guardar el inventario: " + e.getMessage(), e);
         }
 
-        if (producto == null) {
-            throw new RuntimeException("Producto no encontrado en product-service");
+        log.info("Evento: Inventario actualizado {} {}", kv("productoId", productId), kv("cantidad", request.getCantidad()));
+
+        return toResponse(productId, producto, request.getCantidad());
+    }
+
+    @Override
+    public InventoryResponse incrementStock(Long productId, InventoryDeltaRequest request) {
+        validarProductId(productId);
+        validarDelta(request);
+        ProductoDto producto = consultarProductoExistente(productId);
+        stockWriteBuffer.drain(productId);
+
+        stockLedger.addOnHand(productId, request.getCantidad());
+        Integer cantidad;
+        try {
+            cantidad = inventoryRepository.incrementCantidad(productId, request.getCantidad());
+        } catch (RuntimeException e) {
+            stockLedger.addOnHand(productId, -request.getCantidad());
+            throw e;
         }
 
-        // Buscar o crear inventario
-        Inventory inventory = inventoryRepository.findByProductoId(productId)
-                .orElseGet(() -> Inventory.builder()
-                        .productoId(productId)
-                        .cantidad(0)
-                        .build());
+        log.info("Evento: Stock incrementado {} {} {}",
+                kv("productoId", productId), kv("delta", request.getCantidad()), kv("cantidad", cantidad));
+        return toResponse(productId, producto, cantidad);
+    }
 
-        // Actualizar y guardar
-        inventory.setCantidad(request.getCantidad());
+    @Override
+    public InventoryResponse decrementStock(Long productId, InventoryDeltaRequest request) {
+        validarProductId(productId);
+        validarDelta(request);
+        ProductoDto producto = consultarProductoExistente(productId);
+        stockWriteBuffer.drain(productId);
 
+        // Lo reservado no se puede sacar del almacén: solo se descuenta el stock disponible
+        if (!stockLedger.tryRemove(productId, request.getCantidad())) {
+            throw new RuntimeException("Stock insuficiente: el resto está reservado o el producto no tiene inventario");
+        }
+        Integer cantidad;
         try {
-            inventoryRepository.save(inventory);
+            cantidad = inventoryRepository.decrementCantidad(productId, request.getCantidad())
+                    .orElseThrow(() -> new RuntimeException("Stock insuficiente o producto sin inventario"));
+        } catch (RuntimeException e) {
+            stockLedger.addOnHand(productId, request.getCantidad());
+            throw e;
+        }
+
+        log.info("Evento: Stock decrementado {} {} {}",
+                kv("productoId", productId), kv("delta", request.getCantidad()), kv("cantidad", cantidad));
+        return toResponse(productId, producto, cantidad);
+    }
+
+    @Override
+    public InventoryBulkResponse bulkUpdateStock(List<InventoryBulkItem> items) {
+        if (items == null || items.isEmpty() || items.size() > MAX_BULK_ITEMS) {
+            throw new IllegalArgumentException("La carga masiva debe contener entre 1 y " + MAX_BULK_ITEMS + " elementos");
+        }
+
+        // Si un producto se repite, prevalece el último valor recibido
+        Map<Long, Integer> cantidades = new LinkedHashMap<>();
+        for (InventoryBulkItem item : items) {
+            if (item == null || item.getProductoId() == null || item.getProductoId() <= 0
+                    || item.getCantidad() == null || item.getCantidad() < 0) {
+                throw new IllegalArgumentException("Elemento inválido en la carga masiva");
+            }
+            cantidades.put(item.getProductoId(), item.getCantidad());
+        }
+
+        List<Long> noEncontrados = validarProductosPorLote(new ArrayList<>(cantidades.keySet()));
+        noEncontrados.forEach(cantidades::remove);
+
+        // Un valor por debajo de lo reservado se descarta; el resto de la carga sigue adelante
+        List<Long> rechazados = new ArrayList<>();
+        cantidades.entrySet().removeIf(entry -> {
+            boolean rechazado = !stockLedger.trySetOnHand(entry.getKey(), entry.getValue());
+            if (rechazado) {
+                rechazados.add(entry.getKey());
+            }
+            return rechazado;
+        });
+
+        try {
+            // Lo pendiente en el buffer es anterior a esta carga y no debe pisarla al vaciarse después
+            stockWriteBuffer.flush();
+            inventoryBulkWriter.write(cantidades);
         } catch (Exception e) {
+            cantidades.keySet().forEach(stockLedger::reload);
             throw new RuntimeException("Error al guardar el inventario: " + e.getMessage(), e);
         }
 
-        log.info("Producto consultado desde product-service: {}", producto);
-        log.info("Evento: Inventario actualizado para producto ID {}. Nueva cantidad: {}", productId, inventory.getCantidad());
+        log.info("Evento: Carga masiva de inventario. Procesados: {}, productos no encontrados: {}, rechazados por reservas: {}",
+                cantidades.size(), noEncontrados.size(), rechazados.size());
+
+        return InventoryBulkResponse.builder()
+                .procesados(cantidades.size())
+                .productosNoEncontrados(noEncontrados)
+                .productosRechazados(rechazados)
+                .build();
+    }
+
+    private List<Long> validarProductosPorLote(List<Long> productoIds) {
+        List<Long> noEncontrados = new ArrayList<>();
+        for (int from = 0; from < productoIds.size(); from += InventoryEnricher.PRODUCT_BATCH_SIZE) {
+            List<Long> chunk = productoIds.subList(from, Math.min(from + InventoryEnricher.PRODUCT_BATCH_SIZE, productoIds.size()));
+            Map<Long, ProductoDto> productos;
+            try {
+                productos = productCache.getAll(chunk);
+            } catch (Exception e) {
+                throw new RuntimeException("Error al consultar los productos: " + e.getMessage(), e);
+            }
+            chunk.stream().filter(id -> !productos.containsKey(id)).forEach(noEncontrados::add);
+        }
+        return noEncontrados;
+    }
+
+    private List<InventoryResponse> aplicarPendientes(List<InventoryResponse> responses) {
+        if (stockWriteBuffer.isEnabled()) {
+            for (InventoryResponse response : responses) {
+                Integer pendiente = stockWriteBuffer.peek(response.getProductoId());
+                if (pendiente != null) {
+                    response.setCantidad(pendiente);
+                }
+            }
+        }
+        return responses;
+    }
+
+    private void validarProductId(Long productId) {
+        if (productId == null || productId <= 0) {
+            throw new IllegalArgumentException("El ID del producto no es válido");
+        }
+    }
+
+    private void validarDelta(InventoryDeltaRequest request) {
+        if (request == null || request.getCantidad() == null || request.getCantidad() <= 0) {
+            throw new IllegalArgumentException("La cantidad proporcionada no es válida");
+        }
+    }
+
+    private ProductoDto consultarProductoExistente(Long productId) {
+        ProductoDto producto;
+        try {
+            producto = obtenerProducto(productId);
+        } catch (Exception e) {
+            throw new RuntimeException("Error al consultar el producto: " + e.getMessage(), e);
+        }
+
+        if (producto == null) {
+            throw new RuntimeException("Producto no encontrado en product-service");
+        }
+        return producto;
+    }
 
+    private InventoryResponse toResponse(Long productId, ProductoDto producto, Integer cantidad) {
         return InventoryResponse.builder()
                 .productoId(productId)
                 .productoNombre(producto.getNombre())
-                .cantidad(inventory.getCantidad())
+                .cantidad(cantidad)
                 .build();
     }
 
-
-
     private ProductoDto obtenerProducto(Long productId) {
         try {
-            ProductoDto producto = productClient.getProductoById(productId);
+            ProductoDto producto = productCache.get(productId);
             if (producto == null) {
                 throw new RuntimeException("Producto no encontrado en product-service");
             }
@@ -101,17 +265,41 @@ public class InventoryServiceImpl implements InventoryService {
 
     @Override
     public List<InventoryResponse> getAllInventory() {
-        List<Inventory> inventories = inventoryRepository.findAll();
+        return aplicarPendientes(inventoryEnricher.enrich(inventoryRepository.findAll()));
+    }
+
+    @Override
+    public InventoryPageResponse getInventoryPage(Long after, int size) {
+        if (after != null && after < 0) {
+            throw new IllegalArgumentException("El cursor no es válido");
+        }
+        if (size <= 0 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("El tamaño de página debe estar entre 1 y " + MAX_PAGE_SIZE);
+        }
 
-        return inventories.stream().map(inventory -> {
-            ProductoDto producto = obtenerProducto(inventory.getProductoId());
+        List<Inventory> rows = inventoryRepository.findByIdGreaterThanOrderByIdAsc(after == null ? 0L : after, Limit.of(size));
+        Long nextCursor = rows.size() == size ? rows.get(rows.size() - 1).getId() : null;
 
-            return InventoryResponse.builder()
-                    .productoId(inventory.getProductoId())
-                    .productoNombre(producto.getNombre())
-                    .cantidad(inventory.getCantidad())
-                    .build();
-        }).toList();
+        return InventoryPageResponse.builder()
+                .items(aplicarPendientes(inventoryEnricher.enrich(rows)))
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    @Override
+    public void streamInventory(Consumer<List<InventoryResponse>> batchConsumer) {
+        // Recorre la tabla por cursor: en memoria solo vive un bloque a la vez y cada
+        // consulta es corta, así no se retiene una conexión mientras se consulta product-service
+        long cursor = 0L;
+        List<Inventory> rows;
+        do {
+            rows = inventoryRepository.findByIdGreaterThanOrderByIdAsc(cursor, Limit.of(STREAM_BATCH_SIZE));
+            if (rows.isEmpty()) {
+                break;
+            }
+            batchConsumer.accept(aplicarPendientes(inventoryEnricher.enrich(rows)));
+            cursor = rows.get(rows.size() - 1).getId();
+        } while (rows.size() == STREAM_BATCH_SIZE);
     }
 
 }
@@ -0,0 +1,13 @@
+package com.example.inventory_service.service;
+
+import com.example.inventory_service.dto.InventoryPageResponse;
+import com.example.inventory_service.dto.InventoryResponse;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public interface ReactiveInventoryService {
+    Mono<InventoryResponse> getByProductId(Long productId);
+    Mono<InventoryPageResponse> getInventoryPage(Long after, int size);
+    Flux<InventoryResponse> streamInventory();
+
+}
@@ -0,0 +1,187 @@
+package com.example.inventory_service.service;
+
+import com.example.inventory_service.client.ProductCache;
+import com.example.inventory_service.client.ReactiveProductClient;
+import com.example.inventory_service.dto.InventoryPageResponse;
+import com.example.inventory_service.dto.InventoryResponse;
+import com.example.inventory_service.dto.ProductoDto;
+import com.example.inventory_service.model.Inventory;
+import com.example.inventory_service.repository.ReactiveInventoryRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Variante no bloqueante de las lecturas de {@link InventoryServiceImpl}, con las mismas reglas y errores.
+ * <p>
+ * La fila de inventario se lee con R2DBC y los productos que no están en {@link ProductCache} se piden con
+ * {@link ReactiveProductClient}, por bloques de {@link InventoryEnricher#PRODUCT_BATCH_SIZE} y con a lo sumo
+ * {@code inventory.enrichment.concurrency} bloques en vuelo. El streaming avanza por páginas según la demanda
+ * del cliente: si la respuesta se consume despacio, no se leen más filas ni se consultan más productos.
+ */
+@Slf4j
+@Service
+public class ReactiveInventoryServiceImpl implements ReactiveInventoryService {
+
+    private final ReactiveInventoryRepository inventoryRepository;
+    private final ReactiveProductClient productClient;
+    private final ProductCache productCache;
+    private final StockWriteBuffer stockWriteBuffer;
+    private final int concurrency;
+    private final Duration timeout;
+
+    public ReactiveInventoryServiceImpl(ReactiveInventoryRepository inventoryRepository,
+                                        ReactiveProductClient productClient,
+                                        ProductCache productCache,
+                                        StockWriteBuffer stockWriteBuffer,
+                                        @Value("${inventory.enrichment.concurrency:4}") int concurrency,
+                                        @Value("${inventory.enrichment.timeout:5s}") Duration timeout) {
+        this.inventoryRepository = inventoryRepository;
+        this.productClient = productClient;
+        this.productCache = productCache;
+        this.stockWriteBuffer = stockWriteBuffer;
+        this.concurrency = Math.max(1, concurrency);
+        this.timeout = timeout;
+    }
+
+    @Override
+    public Mono<InventoryResponse> getByProductId(Long productoId) {
+        // La fila y el producto se consultan a la vez
+        Mono<Integer> cantidad = Mono.defer(() -> {
+                    // Un valor pendiente en el buffer de escritura es más reciente que el de la base
+                    Integer pendiente = stockWriteBuffer.peek(productoId);
+                    return pendiente != null ? Mono.just(pendiente) : inventoryRepository.findCantidadByProductoId(productoId);
+                })
+                .switchIfEmpty(Mono.error(() -> new RuntimeException("Producto no encontrado en inventario")));
+        Mono<ProductoDto> producto = obtenerProducto(productoId)
+                .switchIfEmpty(Mono.error(() -> new RuntimeException("Producto no encontrado")));
+
+        return Mono.zip(cantidad, producto, (c, p) -> InventoryResponse.builder()
+                .productoId(p.getId())
+                .productoNombre(p.getNombre())
+                .cantidad(c)
+                .build());
+    }
+
+    @Override
+    public Mono<InventoryPageResponse> getInventoryPage(Long after, int size) {
+        if (after != null && after < 0) {
+            return Mono.error(new IllegalArgumentException("El cursor no es válido"));
+        }
+        if (size <= 0 || size > InventoryServiceImpl.MAX_PAGE_SIZE) {
+            return Mono.error(new IllegalArgumentException("El tamaño de página debe estar entre 1 y " + InventoryServiceImpl.MAX_PAGE_SIZE));
+        }
+
+        return inventoryRepository.findByIdGreaterThan(after == null ? 0L : after, size)
+                .collectList()
+                .flatMap(rows -> enrich(Flux.fromIterable(partition(rows)))
+                        .collectList()
+                        .map(items -> InventoryPageResponse.builder()
+                                .items(items)
+                                .nextCursor(rows.size() == size ? rows.get(rows.size() - 1).getId() : null)
+                                .build()))
+                .timeout(timeout, Mono.error(() -> new RuntimeException("Tiempo de espera agotado al consultar los productos del inventario")));
+    }
+
+    @Override
+    public Flux<InventoryResponse> streamInventory() {
+        // Por cursor, como InventoryServiceImpl.streamInventory: cada consulta es corta y la siguiente página
+        // solo se pide cuando el cliente consumió la anterior
+        Flux<List<Inventory>> paginas = pagina(0L).expand(rows -> rows.size() < InventoryServiceImpl.STREAM_BATCH_SIZE
+                ? Mono.empty()
+                : pagina(rows.get(rows.size() - 1).getId()));
+        return enrich(paginas.flatMapIterable(ReactiveInventoryServiceImpl::partition, 1));
+    }
+
+    private Mono<List<Inventory>> pagina(Long cursor) {
+        return inventoryRepository.findByIdGreaterThan(cursor, InventoryServiceImpl.STREAM_BATCH_SIZE)
+                .collectList()
+                .filter(rows -> !rows.isEmpty());
+    }
+
+    // Conserva el orden de entrada con a lo sumo `concurrency` bloques consultándose a la vez
+    private Flux<InventoryResponse> enrich(Flux<List<Inventory>> chunks) {
+        return chunks.flatMapSequential(this::enrichChunk, concurrency, 1)
+                .flatMapIterable(Function.identity());
+    }
+
+    private Mono<List<InventoryResponse>> enrichChunk(List<Inventory> chunk) {
+        return obtenerProductos(chunk.stream().map(Inventory::getProductoId).toList())
+                .map(productos -> {
+                    List<InventoryResponse> responses = new ArrayList<>(chunk.size());
+                    for (Inventory inventory : chunk) {
+                        ProductoDto producto = productos.get(inventory.getProductoId());
+                        Integer pendiente = stockWriteBuffer.isEnabled() ? stockWriteBuffer.peek(inventory.getProductoId()) : null;
+                        responses.add(InventoryResponse.builder()
+                                .productoId(inventory.getProductoId())
+                                .productoNombre(producto != null ? producto.getNombre() : null)
+                                .cantidad(pendiente != null ? pendiente : inventory.getCantidad())
+                                .build());
+                    }
+                    return responses;
+                });
+    }
+
+    // Lectura: si product-service está degradado se responde con el último nombre conocido
+    private Mono<ProductoDto> obtenerProducto(Long productoId) {
+        return Mono.defer(() -> {
+            ProductoDto cached = productCache.getIfPresent(productoId);
+            if (cached != null) {
+                return Mono.just(cached);
+            }
+            return productClient.getProductoById(productoId)
+                    .doOnNext(productCache::put)
+                    .onErrorResume(e -> {
+                        ProductoDto conocido = productCache.getLastKnown(productoId);
+                        if (conocido == null) {
+                            return Mono.error(e);
+                        }
+                        log.warn("product-service no disponible ({}); se usa el último valor conocido del producto ID {}",
+                                e.getMessage(), productoId);
+                        return Mono.just(conocido);
+                    });
+        });
+    }
+
+    private Mono<Map<Long, ProductoDto>> obtenerProductos(List<Long> productoIds) {
+        return Mono.defer(() -> {
+            Map<Long, ProductoDto> productos = new HashMap<>(productCache.getAllPresent(productoIds));
+            List<Long> faltantes = productoIds.stream().filter(id -> !productos.containsKey(id)).toList();
+            if (faltantes.isEmpty()) {
+                return Mono.just(productos);
+            }
+            return productClient.getProductosByIds(faltantes)
+                    .map(encontrados -> {
+                        for (ProductoDto producto : encontrados) {
+                            productCache.put(producto);
+                            productos.put(producto.getId(), producto);
+                        }
+                        return productos;
+                    })
+                    .onErrorResume(e -> {
+                        Map<Long, ProductoDto> conocidos = productCache.getAllLastKnown(faltantes);
+                        log.warn("product-service no disponible ({}); se usan {} de {} productos conocidos",
+                                e.getMessage(), conocidos.size(), faltantes.size());
+                        productos.putAll(conocidos);
+                        return Mono.just(productos);
+                    });
+        });
+    }
+
+    private static List<List<Inventory>> partition(List<Inventory> rows) {
+        List<List<Inventory>> chunks = new ArrayList<>();
+        for (int from = 0; from < rows.size(); from += InventoryEnricher.PRODUCT_BATCH_SIZE) {
+            chunks.add(rows.subList(from, Math.min(from + InventoryEnricher.PRODUCT_BATCH_SIZE, rows.size())));
+        }
+        return chunks;
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.inventory_service.service;
+
+import com.example.inventory_service.model.Reservation;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Persiste los cambios de estado de las reservas en lotes, fuera del camino de la solicitud.
+ * <p>
+ * Los cambios se encolan sin bloqueo; cada vaciado se queda con el último estado de cada reserva
+ * y lo escribe con un único lote JDBC de {@code INSERT ... ON CONFLICT (id) DO UPDATE}.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ReservationJournal {
+
+    static final int MAX_BATCH_SIZE = 1000;
+
+    private static final String UPSERT_SQL = """
+            INSERT INTO reservations (id, producto_id, cantidad, estado, expira_en, actualizado_en)
+            VALUES (?, ?, ?, ?, ?, ?)
+            ON CONFLICT (id) DO UPDATE SET estado = EXCLUDED.estado, actualizado_en = EXCLUDED.actualizado_en
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ConcurrentLinkedQueue<Reservation> queue = new ConcurrentLinkedQueue<>();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    // Lote que falló: se reintenta antes que lo encolado después, así un estado viejo no pisa a uno nuevo
+    private final Map<String, Reservation> retry = new ConcurrentHashMap<>();
+
+    public void record(Reservation reservation) {
+        queue.add(reservation);
+    }
+
+    @Scheduled(fixedDelayString = "${inventory.reservations.journal-flush-interval-ms:500}")
+    public void flush() {
+        if (queue.isEmpty() && retry.isEmpty()) {
+            return;
+        }
+        flushLock.lock();
+        try {
+            boolean written = true;
+            while (written && (!queue.isEmpty() || !retry.isEmpty())) {
+                Map<String, Reservation> batch = new LinkedHashMap<>(retry);
+                retry.clear();
+                Reservation reservation;
+                while (batch.size() < MAX_BATCH_SIZE && (reservation = queue.poll()) != null) {
+                    batch.put(reservation.getId(), reservation);
+                }
+                written = write(batch);
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    private boolean write(Map<String, Reservation> batch) {
+        List<Object[]> rows = new ArrayList<>(batch.size());
+        for (Reservation r : batch.values()) {
+            rows.add(new Object[]{
+                    r.getId(), r.getProductoId(), r.getCantidad(), r.getEstado().name(),
+                    Timestamp.from(r.getExpiraEn()), Timestamp.from(r.getActualizadoEn())
+            });
+        }
+        try {
+            jdbcTemplate.batchUpdate(UPSERT_SQL, rows);
+            return true;
+        } catch (Exception e) {
+            log.error("Error al persistir {} cambios de reservas, se reintentarán: {}", batch.size(), e.getMessage());
+            retry.putAll(batch);
+            return false;
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.inventory_service.service;
+
+import com.example.inventory_service.dto.ReservationRequest;
+import com.example.inventory_service.dto.ReservationResponse;
+
+public interface ReservationService {
+    ReservationResponse reserve(ReservationRequest request);
+    ReservationResponse confirm(String reservationId);
+    ReservationResponse release(String reservationId);
+}
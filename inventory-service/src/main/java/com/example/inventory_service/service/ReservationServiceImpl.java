@@ -0,0 +1,203 @@
+package com.example.inventory_service.service;
+
+import com.example.inventory_service.dto.ReservationRequest;
+import com.example.inventory_service.dto.ReservationResponse;
+import com.example.inventory_service.model.Reservation;
+import com.example.inventory_service.model.ReservationStatus;
+import com.example.inventory_service.repository.InventoryRepository;
+import com.example.inventory_service.repository.ReservationRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Reservas de stock con vencimiento, resueltas en memoria.
+ * <p>
+ * La disponibilidad se decide con un CAS en {@link StockLedger}, sin tocar la fila de {@code inventories};
+ * solo la confirmación descuenta el stock en la base. Los vencimientos los dispara
+ * {@link ReservationTimerWheel} y los cambios de estado se persisten por lotes con {@link ReservationJournal}.
+ * Al arrancar se recuperan las reservas que seguían activas.
+ */
+@Slf4j
+@Service
+public class ReservationServiceImpl implements ReservationService {
+
+    private record ActiveReservation(String id, Long productoId, int cantidad, Instant expiraEn) {
+    }
+
+    private final StockLedger stockLedger;
+    private final ReservationJournal reservationJournal;
+    private final ReservationRepository reservationRepository;
+    private final InventoryRepository inventoryRepository;
+    private final StockWriteBuffer stockWriteBuffer;
+    private final Duration defaultTtl;
+    private final Duration maxTtl;
+    private final ReservationTimerWheel timerWheel;
+
+    private final ConcurrentHashMap<String, ActiveReservation> active = new ConcurrentHashMap<>();
+
+    public ReservationServiceImpl(StockLedger stockLedger,
+                                  ReservationJournal reservationJournal,
+                                  ReservationRepository reservationRepository,
+                                  InventoryRepository inventoryRepository,
+                                  StockWriteBuffer stockWriteBuffer,
+                                  @Value("${inventory.reservations.default-ttl:10m}") Duration defaultTtl,
+                                  @Value("${inventory.reservations.max-ttl:1h}") Duration maxTtl,
+                                  @Value("${inventory.reservations.tick-ms:100}") long tickMillis,
+                                  @Value("${inventory.reservations.wheel-size:512}") int wheelSize) {
+        this.stockLedger = stockLedger;
+        this.reservationJournal = reservationJournal;
+        this.reservationRepository = reservationRepository;
+        this.inventoryRepository = inventoryRepository;
+        this.stockWriteBuffer = stockWriteBuffer;
+        this.defaultTtl = defaultTtl;
+        this.maxTtl = maxTtl;
+        this.timerWheel = new ReservationTimerWheel(tickMillis, wheelSize, this::expire);
+    }
+
+    @PostConstruct
+    void recover() {
+        Instant now = Instant.now();
+        for (Reservation reservation : reservationRepository.findByEstado(ReservationStatus.ACTIVA)) {
+            ActiveReservation recovered = new ActiveReservation(reservation.getId(), reservation.getProductoId(),
+                    reservation.getCantidad(), reservation.getExpiraEn());
+            if (!recovered.expiraEn().isAfter(now)) {
+                journal(recovered, ReservationStatus.EXPIRADA);
+                continue;
+            }
+            active.put(recovered.id(), recovered);
+            stockLedger.addReserved(recovered.productoId(), recovered.cantidad());
+            timerWheel.schedule(recovered.id(), Duration.between(now, recovered.expiraEn()).toMillis());
+        }
+        log.info("Reservas activas recuperadas: {}", active.size());
+        timerWheel.start();
+    }
+
+    @PreDestroy
+    void stop() {
+        timerWheel.stop();
+    }
+
+    @Override
+    public ReservationResponse reserve(ReservationRequest request) {
+        if (request == null || request.getProductoId() == null || request.getProductoId() <= 0
+                || request.getCantidad() == null || request.getCantidad() <= 0) {
+            throw new IllegalArgumentException("La solicitud de reserva no es válida");
+        }
+        Duration ttl = request.getTtlSegundos() != null ? Duration.ofSeconds(request.getTtlSegundos()) : defaultTtl;
+        if (ttl.isNegative() || ttl.isZero() || ttl.compareTo(maxTtl) > 0) {
+            throw new IllegalArgumentException("La duración de la reserva debe estar entre 1 segundo y " + maxTtl.toSeconds() + " segundos");
+        }
+
+        if (!stockLedger.tryReserve(request.getProductoId(), request.getCantidad())) {
+            throw new RuntimeException("Stock insuficiente para reservar");
+        }
+
+        ActiveReservation reservation = new ActiveReservation(UUID.randomUUID().toString(),
+                request.getProductoId(), request.getCantidad(), Instant.now().plus(ttl));
+        active.put(reservation.id(), reservation);
+        timerWheel.schedule(reservation.id(), ttl.toMillis());
+        journal(reservation, ReservationStatus.ACTIVA);
+
+        log.info("Evento: Reserva {} creada para producto ID {}. Cantidad: {}",
+                reservation.id(), reservation.productoId(), reservation.cantidad());
+        return toResponse(reservation, ReservationStatus.ACTIVA);
+    }
+
+    @Override
+    public ReservationResponse confirm(String reservationId) {
+        // Quien retira la reserva del mapa gana: confirmar, liberar y expirar son mutuamente excluyentes
+        ActiveReservation reservation = takeActive(reservationId);
+
+        Integer nuevoStock;
+        try {
+            stockWriteBuffer.drain(reservation.productoId());
+            nuevoStock = inventoryRepository.decrementCantidad(reservation.productoId(), reservation.cantidad())
+                    .orElse(null);
+        } catch (RuntimeException e) {
+            restoreAfterFailedConfirm(reservation);
+            throw new RuntimeException("Error al confirmar la reserva: " + e.getMessage(), e);
+        }
+        if (nuevoStock == null) {
+            stockLedger.release(reservation.productoId(), reservation.cantidad());
+            journal(reservation, ReservationStatus.LIBERADA);
+            throw new RuntimeException("Stock insuficiente para confirmar la reserva");
+        }
+
+        stockLedger.confirm(reservation.productoId(), reservation.cantidad());
+        journal(reservation, ReservationStatus.CONFIRMADA);
+
+        log.info("Evento: Reserva {} confirmada. Nuevo stock del producto ID {}: {}",
+                reservationId, reservation.productoId(), nuevoStock);
+        return toResponse(reservation, ReservationStatus.CONFIRMADA);
+    }
+
+    @Override
+    public ReservationResponse release(String reservationId) {
+        ActiveReservation reservation = takeActive(reservationId);
+
+        stockLedger.release(reservation.productoId(), reservation.cantidad());
+        journal(reservation, ReservationStatus.LIBERADA);
+
+        log.info("Evento: Reserva {} liberada", reservationId);
+        return toResponse(reservation, ReservationStatus.LIBERADA);
+    }
+
+    void expire(String reservationId) {
+        ActiveReservation reservation = active.remove(reservationId);
+        if (reservation == null) {
+            return;
+        }
+        stockLedger.release(reservation.productoId(), reservation.cantidad());
+        journal(reservation, ReservationStatus.EXPIRADA);
+        log.info("Evento: Reserva {} expirada", reservationId);
+    }
+
+    // La base falló sin decidir nada: la reserva vuelve a estar activa para reintentar la confirmación.
+    // Si venció mientras estaba fuera del mapa, el temporizador ya no la encontrará y se expira aquí
+    private void restoreAfterFailedConfirm(ActiveReservation reservation) {
+        if (reservation.expiraEn().isAfter(Instant.now())) {
+            active.put(reservation.id(), reservation);
+            return;
+        }
+        stockLedger.release(reservation.productoId(), reservation.cantidad());
+        journal(reservation, ReservationStatus.EXPIRADA);
+        log.info("Evento: Reserva {} expirada", reservation.id());
+    }
+
+    private ActiveReservation takeActive(String reservationId) {
+        ActiveReservation reservation = reservationId == null ? null : active.remove(reservationId);
+        if (reservation == null) {
+            throw new RuntimeException("Reserva no encontrada o ya finalizada");
+        }
+        return reservation;
+    }
+
+    private void journal(ActiveReservation reservation, ReservationStatus estado) {
+        reservationJournal.record(Reservation.builder()
+                .id(reservation.id())
+                .productoId(reservation.productoId())
+                .cantidad(reservation.cantidad())
+                .estado(estado)
+                .expiraEn(reservation.expiraEn())
+                .actualizadoEn(Instant.now())
+                .build());
+    }
+
+    private ReservationResponse toResponse(ActiveReservation reservation, ReservationStatus estado) {
+        return ReservationResponse.builder()
+                .id(reservation.id())
+                .productoId(reservation.productoId())
+                .cantidad(reservation.cantidad())
+                .estado(estado)
+                .expiraEn(reservation.expiraEn())
+                .build();
+    }
+}
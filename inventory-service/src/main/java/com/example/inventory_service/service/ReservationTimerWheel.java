@@ -0,0 +1,105 @@
+package com.example.inventory_service.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Rueda de temporizadores (hashed timing wheel) para la expiración de reservas.
+ * <p>
+ * Programar un vencimiento es O(1) y solo encola en una cola concurrente; un único hilo avanza la
+ * rueda cada {@code tickMillis}, reparte lo encolado en su casilla y dispara los vencidos de la casilla
+ * actual. No hay cancelación: quien recibe el aviso comprueba si la reserva sigue activa.
+ */
+@Slf4j
+public class ReservationTimerWheel {
+
+    private static final class Timeout {
+        private final String reservationId;
+        private final long deadlineTick;
+
+        private Timeout(String reservationId, long deadlineTick) {
+            this.reservationId = reservationId;
+            this.deadlineTick = deadlineTick;
+        }
+    }
+
+    private final long tickMillis;
+    private final Queue<Timeout>[] buckets;
+    private final ConcurrentLinkedQueue<Timeout> incoming = new ConcurrentLinkedQueue<>();
+    private final Consumer<String> onExpire;
+    private volatile long currentTick;
+    private ScheduledExecutorService ticker;
+
+    @SuppressWarnings("unchecked")
+    public ReservationTimerWheel(long tickMillis, int wheelSize, Consumer<String> onExpire) {
+        this.tickMillis = tickMillis;
+        this.onExpire = onExpire;
+        this.buckets = new Queue[wheelSize];
+        for (int i = 0; i < wheelSize; i++) {
+            buckets[i] = new ArrayDeque<>();
+        }
+    }
+
+    public void schedule(String reservationId, long delayMillis) {
+        long ticks = Math.max(1, (delayMillis + tickMillis - 1) / tickMillis);
+        incoming.add(new Timeout(reservationId, currentTick + ticks));
+    }
+
+    public synchronized void start() {
+        if (ticker == null) {
+            ticker = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("reservation-wheel-"));
+            ticker.scheduleAtFixedRate(this::advance, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    public synchronized void stop() {
+        if (ticker != null) {
+            ticker.shutdownNow();
+            ticker = null;
+        }
+    }
+
+    /**
+     * Avanza un tick. Solo lo invoca el hilo de la rueda (o los tests, en lugar de arrancarla).
+     */
+    void advance() {
+        long tick = ++currentTick;
+
+        Timeout timeout;
+        while ((timeout = incoming.poll()) != null) {
+            if (timeout.deadlineTick <= tick) {
+                fire(timeout);
+            } else {
+                buckets[(int) (timeout.deadlineTick % buckets.length)].add(timeout);
+            }
+        }
+
+        // Una casilla mezcla vencimientos de varias vueltas: solo se disparan los de esta
+        Iterator<Timeout> bucket = buckets[(int) (tick % buckets.length)].iterator();
+        while (bucket.hasNext()) {
+            Timeout candidate = bucket.next();
+            if (candidate.deadlineTick <= tick) {
+                bucket.remove();
+                fire(candidate);
+            }
+        }
+    }
+
+    private void fire(Timeout timeout) {
+        try {
+            onExpire.accept(timeout.reservationId);
+        } catch (Exception e) {
+            // Un fallo no debe detener la rueda
+            log.error("Error al expirar la reserva {}: {}", timeout.reservationId, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package com.example.inventory_service.service;
+
+import com.example.inventory_service.model.Inventory;
+import com.example.inventory_service.repository.InventoryRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Contadores de stock en memoria por producto para las reservas.
+ * <p>
+ * Cada producto tiene un único {@link AtomicLong} que empaqueta el stock físico (32 bits altos) y la
+ * cantidad reservada (32 bits bajos), así que reservar, liberar o confirmar es un solo CAS sin bloqueos:
+ * varios hilos compitiendo por el mismo producto nunca sobrevenden ni esperan a un lock de fila.
+ * El stock físico se carga de {@code inventories} (o del valor pendiente en {@link StockWriteBuffer}) la primera
+ * vez que se usa el producto.
+ * <p>
+ * Todas las escrituras de stock pasan primero por aquí y luego por la base, así que ninguna puede dejar el stock
+ * físico por debajo de lo reservado. Los contadores son de esta instancia: se asume una única instancia de
+ * inventory-service escribiendo stock.
+ */
+@Component
+@RequiredArgsConstructor
+public class StockLedger {
+
+    private final InventoryRepository inventoryRepository;
+    private final StockWriteBuffer stockWriteBuffer;
+    private final ConcurrentHashMap<Long, AtomicLong> counters = new ConcurrentHashMap<>();
+
+    public boolean tryReserve(Long productoId, int cantidad) {
+        AtomicLong counter = counter(productoId);
+        while (true) {
+            long current = counter.get();
+            int onHand = onHand(current);
+            int reserved = reserved(current);
+            if (onHand - reserved < cantidad) {
+                return false;
+            }
+            if (counter.compareAndSet(current, pack(onHand, reserved + cantidad))) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Registra una reserva ya aceptada (p. ej. al recuperar reservas activas tras un reinicio),
+     * sin comprobar disponibilidad.
+     */
+    public void addReserved(Long productoId, int cantidad) {
+        counter(productoId).getAndUpdate(v -> pack(onHand(v), reserved(v) + cantidad));
+    }
+
+    public void release(Long productoId, int cantidad) {
+        counter(productoId).getAndUpdate(v -> pack(onHand(v), reserved(v) - cantidad));
+    }
+
+    /**
+     * La reserva se convierte en salida de stock: deja de estar reservada y sale del stock físico.
+     */
+    public void confirm(Long productoId, int cantidad) {
+        counter(productoId).getAndUpdate(v -> pack(onHand(v) - cantidad, reserved(v) - cantidad));
+    }
+
+    /**
+     * Fija el stock físico antes de escribirlo en la base. Se rechaza si queda por debajo de lo reservado.
+     * Si el producto aún no está cargado no hay reservas y el valor nuevo se usa tal cual, sin consultar la base.
+     */
+    public boolean trySetOnHand(Long productoId, int cantidad) {
+        AtomicLong counter = counters.get(productoId);
+        if (counter == null) {
+            counter = counters.putIfAbsent(productoId, new AtomicLong(pack(cantidad, 0)));
+            if (counter == null) {
+                return true;
+            }
+        }
+        while (true) {
+            long current = counter.get();
+            if (cantidad < reserved(current)) {
+                return false;
+            }
+            if (counter.compareAndSet(current, pack(cantidad, reserved(current)))) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Descuenta stock físico antes de escribirlo en la base. Se rechaza si lo que queda no cubre lo reservado.
+     */
+    public boolean tryRemove(Long productoId, int cantidad) {
+        AtomicLong counter = counter(productoId);
+        while (true) {
+            long current = counter.get();
+            int onHand = onHand(current);
+            int reserved = reserved(current);
+            if (onHand - cantidad < reserved) {
+                return false;
+            }
+            if (counter.compareAndSet(current, pack(onHand - cantidad, reserved))) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Suma (o, con un valor negativo, deshace) un cambio de stock físico sin comprobar lo reservado.
+     */
+    public void addOnHand(Long productoId, int cantidad) {
+        counter(productoId).getAndUpdate(v -> pack(onHand(v) + cantidad, reserved(v)));
+    }
+
+    /**
+     * Vuelve a leer el stock físico tras una escritura fallida, conservando lo reservado.
+     */
+    public void reload(Long productoId) {
+        AtomicLong counter = counters.get(productoId);
+        if (counter != null) {
+            int onHand = load(productoId);
+            counter.getAndUpdate(v -> pack(onHand, reserved(v)));
+        }
+    }
+
+    public int available(Long productoId) {
+        long current = counter(productoId).get();
+        return onHand(current) - reserved(current);
+    }
+
+    // La consulta se hace fuera del mapa para no bloquear otros productos del mismo segmento;
+    // si otro hilo cargó el producto mientras tanto, gana su contador
+    private AtomicLong counter(Long productoId) {
+        AtomicLong counter = counters.get(productoId);
+        if (counter != null) {
+            return counter;
+        }
+        AtomicLong loaded = new AtomicLong(pack(load(productoId), 0));
+        AtomicLong previous = counters.putIfAbsent(productoId, loaded);
+        return previous != null ? previous : loaded;
+    }
+
+    private int load(Long productoId) {
+        Integer pendiente = stockWriteBuffer.peek(productoId);
+        if (pendiente != null) {
+            return pendiente;
+        }
+        return inventoryRepository.findByProductoId(productoId).map(Inventory::getCantidad).orElse(0);
+    }
+
+    static long pack(int onHand, int reserved) {
+        return ((long) onHand << 32) | (reserved & 0xFFFFFFFFL);
+    }
+
+    static int onHand(long value) {
+        return (int) (value >> 32);
+    }
+
+    static int reserved(long value) {
+        return (int) value;
+    }
+}
@@ -0,0 +1,168 @@
+package com.example.inventory_service.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Buffer de escritura diferida (write-behind) para actualizaciones de stock con valor absoluto.
+ * <p>
+ * Las escrituras se acumulan en un {@link ConcurrentHashMap} por {@code productoId}; escrituras
+ * consecutivas del mismo producto se fusionan y solo se persiste el último valor. Un proceso
+ * programado vacía el buffer cada {@code inventory.write-behind.flush-interval-ms} en una única
+ * transacción por lotes, y el buffer se vacía también al apagar la aplicación.
+ * <p>
+ * Durabilidad: con {@code ASYNC} se responde en cuanto el valor está en memoria; con {@code SYNC}
+ * el llamador espera al commit del lote que contiene su escritura (group commit).
+ */
+@Slf4j
+@Component
+public class StockWriteBuffer {
+
+    public enum Durability { ASYNC, SYNC }
+
+    private record PendingWrite(int cantidad, CompletableFuture<Void> committed) {
+    }
+
+    private final InventoryBulkWriter inventoryBulkWriter;
+    private final boolean enabled;
+    private final Durability durability;
+    private final int maxPending;
+    private final Duration syncTimeout;
+
+    private final ConcurrentHashMap<Long, PendingWrite> pending = new ConcurrentHashMap<>();
+    // Escrituras que se están persistiendo: siguen siendo visibles para las lecturas hasta el commit
+    private final ConcurrentHashMap<Long, PendingWrite> inFlight = new ConcurrentHashMap<>();
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    public StockWriteBuffer(InventoryBulkWriter inventoryBulkWriter,
+                            @Value("${inventory.write-behind.enabled:false}") boolean enabled,
+                            @Value("${inventory.write-behind.durability:ASYNC}") Durability durability,
+                            @Value("${inventory.write-behind.max-pending:10000}") int maxPending,
+                            @Value("${inventory.write-behind.sync-timeout:2s}") Duration syncTimeout) {
+        this.inventoryBulkWriter = inventoryBulkWriter;
+        this.enabled = enabled;
+        this.durability = durability;
+        this.maxPending = maxPending;
+        this.syncTimeout = syncTimeout;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void write(Long productoId, int cantidad) {
+        PendingWrite write = pending.compute(productoId, (id, previous) ->
+                new PendingWrite(cantidad, previous != null ? previous.committed() : new CompletableFuture<>()));
+
+        if (pending.size() >= maxPending) {
+            // Contrapresión: si el buffer está lleno, el llamador paga el vaciado
+            flush();
+        }
+        if (durability == Durability.SYNC) {
+            await(write.committed());
+        }
+    }
+
+    /**
+     * Último valor aún no persistido para el producto, o {@code null} si no hay ninguno.
+     */
+    public Integer peek(Long productoId) {
+        PendingWrite write = pending.get(productoId);
+        if (write == null) {
+            write = inFlight.get(productoId);
+        }
+        return write != null ? write.cantidad() : null;
+    }
+
+    /**
+     * Persiste el buffer si tiene algo pendiente para el producto, para que una operación
+     * que escribe directamente en la base no sea pisada después por un valor más antiguo.
+     */
+    public void drain(Long productoId) {
+        if (pending.containsKey(productoId) || inFlight.containsKey(productoId)) {
+            flush();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${inventory.write-behind.flush-interval-ms:200}")
+    public void flush() {
+        if (pending.isEmpty() && inFlight.isEmpty()) {
+            return;
+        }
+        flushLock.lock();
+        try {
+            Map<Long, PendingWrite> batch = new LinkedHashMap<>();
+            for (Long productoId : pending.keySet()) {
+                PendingWrite write = pending.get(productoId);
+                if (write == null) {
+                    continue;
+                }
+                // Primero se publica en inFlight y luego se retira de pending: una lectura nunca queda sin valor
+                inFlight.put(productoId, write);
+                if (pending.remove(productoId, write)) {
+                    batch.put(productoId, write);
+                } else {
+                    inFlight.remove(productoId, write);
+                }
+            }
+            if (!batch.isEmpty()) {
+                persist(batch);
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    private void persist(Map<Long, PendingWrite> batch) {
+        Map<Long, Integer> cantidades = new LinkedHashMap<>();
+        batch.forEach((productoId, write) -> cantidades.put(productoId, write.cantidad()));
+
+        try {
+            inventoryBulkWriter.write(cantidades);
+            batch.values().forEach(write -> write.committed().complete(null));
+            log.debug("Buffer de stock vaciado: {} productos", batch.size());
+        } catch (Exception e) {
+            log.error("Error al vaciar el buffer de stock ({} productos): {}", batch.size(), e.getMessage());
+            batch.forEach((productoId, write) -> {
+                write.committed().completeExceptionally(e);
+                if (durability == Durability.ASYNC) {
+                    // Nadie espera el resultado: se reintenta en el siguiente ciclo salvo que ya haya un valor más nuevo
+                    pending.putIfAbsent(productoId, new PendingWrite(write.cantidad(), new CompletableFuture<>()));
+                }
+            });
+        } finally {
+            batch.forEach(inFlight::remove);
+        }
+    }
+
+    private void await(CompletableFuture<Void> committed) {
+        try {
+            committed.get(syncTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new RuntimeException("Tiempo de espera agotado al confirmar la escritura del inventario");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Escritura del inventario interrumpida", e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Error al guardar el inventario: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+}
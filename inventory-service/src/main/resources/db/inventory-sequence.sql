@@ -0,0 +1,6 @@
+-- Se ejecuta después de que Hibernate actualice el esquema (spring.jpa.defer-datasource-initialization).
+-- Migraciones idempotentes de bases existentes: en una base ya migrada no cambian nada.
+-- 1. La secuencia se creó con incremento 50 (asignación por bloques); ahora cada alta toma un solo ID.
+ALTER SEQUENCE inventories_seq INCREMENT BY 1;
+-- 2. Alinea la secuencia con los IDs generados por la antigua columna IDENTITY; solo avanza, nunca retrocede.
+SELECT setval('inventories_seq', GREATEST((SELECT COALESCE(MAX(id), 0) FROM inventories), (SELECT last_value FROM inventories_seq)));
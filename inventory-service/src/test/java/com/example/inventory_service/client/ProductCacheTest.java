@@ -0,0 +1,289 @@
+package com.example.inventory_service.client;
+
+import com.example.inventory_service.dto.ProductoDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import feign.FeignException;
+import feign.Request;
+import feign.Response;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ProductCacheTest {
+
+    private ProductClient productClient;
+    private SimpleMeterRegistry meterRegistry;
+    private ProductClientGuard guard;
+    private ProductCache productCache;
+
+    @BeforeEach
+    void setUp() {
+        productClient = mock(ProductClient.class);
+        meterRegistry = new SimpleMeterRegistry();
+        // Circuito pequeño para poder abrirlo en los tests: ventana de 3 llamadas, 50 % de errores
+        guard = new ProductClientGuard(meterRegistry, 2, 50f, Duration.ofSeconds(2), 3, 3, Duration.ofMinutes(1));
+        productCache = new ProductCache(productClient, guard, new ObjectMapper(), meterRegistry, 100, Duration.ofMinutes(5), Duration.ofMinutes(1));
+    }
+
+    @Test
+    void get_shouldServeRepeatedLookupsFromMemory() {
+        when(productClient.getProductoById(1L)).thenReturn(new ProductoDto(1L, "Producto A", 10.0));
+
+        assertEquals("Producto A", productCache.get(1L).getNombre());
+        assertEquals("Producto A", productCache.get(1L).getNombre());
+
+        verify(productClient, times(1)).getProductoById(1L);
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("result", "hit").functionCounter().count());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("result", "miss").functionCounter().count());
+    }
+
+    @Test
+    void get_shouldLoadOnVirtualThreadOutsideTheCacheLock() {
+        Thread[] loaderThread = new Thread[1];
+        when(productClient.getProductoById(1L)).thenAnswer(invocation -> {
+            loaderThread[0] = Thread.currentThread();
+            return new ProductoDto(1L, "Producto A", 10.0);
+        });
+
+        assertEquals("Producto A", productCache.get(1L).getNombre());
+
+        assertTrue(loaderThread[0].isVirtual());
+        assertTrue(loaderThread[0].getName().startsWith("product-cache-"));
+        assertNotSame(Thread.currentThread(), loaderThread[0]);
+    }
+
+    @Test
+    void get_shouldNotCacheMissingProducts() {
+        when(productClient.getProductoById(2L)).thenReturn(null);
+
+        assertNull(productCache.get(2L));
+        assertNull(productCache.get(2L));
+
+        verify(productClient, times(2)).getProductoById(2L);
+    }
+
+    @Test
+    void getAll_shouldOnlyRequestMissingIdsInOneBatch() {
+        when(productClient.getProductoById(1L)).thenReturn(new ProductoDto(1L, "Producto A", 10.0));
+        when(productClient.getProductosByIds(anyList())).thenReturn(List.of(new ProductoDto(2L, "Producto B", 5.0)));
+        productCache.get(1L);
+
+        Map<Long, ProductoDto> result = productCache.getAll(List.of(1L, 2L, 3L));
+
+        assertEquals(2, result.size());
+        assertEquals("Producto B", result.get(2L).getNombre());
+        verify(productClient, times(1)).getProductosByIds(argThat(ids -> ids.size() == 2 && !ids.contains(1L)));
+    }
+
+    @Test
+    void invalidate_shouldForceReload() {
+        when(productClient.getProductoById(1L))
+                .thenReturn(new ProductoDto(1L, "Nombre viejo", 10.0))
+                .thenReturn(new ProductoDto(1L, "Nombre nuevo", 10.0));
+
+        productCache.get(1L);
+        productCache.invalidate(1L);
+
+        assertEquals("Nombre nuevo", productCache.get(1L).getNombre());
+    }
+
+    @Test
+    void invalidateAll_shouldReloadChangedProductsInOneBatch() {
+        when(productClient.getProductosByIds(anyList())).thenReturn(
+                List.of(new ProductoDto(1L, "Antes", 1.0), new ProductoDto(2L, "Otro", 1.0)));
+        productCache.getAll(List.of(1L, 2L));
+
+        productCache.invalidateAll(List.of(1L));
+        when(productClient.getProductosByIds(List.of(1L))).thenReturn(List.of(new ProductoDto(1L, "Después", 1.0)));
+
+        Map<Long, ProductoDto> productos = productCache.getAll(List.of(1L, 2L));
+
+        assertEquals("Después", productos.get(1L).getNombre());
+        assertEquals("Otro", productos.get(2L).getNombre());
+        verify(productClient, never()).getProductoById(anyLong());
+    }
+
+    @Test
+    void refresh_shouldKeepCurrentValueWhenProductServiceAnswersNotModified() {
+        when(productClient.getProductoById(1L)).thenReturn(new ProductoDto(1L, "Producto A", 10.0, 3L));
+        when(productClient.getProductoByIdIfNoneMatch(1L, "\"3\"")).thenReturn(response(304, null));
+        productCache.get(1L);
+
+        ProductoDto refreshed = productCache.refresh(1L).join();
+
+        assertEquals("Producto A", refreshed.getNombre());
+        assertEquals(3L, productCache.get(1L).getVersion());
+        verify(productClient, times(1)).getProductoById(1L);
+    }
+
+    @Test
+    void refresh_shouldReplaceValueWhenProductChanged() {
+        when(productClient.getProductoById(1L)).thenReturn(new ProductoDto(1L, "Producto A", 10.0, 3L));
+        when(productClient.getProductoByIdIfNoneMatch(1L, "\"3\"")).thenReturn(
+                response(200, "{\"id\":1,\"nombre\":\"Producto B\",\"precio\":12.0,\"version\":4}"));
+        productCache.get(1L);
+
+        productCache.refresh(1L).join();
+
+        assertEquals("Producto B", productCache.get(1L).getNombre());
+        assertEquals(4L, productCache.get(1L).getVersion());
+    }
+
+    @Test
+    void remoteCalls_shouldBeTimedByOperationAndOutcome() {
+        when(productClient.getProductoById(1L)).thenReturn(new ProductoDto(1L, "Producto A", 10.0, 3L));
+        when(productClient.getProductoById(2L)).thenThrow(new RuntimeException("timeout"));
+        when(productClient.getProductoByIdIfNoneMatch(1L, "\"3\"")).thenReturn(response(304, null));
+
+        productCache.get(1L);
+        assertThrows(RuntimeException.class, () -> productCache.get(2L));
+        productCache.refresh(1L).join();
+
+        assertEquals(1, meterRegistry.get(ProductCache.CLIENT_TIMER)
+                .tags("operation", "get", "outcome", "SUCCESS").timer().count());
+        assertEquals(1, meterRegistry.get(ProductCache.CLIENT_TIMER)
+                .tags("operation", "get", "outcome", "ERROR").timer().count());
+        assertEquals(1, meterRegistry.get(ProductCache.CLIENT_TIMER)
+                .tags("operation", "revalidate", "outcome", "NOT_MODIFIED").timer().count());
+    }
+
+    @Test
+    void getOrLastKnown_shouldServeLastKnownProductWhenProductServiceFails() {
+        when(productClient.getProductoById(1L))
+                .thenReturn(new ProductoDto(1L, "Producto A", 10.0, 3L))
+                .thenThrow(new RuntimeException("product-service caído"));
+        productCache.get(1L);
+        productCache.invalidate(1L);
+
+        assertEquals("Producto A", productCache.getOrLastKnown(1L).getNombre());
+        // La lectura estricta no usa el valor conocido
+        productCache.invalidate(1L);
+        assertThrows(RuntimeException.class, () -> productCache.get(1L));
+    }
+
+    @Test
+    void getOrLastKnown_shouldFailWhenProductWasNeverLoaded() {
+        when(productClient.getProductoById(9L)).thenThrow(new RuntimeException("product-service caído"));
+
+        assertThrows(RuntimeException.class, () -> productCache.getOrLastKnown(9L));
+    }
+
+    @Test
+    void getAllOrLastKnown_shouldReturnKnownProductsWhenBatchFails() {
+        when(productClient.getProductosByIds(anyList()))
+                .thenReturn(List.of(new ProductoDto(1L, "Producto A", 10.0)))
+                .thenThrow(new RuntimeException("product-service caído"));
+        productCache.getAll(List.of(1L));
+        productCache.invalidateAll(List.of(1L));
+
+        Map<Long, ProductoDto> productos = productCache.getAllOrLastKnown(List.of(1L, 2L));
+
+        assertEquals(Map.of(1L, new ProductoDto(1L, "Producto A", 10.0)), productos);
+    }
+
+    @Test
+    void evictDeleted_shouldForgetLastKnownValue() {
+        when(productClient.getProductoById(1L))
+                .thenReturn(new ProductoDto(1L, "Producto A", 10.0, 3L))
+                .thenThrow(new RuntimeException("product-service caído"));
+        productCache.get(1L);
+
+        productCache.evictDeleted(List.of(1L));
+
+        assertNull(productCache.getLastKnown(1L));
+        assertThrows(RuntimeException.class, () -> productCache.getOrLastKnown(1L));
+    }
+
+    @Test
+    void getAll_shouldForgetLastKnownValueOfProductsMissingFromBatch() {
+        when(productClient.getProductosByIds(anyList()))
+                .thenReturn(List.of(new ProductoDto(1L, "Producto A", 10.0), new ProductoDto(2L, "Producto B", 5.0)))
+                .thenReturn(List.of(new ProductoDto(1L, "Producto A", 10.0)))
+                .thenThrow(new RuntimeException("product-service caído"));
+        productCache.getAll(List.of(1L, 2L));
+        productCache.invalidateAll(List.of(1L, 2L));
+        productCache.getAll(List.of(1L, 2L));
+        productCache.invalidateAll(List.of(1L, 2L));
+
+        Map<Long, ProductoDto> productos = productCache.getAllOrLastKnown(List.of(1L, 2L));
+
+        assertEquals(Map.of(1L, new ProductoDto(1L, "Producto A", 10.0)), productos);
+    }
+
+    @Test
+    void circuitBreaker_shouldFailFastOnceErrorRateIsExceeded() {
+        when(productClient.getProductoById(anyLong())).thenThrow(new RuntimeException("timeout"));
+
+        assertThrows(RuntimeException.class, () -> productCache.get(1L));
+        assertThrows(RuntimeException.class, () -> productCache.get(2L));
+        assertThrows(RuntimeException.class, () -> productCache.get(3L));
+        assertEquals(CircuitBreaker.State.OPEN, guard.getState());
+
+        assertThrows(CallNotPermittedException.class, () -> productCache.get(4L));
+        verify(productClient, times(3)).getProductoById(anyLong());
+        assertEquals(1, meterRegistry.get(ProductCache.CLIENT_TIMER)
+                .tags("operation", "get", "outcome", "REJECTED").timer().count());
+    }
+
+    @Test
+    void circuitBreaker_shouldIgnoreNotFound() {
+        FeignException.NotFound notFound = new FeignException.NotFound("no existe",
+                response(404, null).request(), null, null);
+        when(productClient.getProductoById(anyLong())).thenThrow(notFound);
+
+        assertThrows(FeignException.NotFound.class, () -> productCache.get(1L));
+        assertThrows(FeignException.NotFound.class, () -> productCache.get(2L));
+        assertThrows(FeignException.NotFound.class, () -> productCache.get(3L));
+
+        assertEquals(CircuitBreaker.State.CLOSED, guard.getState());
+    }
+
+    @Test
+    void bulkhead_shouldRejectCallsBeyondConcurrencyLimit() throws Exception {
+        CountDownLatch inside = new CountDownLatch(2);
+        CountDownLatch release = new CountDownLatch(1);
+        when(productClient.getProductoById(anyLong())).thenAnswer(invocation -> {
+            inside.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return new ProductoDto(invocation.getArgument(0), "Producto", 1.0);
+        });
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            pool.submit(() -> productCache.get(1L));
+            pool.submit(() -> productCache.get(2L));
+            assertTrue(inside.await(5, TimeUnit.SECONDS));
+
+            assertThrows(BulkheadFullException.class, () -> productCache.get(3L));
+        } finally {
+            release.countDown();
+            pool.shutdown();
+        }
+    }
+
+    private Response response(int status, String body) {
+        Response.Builder builder = Response.builder()
+                .status(status)
+                .headers(Map.of())
+                .request(Request.create(Request.HttpMethod.GET, "http://product-service:8081/api/v1/products/1",
+                        Map.of(), null, StandardCharsets.UTF_8, null));
+        if (body != null) {
+            builder.body(body, StandardCharsets.UTF_8);
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,150 @@
+package com.example.inventory_service.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SingleFlightTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private SingleFlight<Long, String> singleFlight;
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        singleFlight = new SingleFlight<>(meterRegistry, "test");
+        executor = Executors.newFixedThreadPool(8);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void execute_shouldShareOneCallBetweenConcurrentCallers() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger calls = new AtomicInteger();
+
+        Future<String> leader = executor.submit(() -> singleFlight.execute(1L, () -> {
+            calls.incrementAndGet();
+            started.countDown();
+            release.await();
+            return "Producto A";
+        }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        List<Future<String>> followers = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            followers.add(executor.submit(() -> singleFlight.execute(1L, () -> {
+                calls.incrementAndGet();
+                return "otra llamada";
+            })));
+        }
+        awaitShared(5);
+        release.countDown();
+
+        assertEquals("Producto A", leader.get(5, TimeUnit.SECONDS));
+        for (Future<String> follower : followers) {
+            assertEquals("Producto A", follower.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, calls.get());
+        assertEquals(1.0, count("executed"));
+        assertEquals(5.0, count("shared"));
+        assertEquals(0, singleFlight.inFlight());
+    }
+
+    @Test
+    void execute_shouldPropagateFailureToFollowers() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Future<String> leader = executor.submit(() -> singleFlight.execute(1L, () -> {
+            started.countDown();
+            release.await();
+            throw new IllegalStateException("product-service no disponible");
+        }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        Future<String> follower = executor.submit(() -> singleFlight.execute(1L, () -> "no debería llamarse"));
+        awaitShared(1);
+        release.countDown();
+
+        ExecutionException leaderError = assertThrows(ExecutionException.class, () -> leader.get(5, TimeUnit.SECONDS));
+        ExecutionException followerError = assertThrows(ExecutionException.class, () -> follower.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalStateException.class, leaderError.getCause());
+        assertInstanceOf(IllegalStateException.class, followerError.getCause());
+        assertEquals(0, singleFlight.inFlight());
+    }
+
+    @Test
+    void execute_shouldCallAgainOnceThePreviousCallFinished() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+
+        singleFlight.execute(1L, () -> "v" + calls.incrementAndGet());
+        String second = singleFlight.execute(1L, () -> "v" + calls.incrementAndGet());
+
+        assertEquals("v2", second);
+        assertEquals(2.0, count("executed"));
+        assertEquals(0.0, count("shared"));
+    }
+
+    @Test
+    void executeAll_shouldJoinKeysInFlightAndRequestOnlyTheRest() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicReference<Set<Long>> requested = new AtomicReference<>();
+
+        Future<String> single = executor.submit(() -> singleFlight.execute(1L, () -> {
+            started.countDown();
+            release.await();
+            return "Producto A";
+        }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        Future<Map<Long, String>> batch = executor.submit(() -> singleFlight.executeAll(List.of(1L, 2L, 3L), ids -> {
+            requested.set(Set.copyOf(ids));
+            // El producto 3 no existe: no aparece en la respuesta
+            return Map.of(2L, "Producto B");
+        }));
+        awaitShared(1);
+        release.countDown();
+
+        assertEquals("Producto A", single.get(5, TimeUnit.SECONDS));
+        assertEquals(Map.of(1L, "Producto A", 2L, "Producto B"), batch.get(5, TimeUnit.SECONDS));
+        assertEquals(Set.of(2L, 3L), requested.get());
+        assertEquals(3.0, count("executed"));
+        assertEquals(1.0, count("shared"));
+        assertEquals(0, singleFlight.inFlight());
+    }
+
+    private double count(String result) {
+        return meterRegistry.get(SingleFlight.METRIC).tag("result", result).counter().count();
+    }
+
+    // Los seguidores se cuentan antes de quedar esperando el resultado
+    private void awaitShared(int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (count("shared") < expected && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(expected, count("shared"));
+    }
+}
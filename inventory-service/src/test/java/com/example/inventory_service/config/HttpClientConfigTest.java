@@ -0,0 +1,38 @@
+package com.example.inventory_service.config;
+
+import feign.Client;
+import feign.hc5.ApacheHttp5Client;
+import feign.http2client.Http2Client;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.cloud.openfeign.FeignAutoConfiguration;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HttpClientConfigTest {
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withConfiguration(AutoConfigurations.of(FeignAutoConfiguration.class))
+            .withUserConfiguration(HttpClientConfig.class);
+
+    @Test
+    void feignClient_shouldUseSharedPool_byDefault() {
+        contextRunner.run(context -> {
+            assertThat(context).hasSingleBean(Client.class);
+            assertThat(context.getBean(Client.class)).isInstanceOf(ApacheHttp5Client.class);
+            assertThat(context.getBean(ClientHttpRequestFactory.class))
+                    .isInstanceOf(HttpComponentsClientHttpRequestFactory.class);
+        });
+    }
+
+    @Test
+    void feignClient_shouldUseHttp2Client_whenEnabled() {
+        contextRunner.withPropertyValues("inventory.http-client.http2=true").run(context -> {
+            assertThat(context).hasSingleBean(Client.class);
+            assertThat(context.getBean(Client.class)).isInstanceOf(Http2Client.class);
+        });
+    }
+}
@@ -1,16 +1,27 @@
 package com.example.inventory_service.controller;
 
+import com.example.inventory_service.dto.InventoryBulkItem;
+import com.example.inventory_service.dto.InventoryBulkResponse;
+import com.example.inventory_service.dto.InventoryDeltaRequest;
+import com.example.inventory_service.dto.InventoryPageResponse;
 import com.example.inventory_service.dto.InventoryResponse;
 import com.example.inventory_service.dto.InventoryUpdateRequest;
 import com.example.inventory_service.service.InventoryService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.function.Consumer;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -24,6 +35,9 @@ class InventoryControllerTest {
     @Mock
     private InventoryService inventoryService;
 
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
     @InjectMocks
     private InventoryController inventoryController;
 
@@ -73,4 +87,71 @@ class InventoryControllerTest {
         assertEquals(1L, result.getProductoId());
         assertEquals("Test Product", result.getProductoNombre());
     }
+
+    @Test
+    void testIncrementStock_shouldReturnUpdatedResponse() {
+        InventoryDeltaRequest request = new InventoryDeltaRequest(5);
+        when(inventoryService.incrementStock(1L, request)).thenReturn(sampleResponse);
+
+        InventoryResponse result = inventoryController.incrementStock(1L, request);
+
+        assertEquals(100, result.getCantidad());
+    }
+
+    @Test
+    void testDecrementStock_shouldReturnUpdatedResponse() {
+        InventoryDeltaRequest request = new InventoryDeltaRequest(5);
+        when(inventoryService.decrementStock(1L, request)).thenReturn(sampleResponse);
+
+        InventoryResponse result = inventoryController.decrementStock(1L, request);
+
+        assertEquals(100, result.getCantidad());
+    }
+
+    @Test
+    void testBulkUpdateStock_shouldReturnSummary() {
+        List<InventoryBulkItem> items = List.of(new InventoryBulkItem(1L, 10));
+        InventoryBulkResponse summary = InventoryBulkResponse.builder()
+                .procesados(1)
+                .productosNoEncontrados(List.of())
+                .build();
+        when(inventoryService.bulkUpdateStock(items)).thenReturn(summary);
+
+        InventoryBulkResponse result = inventoryController.bulkUpdateStock(items);
+
+        assertEquals(1, result.getProcesados());
+    }
+
+    @Test
+    void testGetInventoryPage_shouldDelegateToService() {
+        InventoryPageResponse page = InventoryPageResponse.builder()
+                .items(List.of(sampleResponse))
+                .nextCursor(1L)
+                .build();
+        when(inventoryService.getInventoryPage(null, 50)).thenReturn(page);
+
+        InventoryPageResponse result = inventoryController.getInventoryPage(null, 50);
+
+        assertEquals(1, result.getItems().size());
+        assertEquals(1L, result.getNextCursor());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testStreamInventory_shouldWriteOneJsonObjectPerLine() throws Exception {
+        doAnswer(invocation -> {
+            Consumer<List<InventoryResponse>> consumer = invocation.getArgument(0);
+            consumer.accept(List.of(sampleResponse, sampleResponse));
+            return null;
+        }).when(inventoryService).streamInventory(any());
+
+        ResponseEntity<StreamingResponseBody> response = inventoryController.streamInventory();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        response.getBody().writeTo(out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(MediaType.APPLICATION_NDJSON, response.getHeaders().getContentType());
+        assertEquals(2, lines.length);
+        assertEquals(1L, objectMapper.readTree(lines[0]).get("productoId").asLong());
+    }
 }
@@ -0,0 +1,41 @@
+package com.example.inventory_service.controller;
+
+import com.example.inventory_service.client.ProductCache;
+import com.example.inventory_service.dto.ProductChangeEvent;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProductEventControllerTest {
+
+    @Mock
+    private ProductCache productCache;
+
+    @InjectMocks
+    private ProductEventController productEventController;
+
+    @Test
+    void testOnProductChanges_shouldInvalidateEachProductOnce() {
+        Instant now = Instant.now();
+
+        ResponseEntity<Void> response = productEventController.onProductChanges(List.of(
+                new ProductChangeEvent(1L, "ACTUALIZADO", now),
+                new ProductChangeEvent(2L, "ELIMINADO", now),
+                new ProductChangeEvent(1L, "ACTUALIZADO", now)));
+
+        assertEquals(HttpStatus.NO_CONTENT, response.getStatusCode());
+        verify(productCache).invalidateAll(List.of(1L));
+        verify(productCache).evictDeleted(List.of(2L));
+    }
+}
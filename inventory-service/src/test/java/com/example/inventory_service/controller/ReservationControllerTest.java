@@ -0,0 +1,63 @@
+package com.example.inventory_service.controller;
+
+import com.example.inventory_service.dto.ReservationRequest;
+import com.example.inventory_service.dto.ReservationResponse;
+import com.example.inventory_service.model.ReservationStatus;
+import com.example.inventory_service.service.ReservationService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReservationControllerTest {
+
+    @Mock
+    private ReservationService reservationService;
+
+    @InjectMocks
+    private ReservationController reservationController;
+
+    private ReservationResponse response(ReservationStatus estado) {
+        return ReservationResponse.builder()
+                .id("r-1")
+                .productoId(1L)
+                .cantidad(2)
+                .estado(estado)
+                .expiraEn(Instant.now())
+                .build();
+    }
+
+    @Test
+    void testReserve_shouldDelegateToService() {
+        ReservationRequest request = new ReservationRequest(1L, 2, 60);
+        when(reservationService.reserve(request)).thenReturn(response(ReservationStatus.ACTIVA));
+
+        ReservationResponse result = reservationController.reserve(request);
+
+        assertEquals("r-1", result.getId());
+        assertEquals(ReservationStatus.ACTIVA, result.getEstado());
+    }
+
+    @Test
+    void testConfirm_shouldDelegateToService() {
+        when(reservationService.confirm("r-1")).thenReturn(response(ReservationStatus.CONFIRMADA));
+
+        assertEquals(ReservationStatus.CONFIRMADA, reservationController.confirm("r-1").getEstado());
+    }
+
+    @Test
+    void testRelease_shouldPropagateErrors() {
+        when(reservationService.release("r-1")).thenThrow(new RuntimeException("Reserva no encontrada o ya finalizada"));
+
+        RuntimeException ex = assertThrows(RuntimeException.class, () -> reservationController.release("r-1"));
+
+        assertEquals("Reserva no encontrada o ya finalizada", ex.getMessage());
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.inventory_service.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.core.spi.FilterReply;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoggerRateSamplingFilterTest {
+
+    private LoggerContext context;
+    private LoggerRateSamplingFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        context = new LoggerContext();
+        filter = new LoggerRateSamplingFilter();
+        filter.setContext(context);
+        filter.setMaxPerSecond(2);
+        filter.start();
+    }
+
+    @Test
+    void decide_shouldDenyInfoOverTheLimit() {
+        Logger logger = context.getLogger("com.example.inventory_service.service.InventoryServiceImpl");
+
+        int passed = 0;
+        for (int i = 0; i < 100; i++) {
+            if (decide(logger, Level.INFO) == FilterReply.NEUTRAL) {
+                passed++;
+            }
+        }
+
+        // Como mucho dos ventanas de un segundo si el bucle cruza el cambio de segundo
+        assertTrue(passed >= 2 && passed <= 4, "Pasaron " + passed);
+        assertEquals(100 - passed, filter.getDropped(logger.getName()));
+    }
+
+    @Test
+    void decide_shouldNeverDenyWarningsOrUnmarkedEvents() {
+        filter.setMaxPerSecond(0);
+        Logger logger = context.getLogger("com.example.inventory_service.service.InventoryServiceImpl");
+
+        assertEquals(FilterReply.DENY, decide(logger, Level.INFO));
+        assertEquals(FilterReply.NEUTRAL, decide(logger, Level.WARN));
+        assertEquals(FilterReply.NEUTRAL, decide(logger, Level.ERROR));
+        assertEquals(FilterReply.NEUTRAL, filter.decide(null, logger, Level.INFO, "Evento: Inventario actualizado {}", new Object[]{1L}, null));
+        assertEquals(1, filter.getDropped(logger.getName()));
+    }
+
+    @Test
+    void decide_shouldIgnoreLevelChecks() {
+        filter.setMaxPerSecond(0);
+        Logger logger = context.getLogger("com.example.inventory_service.service.InventoryServiceImpl");
+
+        assertEquals(FilterReply.NEUTRAL, filter.decide(LogMarkers.ACCESS, logger, Level.INFO, null, null, null));
+        assertEquals(0, filter.getDropped(logger.getName()));
+    }
+
+    private FilterReply decide(Logger logger, Level level) {
+        return filter.decide(LogMarkers.ACCESS, logger, level, "Consultando inventario: {}", new Object[]{1L}, null);
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.inventory_service.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class InventoryBulkWriterTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private InventoryBulkWriter writer;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        writer = new InventoryBulkWriter(jdbcTemplate);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void write_shouldUpsertAllRowsOrderedByProduct() {
+        Map<Long, Integer> cantidades = new LinkedHashMap<>();
+        cantidades.put(20L, 7);
+        cantidades.put(10L, 50);
+        writer.write(cantidades);
+
+        ArgumentCaptor<List<Object[]>> captor = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(eq(InventoryBulkWriter.UPSERT_SQL), captor.capture());
+        assertEquals(2, captor.getValue().size());
+        assertArrayEquals(new Object[]{10L, 50}, captor.getValue().get(0));
+        assertArrayEquals(new Object[]{20L, 7}, captor.getValue().get(1));
+    }
+
+    @Test
+    void write_shouldSendOneJdbcBatchPerChunk() {
+        Map<Long, Integer> cantidades = new LinkedHashMap<>();
+        for (long id = 1; id <= InventoryBulkWriter.WRITE_BATCH_SIZE + 1; id++) {
+            cantidades.put(id, 1);
+        }
+
+        writer.write(cantidades);
+
+        verify(jdbcTemplate, times(2)).batchUpdate(eq(InventoryBulkWriter.UPSERT_SQL), anyList());
+    }
+}
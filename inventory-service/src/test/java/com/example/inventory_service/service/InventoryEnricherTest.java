@@ -0,0 +1,99 @@
+package com.example.inventory_service.service;
+
+import com.example.inventory_service.client.ProductCache;
+import com.example.inventory_service.client.ProductClient;
+import com.example.inventory_service.client.ProductClientGuard;
+import com.example.inventory_service.dto.InventoryResponse;
+import com.example.inventory_service.dto.ProductoDto;
+import com.example.inventory_service.model.Inventory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class InventoryEnricherTest {
+
+    private ProductClient productClient;
+    private ProductCache productCache;
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        productClient = mock(ProductClient.class);
+        productCache = new ProductCache(productClient, guard(), new ObjectMapper(), new SimpleMeterRegistry(), 10_000, Duration.ofMinutes(1), Duration.ofSeconds(30));
+        executor = Executors.newFixedThreadPool(4);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void enrich_shouldKeepInputOrderWhenChunksCompleteOutOfOrder() {
+        int total = InventoryEnricher.PRODUCT_BATCH_SIZE * 4;
+        List<Inventory> inventories = LongStream.rangeClosed(1, total)
+                .mapToObj(id -> new Inventory(id, id, (int) id))
+                .toList();
+        when(productClient.getProductosByIds(anyList())).thenAnswer(invocation -> {
+            List<Long> ids = invocation.getArgument(0);
+            // Los primeros bloques tardan más, así terminan después que los últimos
+            long minId = ids.stream().mapToLong(Long::longValue).min().orElse(0);
+            Thread.sleep(minId < InventoryEnricher.PRODUCT_BATCH_SIZE ? 100 : 10);
+            return ids.stream().map(id -> new ProductoDto(id, "Producto " + id, 1.0)).toList();
+        });
+        InventoryEnricher enricher = new InventoryEnricher(productCache, executor, 4, Duration.ofSeconds(5));
+
+        List<InventoryResponse> result = enricher.enrich(inventories);
+
+        assertEquals(total, result.size());
+        for (int i = 0; i < total; i++) {
+            assertEquals(i + 1L, result.get(i).getProductoId());
+            assertEquals("Producto " + (i + 1), result.get(i).getProductoNombre());
+        }
+        verify(productClient, times(4)).getProductosByIds(anyList());
+    }
+
+    @Test
+    void enrich_shouldFailWhenDeadlineExpires() {
+        List<Inventory> inventories = LongStream.rangeClosed(1, InventoryEnricher.PRODUCT_BATCH_SIZE * 2L)
+                .mapToObj(id -> new Inventory(id, id, 1))
+                .toList();
+        when(productClient.getProductosByIds(anyList())).thenAnswer(invocation -> {
+            Thread.sleep(1_000);
+            return List.of();
+        });
+        InventoryEnricher enricher = new InventoryEnricher(productCache, executor, 2, Duration.ofMillis(50));
+
+        RuntimeException ex = assertThrows(RuntimeException.class, () -> enricher.enrich(inventories));
+
+        assertTrue(ex.getMessage().contains("Tiempo de espera agotado"));
+    }
+
+    @Test
+    void enrich_shouldRunSequentiallyWhenConcurrencyIsOne() {
+        List<Inventory> inventories = List.of(new Inventory(1L, 1L, 3));
+        when(productClient.getProductosByIds(anyList())).thenReturn(List.of(new ProductoDto(1L, "Producto A", 1.0)));
+        ExecutorService unused = mock(ExecutorService.class);
+        InventoryEnricher enricher = new InventoryEnricher(productCache, unused, 1, Duration.ofSeconds(1));
+
+        List<InventoryResponse> result = enricher.enrich(inventories);
+
+        assertEquals("Producto A", result.get(0).getProductoNombre());
+        verifyNoInteractions(unused);
+    }
+
+    private static ProductClientGuard guard() {
+        return new ProductClientGuard(new SimpleMeterRegistry(), 20, 50f, Duration.ofSeconds(2), 100, 100, Duration.ofSeconds(10));
+    }
+}
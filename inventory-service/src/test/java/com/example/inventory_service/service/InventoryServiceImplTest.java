@@ -1,17 +1,34 @@
 package com.example.inventory_service.service;
 
+import com.example.inventory_service.client.ProductCache;
 import com.example.inventory_service.client.ProductClient;
+import com.example.inventory_service.client.ProductClientGuard;
+import com.example.inventory_service.dto.InventoryBulkItem;
+import com.example.inventory_service.dto.InventoryBulkResponse;
+import com.example.inventory_service.dto.InventoryDeltaRequest;
+import com.example.inventory_service.dto.InventoryPageResponse;
 import com.example.inventory_service.dto.InventoryResponse;
 import com.example.inventory_service.dto.InventoryUpdateRequest;
 import com.example.inventory_service.dto.ProductoDto;
 import com.example.inventory_service.model.Inventory;
 import com.example.inventory_service.repository.InventoryRepository;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.mockito.*;
 
+import org.springframework.data.domain.Limit;
+
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.LongStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -24,14 +41,35 @@ class InventoryServiceImplTest {
     @Mock
     private ProductClient productClient;
 
+    @Mock
+    private InventoryBulkWriter inventoryBulkWriter;
+
+    private StockWriteBuffer stockWriteBuffer;
+
+    private StockLedger stockLedger;
+
+    private ProductCache productCache;
+
     @InjectMocks
     private InventoryServiceImpl inventoryService;
 
+    private final ExecutorService executor = Executors.newFixedThreadPool(2);
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
     @BeforeEach
     void setUp() {
         inventoryRepository = mock(InventoryRepository.class);
         productClient = mock(ProductClient.class);
-        inventoryService = new InventoryServiceImpl(inventoryRepository, productClient);
+        productCache = new ProductCache(productClient, guard(), new ObjectMapper(), new SimpleMeterRegistry(), 100, Duration.ofMinutes(1), Duration.ofSeconds(30));
+        InventoryEnricher enricher = new InventoryEnricher(productCache, executor, 2, Duration.ofSeconds(5));
+        inventoryBulkWriter = mock(InventoryBulkWriter.class);
+        stockWriteBuffer = new StockWriteBuffer(inventoryBulkWriter, false, StockWriteBuffer.Durability.ASYNC, 100, Duration.ofSeconds(1));
+        stockLedger = new StockLedger(inventoryRepository, stockWriteBuffer);
+        inventoryService = new InventoryServiceImpl(inventoryRepository, productCache, enricher, inventoryBulkWriter, stockWriteBuffer, stockLedger);
     }
 
     @Test
@@ -53,18 +91,19 @@ class InventoryServiceImplTest {
     @Test
     void testUpdateStock_whenInventoryExists_shouldUpdateStock() {
         Long productId = 1L;
-        Inventory inventory = new Inventory(1L, productId, 10);
         ProductoDto producto = new ProductoDto(productId, "Product Updated", 9.99);
         InventoryUpdateRequest request = new InventoryUpdateRequest();
         request.setCantidad(50);
 
-        when(inventoryRepository.findByProductoId(productId)).thenReturn(Optional.of(inventory));
         when(productClient.getProductoById(productId)).thenReturn(producto);
 
         InventoryResponse response = inventoryService.updateStock(productId, request);
 
         assertEquals(50, response.getCantidad());
         assertEquals("Product Updated", response.getProductoNombre());
+        verify(inventoryRepository).upsertCantidad(productId, 50);
+        verify(inventoryRepository, never()).findByProductoId(anyLong());
+        verify(inventoryRepository, never()).save(any());
     }
 
     @Test
@@ -74,13 +113,13 @@ class InventoryServiceImplTest {
         InventoryUpdateRequest request = new InventoryUpdateRequest();
         request.setCantidad(100);
 
-        when(inventoryRepository.findByProductoId(productId)).thenReturn(Optional.empty());
         when(productClient.getProductoById(productId)).thenReturn(producto);
 
         InventoryResponse response = inventoryService.updateStock(productId, request);
 
         assertEquals(100, response.getCantidad());
         assertEquals("Nuevo Producto", response.getProductoNombre());
+        verify(inventoryRepository).upsertCantidad(productId, 100);
     }
 
     @Test
@@ -105,14 +144,6 @@ class InventoryServiceImplTest {
         producto.setNombre("Producto 1");
 
         when(productClient.getProductoById(productId)).thenReturn(producto);
-        when(inventoryRepository.findByProductoId(productId)).thenReturn(Optional.empty());
-
-        Inventory savedInventory = Inventory.builder()
-                .productoId(productId)
-                .cantidad(request.getCantidad())
-                .build();
-
-        when(inventoryRepository.save(any())).thenReturn(savedInventory);
 
         InventoryResponse response = inventoryService.updateStock(productId, request);
 
@@ -120,6 +151,7 @@ class InventoryServiceImplTest {
         assertEquals(productId, response.getProductoId());
         assertEquals("Producto 1", response.getProductoNombre());
         assertEquals(20, response.getCantidad());
+        verify(inventoryRepository).upsertCantidad(productId, 20);
     }
     @Test
     void testUpdateStock_shouldUpdateExistingInventory() {
@@ -131,28 +163,14 @@ class InventoryServiceImplTest {
         producto.setId(productId);
         producto.setNombre("Producto Existente");
 
-        Inventory existingInventory = Inventory.builder()
-                .id(1L)
-                .productoId(productId)
-                .cantidad(10)
-                .build();
-
         when(productClient.getProductoById(productId)).thenReturn(producto);
-        when(inventoryRepository.findByProductoId(productId)).thenReturn(Optional.of(existingInventory));
-
-        Inventory updatedInventory = Inventory.builder()
-                .id(1L)
-                .productoId(productId)
-                .cantidad(30)
-                .build();
-
-        when(inventoryRepository.save(any())).thenReturn(updatedInventory);
 
         InventoryResponse response = inventoryService.updateStock(productId, request);
 
         assertNotNull(response);
         assertEquals(30, response.getCantidad());
         assertEquals("Producto Existente", response.getProductoNombre());
+        verify(inventoryRepository).upsertCantidad(productId, 30);
     }
     @Test
     void testUpdateStock_whenProductNotFound_shouldThrowException() {
@@ -207,13 +225,33 @@ class InventoryServiceImplTest {
         producto.setNombre("Producto A");
 
         when(inventoryRepository.findAll()).thenReturn(List.of(inventory));
-        when(productClient.getProductoById(1L)).thenReturn(producto);
+        when(productClient.getProductosByIds(List.of(1L))).thenReturn(List.of(producto));
 
         List<InventoryResponse> result = inventoryService.getAllInventory();
 
         assertEquals(1, result.size());
         assertEquals("Producto A", result.get(0).getProductoNombre());
         assertEquals(50, result.get(0).getCantidad());
+        verify(productClient, never()).getProductoById(anyLong());
+    }
+    @Test
+    void testGetAllInventory_shouldQueryProductsInChunks() {
+        int total = InventoryEnricher.PRODUCT_BATCH_SIZE * 2 + 1;
+        List<Inventory> inventories = LongStream.rangeClosed(1, total)
+                .mapToObj(id -> new Inventory(id, id, 1))
+                .toList();
+
+        when(inventoryRepository.findAll()).thenReturn(inventories);
+        when(productClient.getProductosByIds(anyList())).thenAnswer(invocation -> {
+            List<Long> ids = invocation.getArgument(0);
+            return ids.stream().map(id -> new ProductoDto(id, "Producto " + id, 1.0)).toList();
+        });
+
+        List<InventoryResponse> result = inventoryService.getAllInventory();
+
+        assertEquals(total, result.size());
+        assertEquals("Producto " + total, result.get(total - 1).getProductoNombre());
+        verify(productClient, times(3)).getProductosByIds(anyList());
     }
     @Test
     void testUpdateStock_shouldThrowExceptionWhenProductIdInvalid() {
@@ -249,4 +287,249 @@ class InventoryServiceImplTest {
         assertEquals("La cantidad proporcionada no es válida", ex3.getMessage());
     }
 
+    @Test
+    void testGetInventoryPage_shouldReturnNextCursorWhenPageIsFull() {
+        List<Inventory> rows = List.of(new Inventory(11L, 1L, 5), new Inventory(12L, 2L, 7));
+        when(inventoryRepository.findByIdGreaterThanOrderByIdAsc(10L, Limit.of(2))).thenReturn(rows);
+        when(productClient.getProductosByIds(anyList())).thenReturn(List.of(
+                new ProductoDto(1L, "Producto A", 1.0),
+                new ProductoDto(2L, "Producto B", 2.0)));
+
+        InventoryPageResponse page = inventoryService.getInventoryPage(10L, 2);
+
+        assertEquals(2, page.getItems().size());
+        assertEquals("Producto B", page.getItems().get(1).getProductoNombre());
+        assertEquals(12L, page.getNextCursor());
+    }
+
+    @Test
+    void testGetInventoryPage_shouldReturnNullCursorOnLastPage() {
+        when(inventoryRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(10)))
+                .thenReturn(List.of(new Inventory(1L, 1L, 5)));
+        when(productClient.getProductosByIds(anyList())).thenReturn(List.of(new ProductoDto(1L, "Producto A", 1.0)));
+
+        InventoryPageResponse page = inventoryService.getInventoryPage(null, 10);
+
+        assertEquals(1, page.getItems().size());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void testGetInventoryPage_shouldRejectInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> inventoryService.getInventoryPage(-1L, 10));
+        assertThrows(IllegalArgumentException.class, () -> inventoryService.getInventoryPage(null, 0));
+        assertThrows(IllegalArgumentException.class,
+                () -> inventoryService.getInventoryPage(null, InventoryServiceImpl.MAX_PAGE_SIZE + 1));
+    }
+
+    @Test
+    void testStreamInventory_shouldWalkTableByCursor() {
+        int batch = InventoryServiceImpl.STREAM_BATCH_SIZE;
+        List<Inventory> firstBatch = LongStream.rangeClosed(1, batch)
+                .mapToObj(id -> new Inventory(id, id, 1))
+                .toList();
+        List<Inventory> lastBatch = List.of(new Inventory((long) batch + 1, (long) batch + 1, 1));
+
+        when(inventoryRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(batch))).thenReturn(firstBatch);
+        when(inventoryRepository.findByIdGreaterThanOrderByIdAsc((long) batch, Limit.of(batch))).thenReturn(lastBatch);
+        when(productClient.getProductosByIds(anyList())).thenReturn(List.of());
+
+        List<Integer> batchSizes = new ArrayList<>();
+        inventoryService.streamInventory(responses -> batchSizes.add(responses.size()));
+
+        assertEquals(List.of(batch, 1), batchSizes);
+        verify(inventoryRepository, never()).findAll();
+    }
+
+    @Test
+    void testIncrementStock_shouldApplyDeltaAtomically() {
+        Long productId = 7L;
+        when(productClient.getProductoById(productId)).thenReturn(new ProductoDto(productId, "Producto 7", 3.0));
+        when(inventoryRepository.incrementCantidad(productId, 5)).thenReturn(15);
+
+        InventoryResponse response = inventoryService.incrementStock(productId, new InventoryDeltaRequest(5));
+
+        assertEquals(15, response.getCantidad());
+        assertEquals("Producto 7", response.getProductoNombre());
+    }
+
+    @Test
+    void testDecrementStock_shouldReturnRemainingStock() {
+        Long productId = 7L;
+        when(inventoryRepository.findByProductoId(productId)).thenReturn(Optional.of(new Inventory(1L, productId, 10)));
+        when(productClient.getProductoById(productId)).thenReturn(new ProductoDto(productId, "Producto 7", 3.0));
+        when(inventoryRepository.decrementCantidad(productId, 4)).thenReturn(Optional.of(6));
+
+        InventoryResponse response = inventoryService.decrementStock(productId, new InventoryDeltaRequest(4));
+
+        assertEquals(6, response.getCantidad());
+    }
+
+    @Test
+    void testDecrementStock_shouldFailWhenStockIsInsufficient() {
+        Long productId = 7L;
+        when(inventoryRepository.findByProductoId(productId)).thenReturn(Optional.of(new Inventory(1L, productId, 50)));
+        when(productClient.getProductoById(productId)).thenReturn(new ProductoDto(productId, "Producto 7", 3.0));
+        when(inventoryRepository.decrementCantidad(productId, 40)).thenReturn(Optional.empty());
+
+        RuntimeException ex = assertThrows(RuntimeException.class,
+                () -> inventoryService.decrementStock(productId, new InventoryDeltaRequest(40)));
+
+        assertEquals("Stock insuficiente o producto sin inventario", ex.getMessage());
+        assertEquals(50, stockLedger.available(productId));
+    }
+
+    @Test
+    void testDecrementStock_shouldNotTakeReservedStock() {
+        Long productId = 7L;
+        when(inventoryRepository.findByProductoId(productId)).thenReturn(Optional.of(new Inventory(1L, productId, 10)));
+        assertTrue(stockLedger.tryReserve(productId, 4));
+        when(productClient.getProductoById(productId)).thenReturn(new ProductoDto(productId, "Producto 7", 3.0));
+
+        assertThrows(RuntimeException.class,
+                () -> inventoryService.decrementStock(productId, new InventoryDeltaRequest(7)));
+
+        verify(inventoryRepository, never()).decrementCantidad(anyLong(), anyInt());
+        assertEquals(6, stockLedger.available(productId));
+    }
+
+    @Test
+    void testUpdateStock_shouldRejectQuantityBelowReserved() {
+        Long productId = 7L;
+        when(inventoryRepository.findByProductoId(productId)).thenReturn(Optional.of(new Inventory(1L, productId, 10)));
+        assertTrue(stockLedger.tryReserve(productId, 4));
+        when(productClient.getProductoById(productId)).thenReturn(new ProductoDto(productId, "Producto 7", 3.0));
+
+        RuntimeException ex = assertThrows(RuntimeException.class,
+                () -> inventoryService.updateStock(productId, new InventoryUpdateRequest(3)));
+
+        assertEquals("La cantidad no puede ser menor que el stock reservado", ex.getMessage());
+        verify(inventoryRepository, never()).upsertCantidad(anyLong(), anyInt());
+        assertEquals(6, stockLedger.available(productId));
+    }
+
+    @Test
+    void testUpdateStock_whenWriteFails_shouldReloadLedgerFromDatabase() {
+        Long productId = 7L;
+        when(inventoryRepository.findByProductoId(productId)).thenReturn(Optional.of(new Inventory(1L, productId, 10)));
+        assertTrue(stockLedger.tryReserve(productId, 4));
+        when(productClient.getProductoById(productId)).thenReturn(new ProductoDto(productId, "Producto 7", 3.0));
+        doThrow(new RuntimeException("timeout")).when(inventoryRepository).upsertCantidad(productId, 30);
+
+        assertThrows(RuntimeException.class,
+                () -> inventoryService.updateStock(productId, new InventoryUpdateRequest(30)));
+
+        assertEquals(6, stockLedger.available(productId));
+    }
+
+    @Test
+    void testDeltaOperations_shouldRejectInvalidRequests() {
+        assertThrows(IllegalArgumentException.class, () -> inventoryService.incrementStock(0L, new InventoryDeltaRequest(1)));
+        assertThrows(IllegalArgumentException.class, () -> inventoryService.incrementStock(1L, new InventoryDeltaRequest(0)));
+        assertThrows(IllegalArgumentException.class, () -> inventoryService.decrementStock(1L, null));
+        verifyNoInteractions(inventoryRepository);
+    }
+
+    @Test
+    void testBulkUpdateStock_shouldSkipUnknownProductsAndKeepLastValue() {
+        when(productClient.getProductosByIds(anyList())).thenReturn(List.of(
+                new ProductoDto(1L, "Producto 1", 1.0),
+                new ProductoDto(2L, "Producto 2", 1.0)));
+
+        InventoryBulkResponse response = inventoryService.bulkUpdateStock(List.of(
+                new InventoryBulkItem(1L, 10),
+                new InventoryBulkItem(2L, 20),
+                new InventoryBulkItem(3L, 30),
+                new InventoryBulkItem(1L, 15)));
+
+        assertEquals(2, response.getProcesados());
+        assertEquals(List.of(3L), response.getProductosNoEncontrados());
+        assertEquals(List.of(), response.getProductosRechazados());
+        verify(inventoryBulkWriter).write(Map.of(1L, 15, 2L, 20));
+        verify(productClient, times(1)).getProductosByIds(anyList());
+    }
+
+    @Test
+    void testBulkUpdateStock_shouldRejectQuantitiesBelowReserved() {
+        when(inventoryRepository.findByProductoId(1L)).thenReturn(Optional.of(new Inventory(1L, 1L, 10)));
+        assertTrue(stockLedger.tryReserve(1L, 4));
+        when(productClient.getProductosByIds(anyList())).thenReturn(List.of(
+                new ProductoDto(1L, "Producto 1", 1.0),
+                new ProductoDto(2L, "Producto 2", 1.0)));
+
+        InventoryBulkResponse response = inventoryService.bulkUpdateStock(List.of(
+                new InventoryBulkItem(1L, 2),
+                new InventoryBulkItem(2L, 20)));
+
+        assertEquals(1, response.getProcesados());
+        assertEquals(List.of(1L), response.getProductosRechazados());
+        verify(inventoryBulkWriter).write(Map.of(2L, 20));
+        assertEquals(6, stockLedger.available(1L));
+        assertEquals(20, stockLedger.available(2L));
+        verify(inventoryRepository, never()).findByProductoId(2L);
+    }
+
+    @Test
+    void testBulkUpdateStock_shouldRejectInvalidPayloads() {
+        assertThrows(IllegalArgumentException.class, () -> inventoryService.bulkUpdateStock(null));
+        assertThrows(IllegalArgumentException.class, () -> inventoryService.bulkUpdateStock(List.of()));
+        assertThrows(IllegalArgumentException.class,
+                () -> inventoryService.bulkUpdateStock(List.of(new InventoryBulkItem(1L, -1))));
+        verifyNoInteractions(inventoryBulkWriter);
+    }
+
+    @Test
+    void testUpdateStock_withWriteBehind_shouldBufferAndServeBufferedValue() {
+        StockWriteBuffer buffer = new StockWriteBuffer(inventoryBulkWriter, true, StockWriteBuffer.Durability.ASYNC, 100, Duration.ofSeconds(1));
+        ProductCache productCache = new ProductCache(productClient, guard(), new ObjectMapper(), new SimpleMeterRegistry(), 100, Duration.ofMinutes(1), Duration.ofSeconds(30));
+        InventoryEnricher enricher = new InventoryEnricher(productCache, executor, 1, Duration.ofSeconds(5));
+        InventoryServiceImpl service = new InventoryServiceImpl(inventoryRepository, productCache, enricher, inventoryBulkWriter, buffer, stockLedger);
+        Long productId = 8L;
+        when(productClient.getProductoById(productId)).thenReturn(new ProductoDto(productId, "Producto 8", 1.0));
+
+        service.updateStock(productId, new InventoryUpdateRequest(30));
+        service.updateStock(productId, new InventoryUpdateRequest(35));
+
+        assertEquals(35, service.getByProductId(productId).getCantidad());
+        verify(inventoryRepository, never()).upsertCantidad(anyLong(), anyInt());
+        verify(inventoryRepository, never()).findByProductoId(anyLong());
+
+        buffer.flush();
+
+        verify(inventoryBulkWriter, times(1)).write(Map.of(productId, 35));
+    }
+
+    @Test
+    void testIncrementStock_shouldRefreshReservationLedger() {
+        Long productId = 9L;
+        when(inventoryRepository.findByProductoId(productId)).thenReturn(Optional.of(new Inventory(1L, productId, 10)));
+        assertTrue(stockLedger.tryReserve(productId, 4));
+        when(productClient.getProductoById(productId)).thenReturn(new ProductoDto(productId, "Producto 9", 1.0));
+        when(inventoryRepository.incrementCantidad(productId, 5)).thenReturn(15);
+
+        inventoryService.incrementStock(productId, new InventoryDeltaRequest(5));
+
+        assertEquals(11, stockLedger.available(productId));
+    }
+
+    @Test
+    void testGetByProductId_whenProductServiceFails_shouldUseLastKnownName() {
+        Long productId = 10L;
+        when(inventoryRepository.findByProductoId(productId)).thenReturn(Optional.of(new Inventory(1L, productId, 4)));
+        when(productClient.getProductosByIds(anyList())).thenReturn(List.of(new ProductoDto(productId, "Producto 10", 1.0)));
+        when(productClient.getProductoById(productId)).thenThrow(new RuntimeException("product-service caído"));
+
+        // Carga por lote (p. ej. un listado) y luego expira o se invalida la entrada
+        inventoryService.bulkUpdateStock(List.of(new InventoryBulkItem(productId, 4)));
+        productCache.invalidate(productId);
+
+        InventoryResponse response = inventoryService.getByProductId(productId);
+
+        assertEquals("Producto 10", response.getProductoNombre());
+        assertEquals(4, response.getCantidad());
+    }
+
+    private static ProductClientGuard guard() {
+        return new ProductClientGuard(new SimpleMeterRegistry(), 20, 50f, Duration.ofSeconds(2), 100, 100, Duration.ofSeconds(10));
+    }
 }
@@ -0,0 +1,142 @@
+package com.example.inventory_service.service;
+
+import com.example.inventory_service.client.ProductCache;
+import com.example.inventory_service.client.ProductClient;
+import com.example.inventory_service.client.ProductClientGuard;
+import com.example.inventory_service.client.ReactiveProductClient;
+import com.example.inventory_service.dto.InventoryResponse;
+import com.example.inventory_service.dto.ProductoDto;
+import com.example.inventory_service.model.Inventory;
+import com.example.inventory_service.repository.ReactiveInventoryRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.invocation.InvocationOnMock;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+class ReactiveInventoryServiceImplTest {
+
+    private ReactiveInventoryRepository inventoryRepository;
+    private ReactiveProductClient productClient;
+    private ProductCache productCache;
+    private ReactiveInventoryServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        inventoryRepository = mock(ReactiveInventoryRepository.class);
+        productClient = mock(ReactiveProductClient.class);
+        productCache = new ProductCache(mock(ProductClient.class),
+                new ProductClientGuard(new SimpleMeterRegistry(), 20, 50f, Duration.ofSeconds(2), 100, 100, Duration.ofSeconds(10)),
+                new ObjectMapper(), new SimpleMeterRegistry(), 1000, Duration.ofMinutes(1), Duration.ofSeconds(30));
+        StockWriteBuffer stockWriteBuffer = new StockWriteBuffer(mock(InventoryBulkWriter.class), false,
+                StockWriteBuffer.Durability.ASYNC, 100, Duration.ofSeconds(1));
+        service = new ReactiveInventoryServiceImpl(inventoryRepository, productClient, productCache, stockWriteBuffer,
+                2, Duration.ofSeconds(5));
+    }
+
+    @Test
+    void getByProductId_shouldCombineRowAndProduct_andCacheProduct() {
+        when(inventoryRepository.findCantidadByProductoId(1L)).thenReturn(Mono.just(20));
+        when(productClient.getProductoById(1L)).thenReturn(Mono.just(new ProductoDto(1L, "Teclado", 10.0)));
+
+        StepVerifier.create(service.getByProductId(1L))
+                .assertNext(response -> {
+                    assertEquals(1L, response.getProductoId());
+                    assertEquals("Teclado", response.getProductoNombre());
+                    assertEquals(20, response.getCantidad());
+                })
+                .verifyComplete();
+        StepVerifier.create(service.getByProductId(1L)).expectNextCount(1).verifyComplete();
+
+        verify(productClient, times(1)).getProductoById(1L);
+    }
+
+    @Test
+    void getByProductId_shouldUseLastKnownProduct_whenProductServiceFails() {
+        productCache.put(new ProductoDto(1L, "Teclado", 10.0));
+        productCache.invalidate(1L);
+        when(inventoryRepository.findCantidadByProductoId(1L)).thenReturn(Mono.just(5));
+        when(productClient.getProductoById(1L)).thenReturn(Mono.error(new RuntimeException("connection refused")));
+
+        StepVerifier.create(service.getByProductId(1L))
+                .assertNext(response -> assertEquals("Teclado", response.getProductoNombre()))
+                .verifyComplete();
+    }
+
+    @Test
+    void getByProductId_shouldFail_whenInventoryDoesNotExist() {
+        when(inventoryRepository.findCantidadByProductoId(9L)).thenReturn(Mono.empty());
+        when(productClient.getProductoById(9L)).thenReturn(Mono.just(new ProductoDto(9L, "Mouse", 5.0)));
+
+        StepVerifier.create(service.getByProductId(9L))
+                .expectErrorMatches(e -> e.getMessage().contains("Producto no encontrado en inventario"))
+                .verify();
+    }
+
+    @Test
+    void getInventoryPage_shouldRequestOnlyUncachedProducts_andReturnCursor() {
+        productCache.put(new ProductoDto(1L, "Cacheado", 1.0));
+        when(inventoryRepository.findByIdGreaterThan(0L, 3)).thenReturn(Flux.just(
+                new Inventory(10L, 1L, 1), new Inventory(11L, 2L, 2), new Inventory(12L, 3L, 3)));
+        when(productClient.getProductosByIds(anyCollection())).thenAnswer(ReactiveInventoryServiceImplTest::productos);
+
+        StepVerifier.create(service.getInventoryPage(null, 3))
+                .assertNext(page -> {
+                    assertEquals(List.of(1L, 2L, 3L), page.getItems().stream().map(InventoryResponse::getProductoId).toList());
+                    assertEquals("Cacheado", page.getItems().get(0).getProductoNombre());
+                    assertEquals(12L, page.getNextCursor());
+                })
+                .verifyComplete();
+
+        verify(productClient).getProductosByIds(List.of(2L, 3L));
+    }
+
+    @Test
+    void getInventoryPage_shouldRejectInvalidSize() {
+        StepVerifier.create(service.getInventoryPage(null, InventoryServiceImpl.MAX_PAGE_SIZE + 1))
+                .expectError(IllegalArgumentException.class)
+                .verify();
+        verifyNoInteractions(inventoryRepository);
+    }
+
+    @Test
+    void streamInventory_shouldFollowCursorAcrossPages_inOrder() {
+        int batch = InventoryServiceImpl.STREAM_BATCH_SIZE;
+        when(inventoryRepository.findByIdGreaterThan(anyLong(), eq(batch))).thenAnswer(invocation -> {
+            long after = invocation.getArgument(0);
+            long last = Math.min(after + batch, batch + 1L);
+            return Flux.fromStream(LongStream.rangeClosed(after + 1, last).mapToObj(id -> new Inventory(id, id, 1)));
+        });
+        when(productClient.getProductosByIds(anyCollection())).thenAnswer(ReactiveInventoryServiceImplTest::productos);
+
+        List<InventoryResponse> responses = service.streamInventory().collectList().block();
+
+        assertNotNull(responses);
+        assertEquals(batch + 1, responses.size());
+        assertEquals(LongStream.rangeClosed(1, batch + 1).boxed().toList(),
+                responses.stream().map(InventoryResponse::getProductoId).toList());
+        assertEquals("Producto " + (batch + 1), responses.get(batch).getProductoNombre());
+        verify(inventoryRepository).findByIdGreaterThan(0L, batch);
+        verify(inventoryRepository).findByIdGreaterThan((long) batch, batch);
+        verify(inventoryRepository, never()).findByIdGreaterThan(eq(batch + 1L), anyInt());
+    }
+
+    private static Mono<List<ProductoDto>> productos(InvocationOnMock invocation) {
+        Collection<Long> ids = invocation.getArgument(0);
+        return Mono.just(ids.stream().map(id -> new ProductoDto(id, "Producto " + id, 1.0)).toList());
+    }
+}
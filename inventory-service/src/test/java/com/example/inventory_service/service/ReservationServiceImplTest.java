@@ -0,0 +1,159 @@
+package com.example.inventory_service.service;
+
+import com.example.inventory_service.dto.ReservationRequest;
+import com.example.inventory_service.dto.ReservationResponse;
+import com.example.inventory_service.model.Inventory;
+import com.example.inventory_service.model.Reservation;
+import com.example.inventory_service.model.ReservationStatus;
+import com.example.inventory_service.repository.InventoryRepository;
+import com.example.inventory_service.repository.ReservationRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ReservationServiceImplTest {
+
+    private InventoryRepository inventoryRepository;
+    private ReservationRepository reservationRepository;
+    private ReservationJournal reservationJournal;
+    private StockWriteBuffer stockWriteBuffer;
+    private StockLedger stockLedger;
+    private ReservationServiceImpl reservationService;
+
+    @BeforeEach
+    void setUp() {
+        inventoryRepository = mock(InventoryRepository.class);
+        reservationRepository = mock(ReservationRepository.class);
+        reservationJournal = mock(ReservationJournal.class);
+        stockWriteBuffer = mock(StockWriteBuffer.class);
+        stockLedger = new StockLedger(inventoryRepository, stockWriteBuffer);
+        reservationService = new ReservationServiceImpl(stockLedger, reservationJournal, reservationRepository,
+                inventoryRepository, stockWriteBuffer, Duration.ofMinutes(10), Duration.ofHours(1), 100, 64);
+
+        when(inventoryRepository.findByProductoId(1L)).thenReturn(Optional.of(new Inventory(1L, 1L, 10)));
+    }
+
+    @AfterEach
+    void tearDown() {
+        reservationService.stop();
+    }
+
+    @Test
+    void reserve_shouldHoldStockAndJournalActiveReservation() {
+        ReservationResponse response = reservationService.reserve(new ReservationRequest(1L, 4, 60));
+
+        assertNotNull(response.getId());
+        assertEquals(ReservationStatus.ACTIVA, response.getEstado());
+        assertEquals(6, stockLedger.available(1L));
+        verify(reservationJournal).record(argThat(r -> r.getEstado() == ReservationStatus.ACTIVA));
+        verify(inventoryRepository, never()).decrementCantidad(anyLong(), anyInt());
+    }
+
+    @Test
+    void reserve_shouldFailWhenStockIsInsufficient() {
+        reservationService.reserve(new ReservationRequest(1L, 8, null));
+
+        RuntimeException ex = assertThrows(RuntimeException.class,
+                () -> reservationService.reserve(new ReservationRequest(1L, 3, null)));
+
+        assertEquals("Stock insuficiente para reservar", ex.getMessage());
+    }
+
+    @Test
+    void reserve_shouldRejectInvalidRequests() {
+        assertThrows(IllegalArgumentException.class, () -> reservationService.reserve(null));
+        assertThrows(IllegalArgumentException.class, () -> reservationService.reserve(new ReservationRequest(1L, 0, null)));
+        assertThrows(IllegalArgumentException.class, () -> reservationService.reserve(new ReservationRequest(1L, 1, 7200)));
+        verifyNoInteractions(reservationJournal);
+    }
+
+    @Test
+    void confirm_shouldDecrementStockInDatabase() {
+        String id = reservationService.reserve(new ReservationRequest(1L, 4, null)).getId();
+        when(inventoryRepository.decrementCantidad(1L, 4)).thenReturn(Optional.of(6));
+
+        ReservationResponse response = reservationService.confirm(id);
+
+        assertEquals(ReservationStatus.CONFIRMADA, response.getEstado());
+        assertEquals(6, stockLedger.available(1L));
+        verify(stockWriteBuffer).drain(1L);
+        assertThrows(RuntimeException.class, () -> reservationService.confirm(id));
+    }
+
+    @Test
+    void confirm_shouldReleaseHoldWhenDatabaseStockIsInsufficient() {
+        String id = reservationService.reserve(new ReservationRequest(1L, 4, null)).getId();
+        when(inventoryRepository.decrementCantidad(1L, 4)).thenReturn(Optional.empty());
+
+        assertThrows(RuntimeException.class, () -> reservationService.confirm(id));
+
+        assertEquals(10, stockLedger.available(1L));
+    }
+
+    @Test
+    void confirm_shouldKeepReservationActiveWhenDatabaseFails() {
+        String id = reservationService.reserve(new ReservationRequest(1L, 4, null)).getId();
+        when(inventoryRepository.decrementCantidad(1L, 4))
+                .thenThrow(new RuntimeException("timeout"))
+                .thenReturn(Optional.of(6));
+
+        RuntimeException ex = assertThrows(RuntimeException.class, () -> reservationService.confirm(id));
+
+        assertEquals("Error al confirmar la reserva: timeout", ex.getMessage());
+        assertEquals(6, stockLedger.available(1L));
+        verify(reservationJournal, never()).record(argThat(r -> r.getEstado() != ReservationStatus.ACTIVA));
+        assertEquals(ReservationStatus.CONFIRMADA, reservationService.confirm(id).getEstado());
+        assertEquals(6, stockLedger.available(1L));
+    }
+
+    @Test
+    void release_shouldReturnStockAndFinishReservation() {
+        String id = reservationService.reserve(new ReservationRequest(1L, 4, null)).getId();
+
+        assertEquals(ReservationStatus.LIBERADA, reservationService.release(id).getEstado());
+
+        assertEquals(10, stockLedger.available(1L));
+        RuntimeException ex = assertThrows(RuntimeException.class, () -> reservationService.release(id));
+        assertEquals("Reserva no encontrada o ya finalizada", ex.getMessage());
+    }
+
+    @Test
+    void expire_shouldReleaseOnlyActiveReservations() {
+        String id = reservationService.reserve(new ReservationRequest(1L, 4, null)).getId();
+
+        reservationService.expire(id);
+        reservationService.expire(id);
+
+        assertEquals(10, stockLedger.available(1L));
+        verify(reservationJournal, times(1)).record(argThat(r -> r.getEstado() == ReservationStatus.EXPIRADA));
+        assertThrows(RuntimeException.class, () -> reservationService.confirm(id));
+    }
+
+    @Test
+    void recover_shouldRestoreActiveReservationsAndExpireStaleOnes() {
+        Instant now = Instant.now();
+        Reservation vigente = Reservation.builder().id("vigente").productoId(1L).cantidad(3)
+                .estado(ReservationStatus.ACTIVA).expiraEn(now.plusSeconds(300)).build();
+        Reservation vencida = Reservation.builder().id("vencida").productoId(1L).cantidad(5)
+                .estado(ReservationStatus.ACTIVA).expiraEn(now.minusSeconds(1)).build();
+        when(reservationRepository.findByEstado(ReservationStatus.ACTIVA)).thenReturn(List.of(vigente, vencida));
+
+        reservationService.recover();
+
+        assertEquals(7, stockLedger.available(1L));
+        ArgumentCaptor<Reservation> captor = ArgumentCaptor.forClass(Reservation.class);
+        verify(reservationJournal).record(captor.capture());
+        assertEquals("vencida", captor.getValue().getId());
+        assertEquals(ReservationStatus.EXPIRADA, captor.getValue().getEstado());
+        assertEquals(ReservationStatus.LIBERADA, reservationService.release("vigente").getEstado());
+    }
+}
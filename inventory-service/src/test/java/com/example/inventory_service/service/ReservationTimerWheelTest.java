@@ -0,0 +1,62 @@
+package com.example.inventory_service.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReservationTimerWheelTest {
+
+    private final List<String> expired = new ArrayList<>();
+
+    @Test
+    void advance_shouldFireOnlyWhenDeadlineIsReached() {
+        ReservationTimerWheel wheel = new ReservationTimerWheel(100, 8, expired::add);
+
+        wheel.schedule("a", 250);
+        wheel.schedule("b", 100);
+
+        wheel.advance();
+        assertEquals(List.of("b"), expired);
+
+        wheel.advance();
+        assertEquals(List.of("b"), expired);
+
+        wheel.advance();
+        assertEquals(List.of("b", "a"), expired);
+    }
+
+    @Test
+    void advance_shouldHandleDelaysLongerThanOneTurn() {
+        ReservationTimerWheel wheel = new ReservationTimerWheel(100, 4, expired::add);
+
+        // 10 ticks en una rueda de 4 casillas: pasa dos veces por su casilla antes de vencer
+        wheel.schedule("largo", 1_000);
+
+        for (int i = 0; i < 9; i++) {
+            wheel.advance();
+        }
+        assertTrue(expired.isEmpty());
+
+        wheel.advance();
+        assertEquals(List.of("largo"), expired);
+    }
+
+    @Test
+    void advance_shouldKeepRunningWhenCallbackFails() {
+        ReservationTimerWheel wheel = new ReservationTimerWheel(100, 8, id -> {
+            if (id.equals("falla")) {
+                throw new RuntimeException("error");
+            }
+            expired.add(id);
+        });
+
+        wheel.schedule("falla", 100);
+        wheel.schedule("ok", 100);
+        wheel.advance();
+
+        assertEquals(List.of("ok"), expired);
+    }
+}
@@ -0,0 +1,150 @@
+package com.example.inventory_service.service;
+
+import com.example.inventory_service.model.Inventory;
+import com.example.inventory_service.repository.InventoryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class StockLedgerTest {
+
+    private InventoryRepository inventoryRepository;
+    private StockWriteBuffer stockWriteBuffer;
+    private StockLedger ledger;
+
+    @BeforeEach
+    void setUp() {
+        inventoryRepository = mock(InventoryRepository.class);
+        stockWriteBuffer = mock(StockWriteBuffer.class);
+        ledger = new StockLedger(inventoryRepository, stockWriteBuffer);
+    }
+
+    @Test
+    void tryReserve_shouldRejectWhenAvailableIsNotEnough() {
+        when(inventoryRepository.findByProductoId(1L)).thenReturn(Optional.of(new Inventory(1L, 1L, 5)));
+
+        assertTrue(ledger.tryReserve(1L, 3));
+        assertFalse(ledger.tryReserve(1L, 3));
+        assertEquals(2, ledger.available(1L));
+        verify(inventoryRepository, times(1)).findByProductoId(1L);
+    }
+
+    @Test
+    void tryReserve_shouldTreatMissingInventoryAsZeroStock() {
+        when(inventoryRepository.findByProductoId(2L)).thenReturn(Optional.empty());
+
+        assertFalse(ledger.tryReserve(2L, 1));
+    }
+
+    @Test
+    void releaseAndConfirm_shouldUpdateReservedAndOnHand() {
+        when(inventoryRepository.findByProductoId(1L)).thenReturn(Optional.of(new Inventory(1L, 1L, 10)));
+        ledger.tryReserve(1L, 4);
+        ledger.tryReserve(1L, 3);
+
+        ledger.release(1L, 4);
+        assertEquals(7, ledger.available(1L));
+
+        ledger.confirm(1L, 3);
+        assertEquals(7, ledger.available(1L));
+    }
+
+    @Test
+    void load_shouldPreferValuePendingInWriteBuffer() {
+        when(inventoryRepository.findByProductoId(1L)).thenReturn(Optional.of(new Inventory(1L, 1L, 10)));
+        when(stockWriteBuffer.peek(1L)).thenReturn(25);
+
+        assertEquals(25, ledger.available(1L));
+        verify(inventoryRepository, never()).findByProductoId(1L);
+    }
+
+    @Test
+    void trySetOnHand_shouldRejectValuesBelowReserved() {
+        when(inventoryRepository.findByProductoId(1L)).thenReturn(Optional.of(new Inventory(1L, 1L, 10)));
+        ledger.tryReserve(1L, 4);
+
+        assertFalse(ledger.trySetOnHand(1L, 3));
+        assertTrue(ledger.trySetOnHand(1L, 20));
+        assertEquals(16, ledger.available(1L));
+    }
+
+    @Test
+    void trySetOnHand_shouldUseNewValueForUnloadedProducts() {
+        assertTrue(ledger.trySetOnHand(99L, 5));
+
+        assertEquals(5, ledger.available(99L));
+        verify(inventoryRepository, never()).findByProductoId(99L);
+    }
+
+    @Test
+    void tryRemove_shouldKeepReservedStock() {
+        when(inventoryRepository.findByProductoId(1L)).thenReturn(Optional.of(new Inventory(1L, 1L, 10)));
+        ledger.tryReserve(1L, 4);
+
+        assertFalse(ledger.tryRemove(1L, 7));
+        assertTrue(ledger.tryRemove(1L, 6));
+        assertEquals(0, ledger.available(1L));
+
+        ledger.addOnHand(1L, 6);
+        assertEquals(6, ledger.available(1L));
+    }
+
+    @Test
+    void reload_shouldReadOnHandAgainAndKeepReserved() {
+        when(inventoryRepository.findByProductoId(1L)).thenReturn(Optional.of(new Inventory(1L, 1L, 10)));
+        ledger.tryReserve(1L, 4);
+        ledger.trySetOnHand(1L, 30);
+
+        ledger.reload(1L);
+
+        assertEquals(6, ledger.available(1L));
+    }
+
+    @Test
+    void tryReserve_underContention_shouldNeverOversell() throws Exception {
+        when(inventoryRepository.findByProductoId(1L)).thenReturn(Optional.of(new Inventory(1L, 1L, 100)));
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            Callable<Boolean> reserve = () -> {
+                start.await();
+                return ledger.tryReserve(1L, 1);
+            };
+            for (int i = 0; i < 500; i++) {
+                results.add(pool.submit(reserve));
+            }
+            start.countDown();
+
+            int granted = 0;
+            for (Future<Boolean> result : results) {
+                if (result.get()) {
+                    granted++;
+                }
+            }
+            assertEquals(100, granted);
+            assertEquals(0, ledger.available(1L));
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void pack_shouldRoundTripBothHalves() {
+        long packed = StockLedger.pack(123_456, 789);
+
+        assertEquals(123_456, StockLedger.onHand(packed));
+        assertEquals(789, StockLedger.reserved(packed));
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.inventory_service.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class StockWriteBufferTest {
+
+    private InventoryBulkWriter writer;
+
+    @BeforeEach
+    void setUp() {
+        writer = mock(InventoryBulkWriter.class);
+    }
+
+    private StockWriteBuffer buffer(StockWriteBuffer.Durability durability, int maxPending) {
+        return new StockWriteBuffer(writer, true, durability, maxPending, Duration.ofSeconds(2));
+    }
+
+    @Test
+    void write_shouldCoalesceConsecutiveUpdatesOfSameProduct() {
+        StockWriteBuffer buffer = buffer(StockWriteBuffer.Durability.ASYNC, 100);
+
+        buffer.write(1L, 10);
+        buffer.write(1L, 11);
+        buffer.write(2L, 5);
+        buffer.write(1L, 12);
+
+        assertEquals(12, buffer.peek(1L));
+        buffer.flush();
+
+        verify(writer, times(1)).write(Map.of(1L, 12, 2L, 5));
+        assertNull(buffer.peek(1L));
+    }
+
+    @Test
+    void flush_shouldDoNothingWhenEmpty() {
+        buffer(StockWriteBuffer.Durability.ASYNC, 100).flush();
+
+        verifyNoInteractions(writer);
+    }
+
+    @Test
+    void flush_shouldRetryFailedWritesInAsyncMode() {
+        StockWriteBuffer buffer = buffer(StockWriteBuffer.Durability.ASYNC, 100);
+        doThrow(new RuntimeException("db caída")).doNothing().when(writer).write(anyMap());
+
+        buffer.write(1L, 10);
+        buffer.flush();
+
+        assertEquals(10, buffer.peek(1L));
+        buffer.flush();
+
+        verify(writer, times(2)).write(Map.of(1L, 10));
+        assertNull(buffer.peek(1L));
+    }
+
+    @Test
+    void write_shouldFlushInlineWhenBufferIsFull() {
+        StockWriteBuffer buffer = buffer(StockWriteBuffer.Durability.ASYNC, 2);
+
+        buffer.write(1L, 1);
+        buffer.write(2L, 2);
+
+        verify(writer, times(1)).write(Map.of(1L, 1, 2L, 2));
+    }
+
+    @Test
+    void write_shouldWaitForCommitInSyncMode() throws Exception {
+        StockWriteBuffer buffer = buffer(StockWriteBuffer.Durability.SYNC, 100);
+
+        CompletableFuture<Void> caller = CompletableFuture.runAsync(() -> buffer.write(1L, 7));
+        Thread.sleep(100);
+        assertFalse(caller.isDone());
+
+        buffer.flush();
+
+        caller.get(2, TimeUnit.SECONDS);
+        verify(writer).write(Map.of(1L, 7));
+    }
+
+    @Test
+    void shutdown_shouldFlushPendingWrites() {
+        StockWriteBuffer buffer = buffer(StockWriteBuffer.Durability.ASYNC, 100);
+        buffer.write(3L, 9);
+
+        buffer.shutdown();
+
+        verify(writer).write(Map.of(3L, 9));
+    }
+
+    @Test
+    void drain_shouldOnlyFlushWhenProductIsPending() {
+        StockWriteBuffer buffer = buffer(StockWriteBuffer.Durability.ASYNC, 100);
+
+        buffer.drain(1L);
+        verifyNoInteractions(writer);
+
+        buffer.write(1L, 4);
+        buffer.drain(1L);
+        verify(writer).write(Map.of(1L, 4));
+    }
+}
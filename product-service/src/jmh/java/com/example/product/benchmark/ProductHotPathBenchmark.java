@@ -0,0 +1,100 @@
+package com.example.product.benchmark;
+
+import com.example.product.dto.ProductRequest;
+import com.example.product.dto.ProductResponse;
+import com.example.product.mapper.ProductMapper;
+import com.example.product.model.Product;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+/**
+ * Rutas calientes de una solicitud en product-service, sin red ni base de datos.
+ * Con el perfil gc, {@code gc.alloc.rate.norm} indica los bytes asignados por operación.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ProductHotPathBenchmark {
+
+    @Param({"20", "100"})
+    private int pageSize;
+
+    private ProductMapper mapper;
+    private ObjectWriter writer;
+    private ValidatorFactory validatorFactory;
+    private Validator validator;
+
+    private ProductRequest request;
+    private ProductRequest invalidRequest;
+    private Product product;
+    private Page<ProductResponse> page;
+
+    @Setup
+    public void setUp() {
+        mapper = new ProductMapper();
+        // Misma configuración base que el ObjectMapper de Spring Boot
+        writer = Jackson2ObjectMapperBuilder.json().build().writer();
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        validator = validatorFactory.getValidator();
+
+        request = new ProductRequest();
+        request.setNombre("Smartphone Samsung");
+        request.setPrecio(new BigDecimal("999.99"));
+
+        invalidRequest = new ProductRequest();
+        invalidRequest.setNombre("S");
+        invalidRequest.setPrecio(new BigDecimal("-1.555"));
+
+        product = new Product(1L, "Smartphone Samsung", new BigDecimal("999.99"), 3L);
+
+        List<ProductResponse> content = LongStream.rangeClosed(1, pageSize)
+                .mapToObj(id -> new ProductResponse(id, "Producto " + id, new BigDecimal("19.99"), 0L))
+                .toList();
+        page = new PageImpl<>(content, PageRequest.of(0, pageSize), 10_000);
+    }
+
+    @TearDown
+    public void tearDown() {
+        validatorFactory.close();
+    }
+
+    @Benchmark
+    public Product toEntity() {
+        return mapper.toEntity(request);
+    }
+
+    @Benchmark
+    public ProductResponse toResponse() {
+        return mapper.toResponse(product);
+    }
+
+    @Benchmark
+    public byte[] serializePage() throws JsonProcessingException {
+        return writer.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<ProductRequest>> validateRequest() {
+        return validator.validate(request);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<ProductRequest>> validateInvalidRequest() {
+        return validator.validate(invalidRequest);
+    }
+}
@@ -0,0 +1,158 @@
+package com.example.product.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Destino de las transacciones de solo lectura: reparte las conexiones entre las réplicas en round-robin.
+ * <p>
+ * Cada réplica se revisa periódicamente: se excluye si no responde o si su retraso de replicación supera
+ * {@code max-lag}, y vuelve a entrar en cuanto se recupera. Sin réplicas disponibles, las lecturas van al primario.
+ * Una réplica empieza excluida hasta su primera revisión.
+ */
+public class ReplicaDataSource extends AbstractDataSource implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaDataSource.class);
+
+    // 0 si la réplica ya aplicó todo lo recibido: sin escrituras en el primario, replay_timestamp envejece sin haber retraso
+    static final String LAG_QUERY = """
+            SELECT CASE
+                WHEN NOT pg_is_in_recovery() OR pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+                ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), 0)
+            END""";
+
+    private static final class Replica {
+        private final String name;
+        private final DataSource dataSource;
+        private volatile boolean available;
+        private volatile double lagSeconds;
+
+        private Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+    }
+
+    private final DataSource primary;
+    private final List<Replica> replicas = new ArrayList<>();
+    private final Duration maxLag;
+    private final int checkTimeoutSeconds;
+    private final AtomicInteger next = new AtomicInteger();
+    private final Counter fallbacks;
+
+    public ReplicaDataSource(DataSource primary,
+                             Map<String, DataSource> replicas,
+                             Duration maxLag,
+                             Duration checkTimeout,
+                             MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.maxLag = maxLag;
+        this.checkTimeoutSeconds = (int) Math.max(1, checkTimeout.toSeconds());
+        replicas.forEach((name, dataSource) -> {
+            Replica replica = new Replica(name, dataSource);
+            this.replicas.add(replica);
+            Gauge.builder("product.datasource.replica.available", replica, r -> r.available ? 1 : 0)
+                    .description("1 si la réplica recibe lecturas, 0 si está excluida")
+                    .tag("replica", name)
+                    .register(meterRegistry);
+            Gauge.builder("product.datasource.replica.lag", replica, r -> r.lagSeconds)
+                    .description("Retraso de replicación medido en la última revisión")
+                    .baseUnit("seconds")
+                    .tag("replica", name)
+                    .register(meterRegistry);
+        });
+        this.fallbacks = Counter.builder("product.datasource.replica.fallbacks")
+                .description("Lecturas enviadas al primario por no haber réplicas disponibles")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        int size = replicas.size();
+        int start = size == 0 ? 0 : Math.floorMod(next.getAndIncrement(), size);
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            if (!replica.available) {
+                continue;
+            }
+            try {
+                return replica.dataSource.getConnection();
+            } catch (SQLException e) {
+                // Se excluye hasta que la próxima revisión la encuentre sana
+                markUnavailable(replica, e.getMessage());
+            }
+        }
+        fallbacks.increment();
+        return primary.getConnection();
+    }
+
+    // Como HikariDataSource: cada pool tiene sus credenciales fijas
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLFeatureNotSupportedException("Las réplicas usan las credenciales de su pool");
+    }
+
+    @Scheduled(fixedDelayString = "${product.datasource.replicas.health-check-interval-ms:2000}")
+    public void checkHealth() {
+        for (Replica replica : replicas) {
+            try (Connection connection = replica.dataSource.getConnection();
+                 Statement statement = connection.createStatement()) {
+                statement.setQueryTimeout(checkTimeoutSeconds);
+                try (ResultSet rs = statement.executeQuery(LAG_QUERY)) {
+                    rs.next();
+                    replica.lagSeconds = rs.getDouble(1);
+                }
+                if (replica.lagSeconds * 1000 > maxLag.toMillis()) {
+                    markUnavailable(replica, "retraso de " + replica.lagSeconds + "s");
+                } else if (!replica.available) {
+                    replica.available = true;
+                    logger.info("Réplica {} disponible para lecturas (retraso {}s)", replica.name, replica.lagSeconds);
+                }
+            } catch (SQLException e) {
+                markUnavailable(replica, e.getMessage());
+            }
+        }
+    }
+
+    boolean isAvailable(String name) {
+        return replicas.stream().anyMatch(replica -> replica.name.equals(name) && replica.available);
+    }
+
+    @Override
+    public void close() {
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof AutoCloseable closeable) {
+                try {
+                    closeable.close();
+                } catch (Exception e) {
+                    logger.warn("No se pudo cerrar el pool de la réplica {}: {}", replica.name, e.getMessage());
+                }
+            }
+        }
+    }
+
+    private void markUnavailable(Replica replica, String reason) {
+        if (replica.available) {
+            replica.available = false;
+            logger.warn("Réplica {} excluida de las lecturas: {}", replica.name, reason);
+        }
+    }
+}
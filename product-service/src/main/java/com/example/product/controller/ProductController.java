@@ -1,7 +1,11 @@
 package com.example.product.controller;
 
+import com.example.product.dto.ProductCursorPage;
+import com.example.product.dto.ProductImportReport;
 import com.example.product.dto.ProductRequest;
 import com.example.product.dto.ProductResponse;
+import com.example.product.dto.ProductSearchPage;
+import com.example.product.service.ProductImportService;
 import com.example.product.service.ProductService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -14,8 +18,21 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.MediaType;
+import org.springframework.util.DigestUtils;
 import org.springframework.util.ObjectUtils;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static com.example.product.logging.LogMarkers.ACCESS;
+import static net.logstash.logback.argument.StructuredArguments.kv;
 
 @RestController
 @RequestMapping("/api/v1/products")
@@ -27,6 +44,9 @@ public class ProductController {
     @Autowired
     private ProductService productService;
 
+    @Autowired
+    private ProductImportService productImportService;
+
     @Operation(summary = "Crear un nuevo producto")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Producto creado exitosamente"),
@@ -40,35 +60,186 @@ public class ProductController {
         if (ObjectUtils.isEmpty(request)) {
             throw new IllegalArgumentException("La solicitud del producto no puede estar vacía");
         }
-        logger.info("Solicitud para crear producto: {}", request);
+        logger.info("Solicitud para crear producto: {} {}", kv("nombre", request.getNombre()), kv("precio", request.getPrecio()));
         return productService.create(request);
     }
 
+    @Operation(summary = "Importar productos desde un CSV",
+            description = "Cuerpo text/csv con cabecera y columnas nombre y precio. El archivo se procesa a medida "
+                    + "que llega; las filas inválidas se omiten y se informan en el reporte")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Reporte de la importación (completo=false si se interrumpió)"),
+            @ApiResponse(responseCode = "400", description = "CSV vacío o sin las columnas nombre y precio en la cabecera")
+    })
+    @PostMapping(value = "/import", consumes = "text/csv")
+    public ProductImportReport importCsv(
+            @Parameter(description = "Archivo CSV")
+            InputStream body) {
+        logger.info("Solicitud de importación de productos: {}", kv("formato", "csv"));
+        return productImportService.importProducts(body, ProductImportService.Format.CSV);
+    }
+
+    @Operation(summary = "Importar productos desde NDJSON",
+            description = "Cuerpo application/x-ndjson con un objeto {\"nombre\", \"precio\"} por línea. El archivo "
+                    + "se procesa a medida que llega; las líneas inválidas se omiten y se informan en el reporte")
+    @ApiResponse(responseCode = "200", description = "Reporte de la importación (completo=false si se interrumpió)")
+    @PostMapping(value = "/import", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ProductImportReport importNdjson(
+            @Parameter(description = "Archivo NDJSON")
+            InputStream body) {
+        logger.info("Solicitud de importación de productos: {}", kv("formato", "ndjson"));
+        return productImportService.importProducts(body, ProductImportService.Format.NDJSON);
+    }
+
     @Operation(summary = "Obtener un producto por ID")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Producto encontrado"),
+            @ApiResponse(responseCode = "304", description = "El producto no cambió desde el ETag indicado en If-None-Match"),
             @ApiResponse(responseCode = "404", description = "Producto no encontrado")
     })
     @GetMapping("/{id}")
     public ProductResponse getById(
             @PathVariable
             @Parameter(description = "ID del producto a consultar")
-            Long id) {
+            Long id,
+            WebRequest webRequest) {
         if (id == null || id <= 0) {
             throw new IllegalArgumentException("El ID debe ser mayor que cero");
         }
-        logger.info("Buscando producto con ID: {}", id);
-        return productService.getById(id);
+        logger.info(ACCESS, "Buscando producto: {}", kv("productoId", id));
+        ProductResponse product = productService.getById(id);
+        // El ETag sale de la versión que se sirve; getById se resuelve casi siempre desde la caché
+        if (webRequest.checkNotModified(etag(product.getVersion()))) {
+            return null;
+        }
+        return product;
+    }
+
+    @Operation(summary = "Obtener varios productos por sus IDs en una sola consulta")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Productos encontrados (los IDs inexistentes se omiten)"),
+            @ApiResponse(responseCode = "400", description = "Lista de IDs vacía o demasiado grande")
+    })
+    @GetMapping("/batch")
+    public List<ProductResponse> getByIds(
+            @RequestParam
+            @Parameter(description = "IDs de los productos a consultar, separados por comas")
+            List<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            throw new IllegalArgumentException("Debe indicar al menos un ID");
+        }
+        logger.info(ACCESS, "Buscando productos por lote: {} IDs", ids.size());
+        return productService.getByIds(ids);
     }
 
     @Operation(summary = "Listar todos los productos con paginación")
-    @ApiResponse(responseCode = "200", description = "Lista paginada de productos")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Lista paginada de productos"),
+            @ApiResponse(responseCode = "304", description = "La página no cambió desde el ETag indicado en If-None-Match")
+    })
     @GetMapping
     public Page<ProductResponse> getAll(
+            @Parameter(description = "Parámetros de paginación")
+            Pageable pageable,
+            WebRequest webRequest) {
+        logger.info(ACCESS, "Listando productos con paginación: {}", pageable);
+        Page<ProductResponse> page = productService.getAll(pageable);
+        // El ETag sale de la página que se sirve: con 304 se ahorra enviar el cuerpo, no las consultas
+        if (webRequest.checkNotModified(etag(pageFingerprint(page)))) {
+            return null;
+        }
+        return page;
+    }
+
+    @Operation(summary = "Listar productos por páginas sin calcular el total",
+            description = "Como el listado paginado, pero sin totalElements ni totalPages: evita el SELECT count(*)")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Página de productos con indicador de página siguiente")
+    })
+    @GetMapping("/slice")
+    public Slice<ProductResponse> getSlice(
             @Parameter(description = "Parámetros de paginación")
             Pageable pageable) {
-        logger.info("Listando productos con paginación: {}", pageable);
-        return productService.getAll(pageable);
+        logger.info(ACCESS, "Listando productos sin total: {}", pageable);
+        return productService.getSlice(pageable);
+    }
+
+    @Operation(summary = "Listar productos por cursor (keyset)",
+            description = "Devuelve los productos con ID mayor que 'after', ordenados por ID. Para la página siguiente "
+                    + "se envía el nextCursor recibido; cualquier página cuesta lo mismo que la primera")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Página de productos y cursor de la siguiente"),
+            @ApiResponse(responseCode = "400", description = "Cursor negativo o tamaño fuera de rango")
+    })
+    @GetMapping("/cursor")
+    public ProductCursorPage getAfter(
+            @RequestParam(required = false)
+            @Parameter(description = "ID del último producto recibido; vacío para empezar desde el principio")
+            Long after,
+            @RequestParam(defaultValue = "20")
+            @Parameter(description = "Cantidad de productos por página (máximo 500)")
+            int size) {
+        logger.info(ACCESS, "Listando productos por cursor: after={}, size={}", after, size);
+        return productService.getAfter(after, size);
+    }
+
+    @Operation(summary = "Buscar productos por nombre",
+            description = "Por defecto devuelve los productos cuyo nombre empieza por el texto; con fuzzy=true incluye "
+                    + "también nombres con alguna palabra parecida (tolera errores de tipeo). Resultados ordenados por "
+                    + "nombre e ID, paginados con el nextCursor de la respuesta")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Página de productos encontrados"),
+            @ApiResponse(responseCode = "400", description = "Texto vacío o demasiado largo, cursor inválido o tamaño fuera de rango")
+    })
+    @GetMapping("/search")
+    public ProductSearchPage search(
+            @RequestParam
+            @Parameter(description = "Texto a buscar en el nombre del producto")
+            String q,
+            @RequestParam(defaultValue = "false")
+            @Parameter(description = "Incluir coincidencias aproximadas además del prefijo")
+            boolean fuzzy,
+            @RequestParam(required = false)
+            @Parameter(description = "nextCursor de la página anterior; vacío para la primera página")
+            String after,
+            @RequestParam(defaultValue = "20")
+            @Parameter(description = "Cantidad de productos por página (máximo 500)")
+            int size) {
+        logger.info(ACCESS, "Buscando productos: q='{}', fuzzy={}, size={}", q, fuzzy, size);
+        return productService.search(q, fuzzy, after, size);
+    }
+
+    @Operation(summary = "Listar productos por rango de precio",
+            description = "Productos con precio entre min y max (ambos incluidos), ordenados por precio e ID en el "
+                    + "sentido indicado; la página siguiente se pide con el nextCursor de la respuesta")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Página de productos en el rango"),
+            @ApiResponse(responseCode = "400", description = "Rango, sentido, cursor o tamaño inválidos")
+    })
+    @GetMapping("/by-price")
+    public ProductSearchPage getByPriceRange(
+            @RequestParam(required = false)
+            @Parameter(description = "Precio mínimo (por defecto 0)")
+            BigDecimal min,
+            @RequestParam(required = false)
+            @Parameter(description = "Precio máximo (por defecto sin límite)")
+            BigDecimal max,
+            @RequestParam(defaultValue = "asc")
+            @Parameter(description = "Sentido del orden por precio: asc o desc")
+            String direction,
+            @RequestParam(required = false)
+            @Parameter(description = "nextCursor de la página anterior; vacío para la primera página")
+            String after,
+            @RequestParam(defaultValue = "20")
+            @Parameter(description = "Cantidad de productos por página (máximo 500)")
+            int size) {
+        logger.info(ACCESS, "Listando productos por precio: min={}, max={}, direction={}, size={}", min, max, direction, size);
+        return productService.getByPriceRange(min, max, parseDirection(direction), after, size);
+    }
+
+    private static Sort.Direction parseDirection(String direction) {
+        return Sort.Direction.fromOptionalString(direction)
+                .orElseThrow(() -> new IllegalArgumentException("El sentido debe ser asc o desc"));
     }
 
     @Operation(summary = "Actualizar un producto por ID")
@@ -90,7 +261,8 @@ public class ProductController {
         if (ObjectUtils.isEmpty(request)) {
             throw new IllegalArgumentException("La solicitud de actualización no puede estar vacía");
         }
-        logger.info("Solicitud para actualizar producto con ID {}: {}", id, request);
+        logger.info("Solicitud para actualizar producto: {} {} {}", kv("productoId", id),
+                kv("nombre", request.getNombre()), kv("precio", request.getPrecio()));
         return productService.update(id, request);
     }
 
@@ -110,4 +282,20 @@ public class ProductController {
         logger.info("Solicitud para eliminar producto con ID: {}", id);
         productService.delete(id);
     }
+
+    // Cubre todo lo que cambia el cuerpo de la página: qué productos contiene, en qué versión y el total
+    // (que varía con altas y bajas fuera de la página)
+    static String pageFingerprint(Page<ProductResponse> page) {
+        StringBuilder fingerprint = new StringBuilder()
+                .append(page.getTotalElements()).append(';').append(page.getNumber()).append(';').append(page.getSize());
+        for (ProductResponse product : page.getContent()) {
+            fingerprint.append(';').append(product.getId()).append(':').append(product.getVersion());
+        }
+        return DigestUtils.md5DigestAsHex(fingerprint.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    // ETag fuerte: inventory-service lo reconstruye a partir de la versión recibida en el cuerpo
+    private static String etag(Object value) {
+        return "\"" + value + "\"";
+    }
 }
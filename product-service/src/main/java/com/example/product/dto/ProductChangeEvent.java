@@ -0,0 +1,24 @@
+package com.example.product.dto;
+
+import com.example.product.model.ProductChangeType;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.*;
+
+import java.time.Instant;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Schema(description = "Notificación de cambio de un producto enviada a los suscriptores")
+public class ProductChangeEvent {
+
+    @Schema(description = "ID del producto modificado", example = "1")
+    private Long productId;
+
+    @Schema(description = "Tipo de cambio", example = "ACTUALIZADO")
+    private ProductChangeType tipo;
+
+    @Schema(description = "Momento en que se registró el cambio")
+    private Instant ocurridoEn;
+}
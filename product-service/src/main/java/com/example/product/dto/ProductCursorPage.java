@@ -0,0 +1,23 @@
+package com.example.product.dto;
+
+import java.util.List;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.*;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Schema(description = "Página de productos recorrida por cursor (ID del último producto devuelto)")
+public class ProductCursorPage {
+
+    @Schema(description = "Productos de la página, ordenados por ID")
+    private List<ProductResponse> content;
+
+    @Schema(description = "Valor de 'after' para pedir la página siguiente; null si no hay más", example = "150")
+    private Long nextCursor;
+
+    @Schema(description = "Indica si existe una página siguiente", example = "true")
+    private boolean hasNext;
+}
@@ -0,0 +1,17 @@
+package com.example.product.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.*;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Error de una fila de la importación")
+public class ProductImportError {
+
+    @Schema(description = "Número de fila de datos (desde 1)", example = "42")
+    private long fila;
+
+    @Schema(description = "Motivo del rechazo", example = "precio: El precio debe ser mayor a 0")
+    private String mensaje;
+}
@@ -0,0 +1,36 @@
+package com.example.product.dto;
+
+import java.util.List;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.*;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Schema(description = "Resultado de una importación masiva de productos")
+public class ProductImportReport {
+
+    @Schema(description = "Filas de datos leídas del archivo (sin contar la cabecera del CSV ni las líneas vacías)", example = "100000")
+    private long filasLeidas;
+
+    @Schema(description = "Productos insertados y confirmados en la base", example = "99850")
+    private long importados;
+
+    @Schema(description = "Filas descartadas por no cumplir las validaciones", example = "150")
+    private long rechazados;
+
+    @Schema(description = "Errores por fila, en orden; como máximo product.import.max-reported-errors")
+    private List<ProductImportError> errores;
+
+    @Schema(description = "Errores que no se incluyeron en la lista por superar el máximo", example = "0")
+    private long erroresOmitidos;
+
+    @Schema(description = "false si la importación se interrumpió antes del final del archivo", example = "true")
+    private boolean completo;
+
+    @Schema(description = "Última fila cuyo lote quedó confirmado; si la importación se interrumpió, "
+            + "hay que reenviar las filas posteriores", example = "100000")
+    private long ultimaFilaConfirmada;
+}
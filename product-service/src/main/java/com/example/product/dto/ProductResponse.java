@@ -20,4 +20,11 @@ public class ProductResponse {
 
     @Schema(description = "Precio del producto", example = "999.99", type = "number", format = "double")
     private BigDecimal precio;
+
+    @Schema(description = "Versión del producto; el ETag de la respuesta se deriva de ella", example = "3")
+    private Long version;
+
+    public ProductResponse(Long id, String nombre, BigDecimal precio) {
+        this(id, nombre, precio, null);
+    }
 }
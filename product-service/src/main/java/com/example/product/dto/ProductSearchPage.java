@@ -0,0 +1,23 @@
+package com.example.product.dto;
+
+import java.util.List;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.*;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Schema(description = "Página de resultados recorrida con un cursor opaco (búsqueda por nombre o por precio)")
+public class ProductSearchPage {
+
+    @Schema(description = "Productos encontrados")
+    private List<ProductResponse> content;
+
+    @Schema(description = "Valor de 'after' para pedir la página siguiente; null si no hay más", example = "MTI6c21hcnRwaG9uZQ")
+    private String nextCursor;
+
+    @Schema(description = "Indica si existe una página siguiente", example = "true")
+    private boolean hasNext;
+}
@@ -0,0 +1,19 @@
+package com.example.product.logging;
+
+import org.slf4j.Marker;
+import org.slf4j.MarkerFactory;
+
+/**
+ * Marcas SLF4J de los logs del servicio.
+ */
+public final class LogMarkers {
+
+    /**
+     * Logs de lectura (consultas y listados). {@link LoggerRateSamplingFilter} los limita por segundo; los de
+     * escritura van sin marca y se conservan todos.
+     */
+    public static final Marker ACCESS = MarkerFactory.getMarker("ACCESS");
+
+    private LogMarkers() {
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.product.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+import org.slf4j.MarkerFactory;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Limita los eventos INFO marcados con {@code marker} a {@code maxPerSecond} por segundo y por logger;
+ * los INFO sin la marca, WARN y ERROR pasan siempre. Se configura en {@code logback-spring.xml}:
+ * <pre>
+ * &lt;turboFilter class="com.example.product.logging.LoggerRateSamplingFilter"&gt;
+ *     &lt;marker&gt;ACCESS&lt;/marker&gt;
+ *     &lt;maxPerSecond&gt;20&lt;/maxPerSecond&gt;
+ * &lt;/turboFilter&gt;
+ * </pre>
+ * Solo las lecturas llevan la marca ({@link LogMarkers#ACCESS}): los eventos de escritura sirven de auditoría
+ * y no se descartan. Al ser un TurboFilter decide antes de crear el evento: lo descartado no formatea el mensaje
+ * ni pasa por los appenders.
+ */
+public class LoggerRateSamplingFilter extends TurboFilter {
+
+    private final ConcurrentHashMap<String, Window> windows = new ConcurrentHashMap<>();
+    private Marker marker = LogMarkers.ACCESS;
+    private int maxPerSecond = 20;
+
+    public void setMarker(String name) {
+        this.marker = MarkerFactory.getMarker(name.trim());
+    }
+
+    public void setMaxPerSecond(int maxPerSecond) {
+        this.maxPerSecond = maxPerSecond;
+    }
+
+    @Override
+    public void start() {
+        if (maxPerSecond < 0) {
+            addError("maxPerSecond no puede ser negativo: " + maxPerSecond);
+            return;
+        }
+        super.start();
+    }
+
+    @Override
+    public FilterReply decide(Marker eventMarker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        // format == null: es un isInfoEnabled(); no consume cupo
+        if (!isStarted() || level != Level.INFO || format == null || eventMarker == null || !eventMarker.contains(marker)) {
+            return FilterReply.NEUTRAL;
+        }
+        Window window = windows.computeIfAbsent(logger.getName(), name -> new Window());
+        return window.tryAcquire(System.currentTimeMillis() / 1000, maxPerSecond) ? FilterReply.NEUTRAL : FilterReply.DENY;
+    }
+
+    /**
+     * Eventos descartados por el logger desde el arranque.
+     */
+    public long getDropped(String loggerName) {
+        Window window = windows.get(loggerName);
+        return window == null ? 0 : window.dropped.get();
+    }
+
+    // Ventana fija de un segundo; una carrera al cambiar de segundo puede dejar pasar algún evento de más
+    private static final class Window {
+        private final AtomicLong second = new AtomicLong(-1);
+        private final AtomicInteger count = new AtomicInteger();
+        private final AtomicLong dropped = new AtomicLong();
+
+        boolean tryAcquire(long now, int max) {
+            long current = second.get();
+            if (current != now && second.compareAndSet(current, now)) {
+                count.set(0);
+            }
+            if (count.incrementAndGet() <= max) {
+                return true;
+            }
+            dropped.incrementAndGet();
+            return false;
+        }
+    }
+}
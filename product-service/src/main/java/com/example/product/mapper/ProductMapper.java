@@ -20,6 +20,7 @@ public class ProductMapper {
         dto.setId(product.getId());
         dto.setNombre(product.getNombre());
         dto.setPrecio(product.getPrecio()); // corregido
+        dto.setVersion(product.getVersion());
         return dto;
     }
 }
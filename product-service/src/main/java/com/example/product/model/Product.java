@@ -2,6 +2,7 @@ package com.example.product.model;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.math.BigDecimal;
 
@@ -18,4 +19,14 @@ public class Product {
     private Long id;
     private String nombre;
     private BigDecimal precio;
+
+    // Se incrementa en cada actualización; es la base del ETag de las respuestas
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
+    public Product(Long id, String nombre, BigDecimal precio) {
+        this(id, nombre, precio, null);
+    }
 }
@@ -0,0 +1,6 @@
+package com.example.product.model;
+
+public enum ProductChangeType {
+    ACTUALIZADO,
+    ELIMINADO
+}
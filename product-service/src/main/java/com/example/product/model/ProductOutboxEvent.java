@@ -0,0 +1,38 @@
+package com.example.product.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+/**
+ * Cambio de producto pendiente de publicar. Se inserta en la misma transacción que el cambio,
+ * así que un cambio confirmado siempre termina notificándose a los suscriptores.
+ */
+@Entity
+@Table(name = "product_outbox")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProductOutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private ProductChangeType tipo;
+
+    @Column(name = "creado_en", nullable = false)
+    private Instant creadoEn;
+
+    // Mientras no venza, el relay que reclamó la fila la está publicando y las demás instancias la saltan
+    @Column(name = "reclamado_hasta")
+    private Instant reclamadoHasta;
+}
@@ -0,0 +1,30 @@
+package com.example.product.repository;
+
+import com.example.product.model.ProductOutboxEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ProductOutboxRepository extends JpaRepository<ProductOutboxEvent, Long> {
+
+    // Reclama el lote con un lease en vez de mantenerlo bloqueado mientras se publica. SKIP LOCKED: varias
+    // instancias pueden reclamar a la vez sin repartirse el mismo lote. La hora es la del servidor de base de datos
+    @Query(value = """
+            WITH claimed AS (
+                UPDATE product_outbox SET reclamado_hasta = now() + :leaseMillis * interval '1 millisecond'
+                WHERE id IN (SELECT id FROM product_outbox
+                             WHERE reclamado_hasta IS NULL OR reclamado_hasta < now()
+                             ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED)
+                RETURNING *)
+            SELECT * FROM claimed ORDER BY id""", nativeQuery = true)
+    List<ProductOutboxEvent> claimNextBatch(@Param("limit") int limit, @Param("leaseMillis") long leaseMillis);
+
+    @Modifying
+    @Query("UPDATE ProductOutboxEvent e SET e.reclamadoHasta = null WHERE e.id IN :ids")
+    int releaseClaim(@Param("ids") List<Long> ids);
+}
@@ -1,9 +1,89 @@
 package com.example.product.repository;
 
 import com.example.product.model.Product;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.util.List;
+
 @Repository
 public interface ProductRepository extends JpaRepository<Product, Long> {
+
+    // Slice: sin SELECT count(*); se lee una fila de más para saber si hay página siguiente
+    Slice<Product> findAllBy(Pageable pageable);
+
+    // Keyset sobre la clave primaria: el costo no depende de la profundidad de la página
+    @Query("SELECT p FROM Product p WHERE p.id > :after ORDER BY p.id")
+    List<Product> findAfter(@Param("after") Long after, Limit limit);
+
+    // Mayor ID antes de una importación por COPY: los productos importados quedan por encima
+    @Query("SELECT coalesce(max(p.id), 0) FROM Product p")
+    long findMaxId();
+
+    // Fila de búsqueda: el producto y su clave de orden calculada por la base, que es la que el cursor debe repetir
+    interface SearchRow {
+        Long getId();
+        String getNombre();
+        BigDecimal getPrecio();
+        Long getVersion();
+        String getSortKey();
+    }
+
+    // Prefijo: rango sobre idx_products_nombre_prefix, que ya entrega el orden (nombre, id) del cursor
+    @Query(value = """
+            SELECT id, nombre, precio, version, lower(nombre) AS "sortKey" FROM products
+            WHERE lower(nombre) COLLATE "C" LIKE :prefix
+              AND (lower(nombre) COLLATE "C", id) > (:afterNombre COLLATE "C", :afterId)
+            ORDER BY lower(nombre) COLLATE "C", id
+            LIMIT :limit""", nativeQuery = true)
+    List<SearchRow> searchByNombrePrefix(@Param("prefix") String prefix,
+                                         @Param("afterNombre") String afterNombre,
+                                         @Param("afterId") long afterId,
+                                         @Param("limit") int limit);
+
+    // Prefijo o alguna palabra parecida (word_similarity >= pg_trgm.word_similarity_threshold, 0.6 por defecto);
+    // ambas condiciones usan idx_products_nombre_trgm
+    @Query(value = """
+            SELECT id, nombre, precio, version, lower(nombre) AS "sortKey" FROM products
+            WHERE (lower(nombre) LIKE :prefix OR :texto <% lower(nombre))
+              AND (lower(nombre) COLLATE "C", id) > (:afterNombre COLLATE "C", :afterId)
+            ORDER BY lower(nombre) COLLATE "C", id
+            LIMIT :limit""", nativeQuery = true)
+    List<SearchRow> searchByNombreSimilar(@Param("texto") String texto,
+                                          @Param("prefix") String prefix,
+                                          @Param("afterNombre") String afterNombre,
+                                          @Param("afterId") long afterId,
+                                          @Param("limit") int limit);
+
+    // Rango y orden por precio sobre idx_products_precio_id; (precio, id) desempata y hace de cursor.
+    // Descendente recorre el mismo índice hacia atrás.
+    @Query(value = """
+            SELECT * FROM products
+            WHERE precio BETWEEN :min AND :max
+              AND (precio, id) > (:afterPrecio, :afterId)
+            ORDER BY precio, id
+            LIMIT :limit""", nativeQuery = true)
+    List<Product> findByPrecioAsc(@Param("min") BigDecimal min,
+                                  @Param("max") BigDecimal max,
+                                  @Param("afterPrecio") BigDecimal afterPrecio,
+                                  @Param("afterId") long afterId,
+                                  @Param("limit") int limit);
+
+    @Query(value = """
+            SELECT * FROM products
+            WHERE precio BETWEEN :min AND :max
+              AND (precio, id) < (:afterPrecio, :afterId)
+            ORDER BY precio DESC, id DESC
+            LIMIT :limit""", nativeQuery = true)
+    List<Product> findByPrecioDesc(@Param("min") BigDecimal min,
+                                   @Param("max") BigDecimal max,
+                                   @Param("afterPrecio") BigDecimal afterPrecio,
+                                   @Param("afterId") long afterId,
+                                   @Param("limit") int limit);
 }
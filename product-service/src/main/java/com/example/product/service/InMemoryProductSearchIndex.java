@@ -0,0 +1,193 @@
+package com.example.product.service;
+
+import com.example.product.model.Product;
+import com.example.product.repository.ProductRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Índice en memoria para bases sin pg_trgm (perfil embedded y tests). Mantiene los productos ordenados por
+ * {@code (lower(nombre), id)}: el prefijo se resuelve como un rango del mapa ordenado; la búsqueda aproximada
+ * recorre el índice desde el cursor y acepta una distancia de edición de 1 (hasta 4 letras) o 2.
+ * Se carga al arrancar y se actualiza tras el commit de cada cambio, así que solo ve los cambios hechos
+ * por esta instancia.
+ */
+@Component
+@ConditionalOnProperty(name = "product.search.index", havingValue = "memory")
+public class InMemoryProductSearchIndex implements ProductSearchIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(InMemoryProductSearchIndex.class);
+
+    private static final int LOAD_BATCH_SIZE = 1000;
+
+    private record Key(String nombre, long id) implements Comparable<Key> {
+        @Override
+        public int compareTo(Key other) {
+            int byNombre = nombre.compareTo(other.nombre);
+            return byNombre != 0 ? byNombre : Long.compare(id, other.id);
+        }
+    }
+
+    private final ConcurrentSkipListMap<Key, Product> byNombre = new ConcurrentSkipListMap<>();
+    private final Map<Long, Key> keys = new ConcurrentHashMap<>();
+
+    @Autowired
+    private ProductRepository repository;
+
+    @PostConstruct
+    void load() {
+        loadAfter(0);
+        logger.info("Índice de búsqueda en memoria cargado: {} productos", keys.size());
+    }
+
+    @Override
+    public List<Hit> search(String texto, boolean aproximado, String afterNombre, long afterId, int limit) {
+        Key cursor = new Key(afterNombre, afterId);
+        List<Hit> result = new ArrayList<>(limit);
+        if (!aproximado) {
+            // Ningún producto tiene ID Long.MIN_VALUE: la clave queda justo antes del primer nombre con el prefijo
+            Key prefixStart = new Key(texto, Long.MIN_VALUE);
+            Key start = cursor.compareTo(prefixStart) > 0 ? cursor : prefixStart;
+            for (Map.Entry<Key, Product> entry : byNombre.tailMap(start, false).entrySet()) {
+                if (!entry.getKey().nombre().startsWith(texto) || result.size() == limit) {
+                    break;
+                }
+                result.add(new Hit(entry.getValue(), entry.getKey().nombre()));
+            }
+            return result;
+        }
+        for (Map.Entry<Key, Product> entry : byNombre.tailMap(cursor, false).entrySet()) {
+            if (result.size() == limit) {
+                break;
+            }
+            if (matches(entry.getKey().nombre(), texto)) {
+                result.add(new Hit(entry.getValue(), entry.getKey().nombre()));
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public void index(Product product) {
+        // Copia: la entidad sigue gestionada por JPA y podría cambiar después
+        Product snapshot = new Product(product.getId(), product.getNombre(), product.getPrecio(), product.getVersion());
+        afterCommit(() -> put(snapshot));
+    }
+
+    @Override
+    public void remove(Long id) {
+        afterCommit(() -> {
+            Key key = keys.remove(id);
+            if (key != null) {
+                byNombre.remove(key);
+            }
+        });
+    }
+
+    @Override
+    public void indexAfter(long afterId) {
+        int loaded = loadAfter(afterId);
+        logger.info("Índice de búsqueda en memoria: {} productos importados", loaded);
+    }
+
+    int size() {
+        return keys.size();
+    }
+
+    private int loadAfter(long after) {
+        int loaded = 0;
+        List<Product> batch;
+        do {
+            batch = repository.findAfter(after, Limit.of(LOAD_BATCH_SIZE));
+            batch.forEach(this::put);
+            loaded += batch.size();
+            if (!batch.isEmpty()) {
+                after = batch.get(batch.size() - 1).getId();
+            }
+        } while (batch.size() == LOAD_BATCH_SIZE);
+        return loaded;
+    }
+
+    private void put(Product product) {
+        if (product.getId() == null || product.getNombre() == null) {
+            return;
+        }
+        Key key = new Key(product.getNombre().toLowerCase(Locale.ROOT), product.getId());
+        Key previous = keys.put(product.getId(), key);
+        if (previous != null && !previous.equals(key)) {
+            byNombre.remove(previous);
+        }
+        byNombre.put(key, product);
+    }
+
+    // Un cambio revertido no debe llegar al índice
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    // Compara el texto con el comienzo del nombre y de cada una de sus palabras
+    static boolean matches(String nombre, String texto) {
+        int maxEdits = texto.length() <= 4 ? 1 : 2;
+        for (int start = 0; start < nombre.length(); start++) {
+            if (start > 0 && !Character.isWhitespace(nombre.charAt(start - 1))) {
+                continue;
+            }
+            String candidate = nombre.substring(start, Math.min(nombre.length(), start + texto.length()));
+            if (editDistance(candidate, texto, maxEdits) <= maxEdits) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Levenshtein con corte: devuelve max + 1 en cuanto la distancia lo supera
+    static int editDistance(String a, String b, int max) {
+        if (Math.abs(a.length() - b.length()) > max) {
+            return max + 1;
+        }
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                current[j] = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+                rowMin = Math.min(rowMin, current[j]);
+            }
+            if (rowMin > max) {
+                return max + 1;
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[b.length()];
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.product.service;
+
+import com.example.product.model.Product;
+import com.example.product.repository.ProductRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Búsqueda sobre los índices de db/product-search.sql: B-tree en collation "C" para el prefijo y
+ * GIN de trigramas (pg_trgm) para la búsqueda aproximada. Al estar en la base, no necesita mantenimiento.
+ */
+@Component
+@ConditionalOnProperty(name = "product.search.index", havingValue = "postgres", matchIfMissing = true)
+public class PostgresProductSearchIndex implements ProductSearchIndex {
+
+    @Autowired
+    private ProductRepository repository;
+
+    @Override
+    public List<Hit> search(String texto, boolean aproximado, String afterNombre, long afterId, int limit) {
+        String prefix = escapeLike(texto) + "%";
+        List<ProductRepository.SearchRow> rows = aproximado
+                ? repository.searchByNombreSimilar(texto, prefix, afterNombre, afterId, limit)
+                : repository.searchByNombrePrefix(prefix, afterNombre, afterId, limit);
+        return rows.stream()
+                .map(row -> new Hit(new Product(row.getId(), row.getNombre(), row.getPrecio(), row.getVersion()), row.getSortKey()))
+                .toList();
+    }
+
+    // El texto del usuario no debe actuar como comodín de LIKE
+    static String escapeLike(String texto) {
+        return texto.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.product.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.jdbc.JdbcConnectionDetails;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+
+/**
+ * Escucha {@code LISTEN product_cache} en el primario e invalida en la caché local los productos que
+ * otras instancias modificaron o eliminaron.
+ * <p>
+ * Usa una conexión propia, fuera del pool, porque queda abierta mientras dure la aplicación. Cada vez que
+ * (re)conecta vacía la caché: los avisos enviados mientras no escuchaba se perdieron.
+ */
+@Component
+@ConditionalOnProperty(name = "product.cache.listen.enabled", havingValue = "true", matchIfMissing = true)
+public class ProductCacheListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductCacheListener.class);
+
+    private final ProductResponseCache cache;
+    private final ObjectProvider<JdbcConnectionDetails> connectionDetails;
+    private final DataSourceProperties dataSourceProperties;
+    private final Duration reconnectDelay;
+    private volatile boolean running;
+    private Thread thread;
+
+    public ProductCacheListener(ProductResponseCache cache,
+                                ObjectProvider<JdbcConnectionDetails> connectionDetails,
+                                DataSourceProperties dataSourceProperties,
+                                @Value("${product.cache.listen.reconnect-delay:5s}") Duration reconnectDelay) {
+        this.cache = cache;
+        this.connectionDetails = connectionDetails;
+        this.dataSourceProperties = dataSourceProperties;
+        this.reconnectDelay = reconnectDelay;
+    }
+
+    @PostConstruct
+    void start() {
+        running = true;
+        thread = new Thread(this::listen, "product-cache-listener");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        thread.interrupt();
+        thread.join(Duration.ofSeconds(5).toMillis());
+    }
+
+    private void listen() {
+        while (running) {
+            try (Connection connection = connect()) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + ProductResponseCache.CHANNEL);
+                }
+                cache.invalidateAllLocal();
+                logger.info("Escuchando invalidaciones de caché en el canal {}", ProductResponseCache.CHANNEL);
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(1000);
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            handle(notification.getParameter());
+                        }
+                    }
+                }
+            } catch (SQLException | RuntimeException e) {
+                if (!running) {
+                    return;
+                }
+                logger.warn("Conexión de invalidaciones de caché perdida, se reintentará en {}: {}",
+                        reconnectDelay, e.getMessage());
+                try {
+                    Thread.sleep(reconnectDelay.toMillis());
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    // Sin JdbcConnectionDetails (ReadReplicaConfig define su propio DataSource) se usa spring.datasource
+    private Connection connect() throws SQLException {
+        JdbcConnectionDetails details = connectionDetails.getIfAvailable();
+        if (details != null) {
+            return DriverManager.getConnection(details.getJdbcUrl(), details.getUsername(), details.getPassword());
+        }
+        return DriverManager.getConnection(dataSourceProperties.determineUrl(),
+                dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword());
+    }
+
+    void handle(String payload) {
+        try {
+            cache.invalidateLocal(Long.parseLong(payload));
+        } catch (NumberFormatException e) {
+            logger.warn("Aviso de invalidación ignorado, ID inválido: {}", payload);
+        }
+    }
+}
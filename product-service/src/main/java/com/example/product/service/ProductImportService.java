@@ -0,0 +1,336 @@
+package com.example.product.service;
+
+import com.example.product.dto.ProductImportError;
+import com.example.product.dto.ProductImportReport;
+import com.example.product.dto.ProductRequest;
+import com.example.product.repository.ProductRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvParser;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static net.logstash.logback.argument.StructuredArguments.kv;
+
+/**
+ * Importación masiva de productos desde CSV (con cabecera; columnas {@code nombre} y {@code precio}) o NDJSON
+ * (un objeto por línea).
+ * <p>
+ * El archivo se lee fila a fila y las filas válidas se acumulan en memoria hasta completar {@code batch-size}
+ * productos, así que la memoria depende del tamaño del lote y no del archivo. Cada lote se carga con un
+ * {@code COPY ... FROM STDIN} que toma una conexión del pool solo mientras dura la carga: un cliente que sube el
+ * archivo despacio no retiene conexiones. Las filas se validan con las mismas reglas que {@link ProductRequest};
+ * las inválidas se omiten y se informan en el reporte. Cada COPY confirma su lote: si la importación se
+ * interrumpe, los lotes anteriores se conservan y el reporte indica desde qué fila reenviar.
+ */
+@Service
+public class ProductImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductImportService.class);
+
+    static final String COPY_SQL = "COPY products (nombre, precio, version) FROM STDIN WITH (FORMAT csv)";
+
+    private static final ObjectReader CSV_READER = new CsvMapper()
+            .readerFor(String[].class)
+            .with(CsvParser.Feature.WRAP_AS_ARRAY)
+            .with(CsvParser.Feature.SKIP_EMPTY_LINES)
+            .with(CsvParser.Feature.TRIM_SPACES);
+
+    public enum Format {
+        CSV, NDJSON
+    }
+
+    private final DataSource dataSource;
+    private final ProductRepository repository;
+    private final ProductSearchIndex searchIndex;
+    private final Validator validator;
+    private final ObjectReader jsonReader;
+    private final int batchSize;
+    private final int maxReportedErrors;
+
+    public ProductImportService(DataSource dataSource,
+                                ProductRepository repository,
+                                ProductSearchIndex searchIndex,
+                                Validator validator,
+                                ObjectMapper objectMapper,
+                                @Value("${product.import.batch-size:5000}") int batchSize,
+                                @Value("${product.import.max-reported-errors:1000}") int maxReportedErrors) {
+        this.dataSource = dataSource;
+        this.repository = repository;
+        this.searchIndex = searchIndex;
+        this.validator = validator;
+        this.jsonReader = objectMapper.readerFor(ProductRequest.class);
+        this.batchSize = batchSize;
+        this.maxReportedErrors = maxReportedErrors;
+    }
+
+    /**
+     * @throws IllegalArgumentException si el CSV está vacío o su cabecera no tiene nombre y precio: es un error
+     *                                  de la solicitud, no una importación interrumpida
+     */
+    public ProductImportReport importProducts(InputStream input, Format format) {
+        ImportState state = new ImportState();
+        RowReader rows;
+        try {
+            rows = format == Format.CSV ? new CsvRowReader(input) : new NdjsonRowReader(input);
+        } catch (IOException ex) {
+            logger.warn("Importación de productos interrumpida al leer la cabecera: {}", ex.getMessage(), ex);
+            state.addError(0, "Importación interrumpida: " + ex.getMessage());
+            return state.toReport();
+        }
+        long maxIdBefore = repository.findMaxId();
+        CopyBatch batch = null;
+        try {
+            Row row;
+            while ((row = rows.next()) != null) {
+                state.filasLeidas = row.fila();
+                String error = row.error() != null ? row.error() : validate(row.request());
+                if (error != null) {
+                    state.reject(row.fila(), error, batch == null);
+                    continue;
+                }
+                if (batch == null) {
+                    batch = new CopyBatch();
+                }
+                batch.write(row.request());
+                if (batch.rows == batchSize) {
+                    state.confirm(copy(batch), row.fila());
+                    batch = null;
+                }
+            }
+            if (batch != null) {
+                state.confirm(copy(batch), state.filasLeidas);
+            }
+            state.completo = true;
+        } catch (IOException | SQLException | RuntimeException ex) {
+            logger.warn("Importación de productos interrumpida en la fila {}: {}", state.filasLeidas, ex.getMessage(), ex);
+            state.addError(state.filasLeidas, "Importación interrumpida: " + ex.getMessage());
+        }
+        if (state.importados > 0) {
+            searchIndex.indexAfter(maxIdBefore);
+        }
+        logger.info("Importación de productos finalizada: {} {} {} {}", kv("formato", format),
+                kv("importados", state.importados), kv("rechazados", state.rechazados), kv("completo", state.completo));
+        return state.toReport();
+    }
+
+    // La conexión se toma del pool solo para este COPY, con el lote ya completo en memoria
+    private long copy(CopyBatch batch) throws IOException, SQLException {
+        byte[] data = batch.toBytes();
+        try (Connection connection = dataSource.getConnection()) {
+            // Cada COPY es su propia transacción: endCopy confirma el lote
+            connection.setAutoCommit(true);
+            CopyIn copy = connection.unwrap(PGConnection.class).getCopyAPI().copyIn(COPY_SQL);
+            try {
+                copy.writeToCopy(data, 0, data.length);
+                return copy.endCopy();
+            } finally {
+                cancelIfActive(copy);
+            }
+        }
+    }
+
+    private static void cancelIfActive(CopyIn copy) {
+        try {
+            if (copy.isActive()) {
+                copy.cancelCopy();
+            }
+        } catch (SQLException ex) {
+            logger.warn("No se pudo cancelar el COPY: {}", ex.getMessage());
+        }
+    }
+
+    private String validate(ProductRequest request) {
+        Set<ConstraintViolation<ProductRequest>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            return violations.stream()
+                    .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining("; "));
+        }
+        // Postgres no admite el carácter NUL en columnas de texto: haría fallar el lote entero
+        return request.getNombre().indexOf('\0') >= 0 ? "nombre: contiene caracteres no permitidos" : null;
+    }
+
+    // Fila de datos numerada desde 1: o bien la solicitud leída, o bien el motivo por el que no se pudo leer
+    private record Row(long fila, ProductRequest request, String error) {
+    }
+
+    private interface RowReader {
+        // null al llegar al final del archivo
+        Row next() throws IOException;
+    }
+
+    // La primera fila es la cabecera; las columnas desconocidas se ignoran
+    private static final class CsvRowReader implements RowReader {
+        private final MappingIterator<String[]> iterator;
+        private int nombreColumn = -1;
+        private int precioColumn = -1;
+        private int columns;
+        private long fila;
+
+        CsvRowReader(InputStream input) throws IOException {
+            iterator = CSV_READER.readValues(new InputStreamReader(input, StandardCharsets.UTF_8));
+            if (!iterator.hasNextValue()) {
+                throw new IllegalArgumentException("El CSV está vacío");
+            }
+            String[] header = iterator.nextValue();
+            columns = header.length;
+            for (int i = 0; i < header.length; i++) {
+                String name = header[i].toLowerCase(Locale.ROOT);
+                if (name.equals("nombre")) {
+                    nombreColumn = i;
+                } else if (name.equals("precio")) {
+                    precioColumn = i;
+                }
+            }
+            if (nombreColumn < 0 || precioColumn < 0) {
+                throw new IllegalArgumentException("La cabecera del CSV debe incluir las columnas nombre y precio");
+            }
+        }
+
+        @Override
+        public Row next() throws IOException {
+            if (!iterator.hasNextValue()) {
+                return null;
+            }
+            String[] values = iterator.nextValue();
+            fila++;
+            if (values.length != columns) {
+                return new Row(fila, null, "Se esperaban " + columns + " columnas y hay " + values.length);
+            }
+            ProductRequest request = new ProductRequest();
+            request.setNombre(values[nombreColumn]);
+            String precio = values[precioColumn];
+            if (!precio.isEmpty()) {
+                try {
+                    request.setPrecio(new BigDecimal(precio));
+                } catch (NumberFormatException ex) {
+                    return new Row(fila, null, "precio: no es un número válido");
+                }
+            }
+            return new Row(fila, request, null);
+        }
+    }
+
+    // Una línea por producto; las líneas vacías se saltan sin contar como fila
+    private final class NdjsonRowReader implements RowReader {
+        private final BufferedReader reader;
+        private long fila;
+
+        NdjsonRowReader(InputStream input) {
+            reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public Row next() throws IOException {
+            String line;
+            do {
+                line = reader.readLine();
+                if (line == null) {
+                    return null;
+                }
+            } while (line.isBlank());
+            fila++;
+            try {
+                ProductRequest request = jsonReader.readValue(line);
+                return request != null ? new Row(fila, request, null)
+                        : new Row(fila, null, "JSON inválido: se esperaba un objeto");
+            } catch (JsonProcessingException ex) {
+                return new Row(fila, null, "JSON inválido: " + ex.getOriginalMessage());
+            }
+        }
+    }
+
+    // Filas de un lote en el formato CSV del COPY, acumuladas en memoria hasta cargarlas
+    private static final class CopyBatch {
+        private final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        private final Writer writer = new OutputStreamWriter(buffer, StandardCharsets.UTF_8);
+        private int rows;
+
+        void write(ProductRequest request) throws IOException {
+            writer.write('"');
+            writer.write(request.getNombre().replace("\"", "\"\""));
+            writer.write("\",");
+            writer.write(request.getPrecio().toPlainString());
+            writer.write(",0\n");
+            rows++;
+        }
+
+        byte[] toBytes() throws IOException {
+            writer.flush();
+            return buffer.toByteArray();
+        }
+    }
+
+    private final class ImportState {
+        private final List<ProductImportError> errores = new ArrayList<>();
+        private long filasLeidas;
+        private long importados;
+        private long rechazados;
+        private long erroresOmitidos;
+        private long ultimaFilaConfirmada;
+        private boolean completo;
+
+        // Sin lote abierto, una fila rechazada no deja nada pendiente de confirmar
+        void reject(long fila, String mensaje, boolean nothingPending) {
+            rechazados++;
+            addError(fila, mensaje);
+            if (nothingPending) {
+                ultimaFilaConfirmada = fila;
+            }
+        }
+
+        void confirm(long rows, long fila) {
+            importados += rows;
+            ultimaFilaConfirmada = fila;
+        }
+
+        void addError(long fila, String mensaje) {
+            if (errores.size() < maxReportedErrors) {
+                errores.add(new ProductImportError(fila, mensaje));
+            } else {
+                erroresOmitidos++;
+            }
+        }
+
+        ProductImportReport toReport() {
+            return ProductImportReport.builder()
+                    .filasLeidas(filasLeidas)
+                    .importados(importados)
+                    .rechazados(rechazados)
+                    .errores(errores)
+                    .erroresOmitidos(erroresOmitidos)
+                    .completo(completo)
+                    .ultimaFilaConfirmada(ultimaFilaConfirmada)
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.example.product.service;
+
+import com.example.product.dto.ProductChangeEvent;
+import com.example.product.model.ProductOutboxEvent;
+import com.example.product.repository.ProductOutboxRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.client.RestClient;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publica por lotes los cambios registrados en {@code product_outbox}.
+ * <p>
+ * Cada lote se reclama con un lease de {@code product.outbox.lease} en una transacción corta, se envía a todos
+ * los suscriptores sin ninguna transacción ni conexión abierta y después se borra. Si algún suscriptor falla,
+ * el lease se libera y el lote se reintenta en la siguiente pasada; si la instancia muere a medio envío, otra
+ * lo reclama cuando vence el lease. La entrega es al menos una vez, por lo que los suscriptores deben tratar
+ * los eventos de forma idempotente.
+ * <p>
+ * El relay tiene su propio hilo: un suscriptor lento no retrasa las demás tareas programadas.
+ */
+@Component
+public class ProductOutboxRelay {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductOutboxRelay.class);
+
+    private final ProductOutboxRepository outboxRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final RestClient restClient;
+    private final List<String> subscribers;
+    private final int batchSize;
+    private final long pollIntervalMs;
+    private final Duration lease;
+    private ScheduledExecutorService scheduler;
+
+    public ProductOutboxRelay(ProductOutboxRepository outboxRepository,
+                              TransactionTemplate transactionTemplate,
+                              RestClient.Builder restClientBuilder,
+                              @Value("${product.outbox.subscribers:}") List<String> subscribers,
+                              @Value("${product.outbox.batch-size:200}") int batchSize,
+                              @Value("${product.outbox.poll-interval-ms:500}") long pollIntervalMs,
+                              @Value("${product.outbox.lease:30s}") Duration lease) {
+        this.outboxRepository = outboxRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.restClient = restClientBuilder.build();
+        this.subscribers = subscribers.stream().filter(s -> !s.isBlank()).toList();
+        this.batchSize = batchSize;
+        this.pollIntervalMs = pollIntervalMs;
+        this.lease = lease;
+    }
+
+    @PostConstruct
+    void start() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("product-outbox-relay-"));
+        scheduler.scheduleWithFixedDelay(this::relay, pollIntervalMs, pollIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        scheduler.shutdown();
+        scheduler.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    public void relay() {
+        try {
+            int published;
+            do {
+                published = publishNextBatch();
+            } while (published == batchSize);
+        } catch (Exception e) {
+            logger.warn("No se pudieron publicar los cambios de productos, se reintentará: {}", e.getMessage());
+        }
+    }
+
+    private int publishNextBatch() {
+        List<ProductOutboxEvent> rows = transactionTemplate.execute(status ->
+                outboxRepository.claimNextBatch(batchSize, lease.toMillis()));
+        if (rows == null || rows.isEmpty()) {
+            return 0;
+        }
+        List<Long> ids = rows.stream().map(ProductOutboxEvent::getId).toList();
+
+        // Varios cambios del mismo producto en el lote se notifican una sola vez, con el último
+        Map<Long, ProductChangeEvent> events = new LinkedHashMap<>();
+        for (ProductOutboxEvent row : rows) {
+            events.put(row.getProductId(), new ProductChangeEvent(row.getProductId(), row.getTipo(), row.getCreadoEn()));
+        }
+        List<ProductChangeEvent> payload = List.copyOf(events.values());
+
+        try {
+            for (String subscriber : subscribers) {
+                restClient.post()
+                        .uri(subscriber)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .body(payload)
+                        .retrieve()
+                        .toBodilessEntity();
+            }
+        } catch (RuntimeException e) {
+            // Se libera el lease para reintentar en la siguiente pasada sin esperar a que venza
+            try {
+                transactionTemplate.executeWithoutResult(status -> outboxRepository.releaseClaim(ids));
+            } catch (RuntimeException releaseError) {
+                e.addSuppressed(releaseError);
+            }
+            throw e;
+        }
+
+        transactionTemplate.executeWithoutResult(status -> outboxRepository.deleteAllByIdInBatch(ids));
+        logger.info("Cambios de productos publicados: eventos={}, suscriptores={}", payload.size(), subscribers.size());
+        return rows.size();
+    }
+}
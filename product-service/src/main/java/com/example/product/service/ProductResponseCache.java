@@ -0,0 +1,150 @@
+package com.example.product.service;
+
+import com.example.product.dto.ProductResponse;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+/**
+ * Caché en memoria de {@link ProductResponse} por ID para {@code getById}.
+ * <p>
+ * Caffeine desaloja con W-TinyLFU, así que con un tamaño chico se quedan los productos más consultados.
+ * Las estadísticas se publican en Actuator como {@code cache.gets}, {@code cache.evictions}, etc. con la
+ * etiqueta {@code cache=productos}.
+ * <p>
+ * {@link #evict} invalida la entrada en esta instancia tras el commit y envía {@code NOTIFY product_cache}
+ * en la misma transacción: Postgres lo entrega a las demás instancias ({@link ProductCacheListener}) solo
+ * si el cambio se confirma. El TTL cubre los avisos perdidos.
+ * <p>
+ * Una réplica puede ir hasta {@code max-lag} por detrás del primario: si el fallo siguiente a una invalidación
+ * se leyera de ella, la versión anterior volvería a la caché hasta que venciera el TTL. Por eso cada ID
+ * invalidado (aquí o por aviso de otra instancia) queda marcado durante {@code primary-read-window}, y
+ * {@link #isRecentlyChanged} indica a {@link ProductServiceImpl} que lo lea del primario.
+ * <p>
+ * La caché guarda futuros ({@link AsyncCache}) para que la consulta JDBC no corra dentro del
+ * {@code ConcurrentHashMap.compute} de Caffeine: bajo el lock solo se registra el futuro, y la carga se hace
+ * después en el hilo que llamó (con su transacción). Con el perfil {@code virtual}, ni quien carga ni quien
+ * espera la misma carga fija su hilo portador (se comprueba con {@code -Djdk.tracePinnedThreads=short}).
+ */
+@Component
+public class ProductResponseCache {
+
+    public static final String CACHE_NAME = "productos";
+    public static final String CHANNEL = "product_cache";
+
+    private final AsyncCache<Long, ProductResponse> cache;
+    // IDs invalidados hace menos de primaryReadWindow; el valor no se usa
+    private final Cache<Long, Boolean> recentlyChanged;
+    private final JdbcTemplate jdbcTemplate;
+    private final Duration primaryReadWindow;
+    // Tras vaciar toda la caché (avisos perdidos) cualquier ID puede haber cambiado
+    private volatile long allChangedUntilNanos;
+
+    public ProductResponseCache(MeterRegistry meterRegistry,
+                                JdbcTemplate jdbcTemplate,
+                                @Value("${product.cache.maximum-size:1000}") long maximumSize,
+                                @Value("${product.cache.ttl:10m}") Duration ttl,
+                                @Value("${product.cache.primary-read-window:10s}") Duration primaryReadWindow) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.primaryReadWindow = primaryReadWindow;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .buildAsync();
+        this.recentlyChanged = Caffeine.newBuilder()
+                .expireAfterWrite(primaryReadWindow)
+                .build();
+        this.allChangedUntilNanos = System.nanoTime();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache.synchronous(), CACHE_NAME);
+    }
+
+    /**
+     * Devuelve el producto en caché o lo carga con {@code loader}; las cargas concurrentes del mismo ID
+     * se hacen una sola vez. Las excepciones del loader no se guardan.
+     */
+    public ProductResponse get(Long id, Function<Long, ProductResponse> loader) {
+        CompletableFuture<ProductResponse> own = new CompletableFuture<>();
+        CompletableFuture<ProductResponse> future = cache.get(id, (key, executor) -> own);
+        if (future != own) {
+            return join(future);
+        }
+        // Un futuro que termina en null o con excepción se retira solo de la caché
+        try {
+            ProductResponse value = loader.apply(id);
+            own.complete(value);
+            return value;
+        } catch (RuntimeException | Error ex) {
+            own.completeExceptionally(ex);
+            throw ex;
+        }
+    }
+
+    // Quien espera la carga de otro hilo recibe la misma excepción que el loader
+    private static ProductResponse join(CompletableFuture<ProductResponse> future) {
+        try {
+            return future.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (ex.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw ex;
+        }
+    }
+
+    // Una carga en curso cuenta como ausente: no se espera
+    public ProductResponse getIfPresent(Long id) {
+        return cache.synchronous().getIfPresent(id);
+    }
+
+    /**
+     * Invalida el producto en todas las instancias. Dentro de una transacción, solo si se confirma.
+     */
+    public void evict(Long id) {
+        jdbcTemplate.queryForObject("SELECT pg_notify(?, ?)", String.class, CHANNEL, String.valueOf(id));
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            invalidateLocal(id);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                invalidateLocal(id);
+            }
+        });
+    }
+
+    /**
+     * true si el producto se invalidó hace menos de {@code primary-read-window}: una réplica podría no tener
+     * aún el cambio y hay que leerlo del primario.
+     */
+    public boolean isRecentlyChanged(Long id) {
+        return System.nanoTime() - allChangedUntilNanos < 0 || recentlyChanged.getIfPresent(id) != null;
+    }
+
+    // Se marca antes de invalidar: un fallo concurrente ya no puede leer de la réplica
+    void invalidateLocal(Long id) {
+        recentlyChanged.put(id, Boolean.TRUE);
+        cache.synchronous().invalidate(id);
+    }
+
+    void invalidateAllLocal() {
+        allChangedUntilNanos = System.nanoTime() + primaryReadWindow.toNanos();
+        cache.synchronous().invalidateAll();
+    }
+}
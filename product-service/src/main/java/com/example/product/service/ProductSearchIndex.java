@@ -0,0 +1,43 @@
+package com.example.product.service;
+
+import com.example.product.model.Product;
+
+import java.util.List;
+
+/**
+ * Índice de búsqueda por nombre. Los resultados se ordenan por {@code (lower(nombre), id)} y se paginan
+ * por keyset: cada página empieza después del par {@code (sortKey, id)} del último resultado de la anterior.
+ */
+public interface ProductSearchIndex {
+
+    /**
+     * Un resultado y su clave de orden tal como la calculó el índice; el cursor se arma con ella para no
+     * depender de que Java y la base pasen a minúsculas igual.
+     */
+    record Hit(Product product, String sortKey) {
+    }
+
+    /**
+     * @param texto       texto ya normalizado (sin espacios en los extremos y en minúsculas)
+     * @param aproximado  false: nombres que empiezan por el texto; true: además, nombres con alguna palabra
+     *                    parecida al texto (tolera errores de tipeo)
+     * @param limit       máximo de productos a devolver
+     */
+    List<Hit> search(String texto, boolean aproximado, String afterNombre, long afterId, int limit);
+
+    /**
+     * Avisa de un producto creado o modificado. Los índices que viven en la base no necesitan hacer nada.
+     */
+    default void index(Product product) {
+    }
+
+    default void remove(Long id) {
+    }
+
+    /**
+     * Avisa de productos insertados sin pasar por JPA (importación por COPY): todos los de ID mayor que
+     * {@code afterId}.
+     */
+    default void indexAfter(long afterId) {
+    }
+}
@@ -1,14 +1,26 @@
 package com.example.product.service;
 
+import com.example.product.dto.ProductCursorPage;
 import com.example.product.dto.ProductRequest;
 import com.example.product.dto.ProductResponse;
+import com.example.product.dto.ProductSearchPage;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.util.List;
 
 public interface ProductService {
     ProductResponse create(ProductRequest request);
     ProductResponse getById(Long id);
+    List<ProductResponse> getByIds(List<Long> ids);
     Page<ProductResponse> getAll(Pageable pageable);
+    Slice<ProductResponse> getSlice(Pageable pageable);
+    ProductCursorPage getAfter(Long after, int size);
+    ProductSearchPage search(String texto, boolean aproximado, String after, int size);
+    ProductSearchPage getByPriceRange(BigDecimal min, BigDecimal max, Sort.Direction direction, String after, int size);
     ProductResponse update(Long id, ProductRequest request);
     void delete(Long id);
 }
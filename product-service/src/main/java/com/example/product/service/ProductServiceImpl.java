@@ -1,31 +1,70 @@
 package com.example.product.service;
 
+import com.example.product.dto.ProductCursorPage;
 import com.example.product.dto.ProductRequest;
 import com.example.product.dto.ProductResponse;
+import com.example.product.dto.ProductSearchPage;
 import com.example.product.exception.ResourceNotFoundException;
 import com.example.product.mapper.ProductMapper;
 import com.example.product.model.Product;
+import com.example.product.model.ProductChangeType;
+import com.example.product.model.ProductOutboxEvent;
+import com.example.product.repository.ProductOutboxRepository;
 import com.example.product.repository.ProductRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+import static com.example.product.logging.LogMarkers.ACCESS;
+import static net.logstash.logback.argument.StructuredArguments.kv;
 
 @Service
 public class ProductServiceImpl implements ProductService {
 
     private static final Logger logger = LoggerFactory.getLogger(ProductServiceImpl.class);
 
+    static final int MAX_BATCH_SIZE = 500;
+    static final int MAX_PAGE_SIZE = 500;
+    static final int MAX_SEARCH_LENGTH = 100;
+    // Tope del rango cuando no se indica precio máximo; cabe en la columna numeric(38,2)
+    static final BigDecimal MAX_PRICE = BigDecimal.valueOf(Long.MAX_VALUE);
+
     @Autowired
     private ProductRepository repository;
 
     @Autowired
     private ProductMapper mapper;
 
+    @Autowired
+    private ProductOutboxRepository outboxRepository;
+
+    @Autowired
+    private ProductSearchIndex searchIndex;
+
+    @Autowired
+    private ProductResponseCache cache;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
     @Override
     public ProductResponse create(ProductRequest request) {
         if (request == null || request.getNombre() == null ||
@@ -36,42 +75,189 @@ public class ProductServiceImpl implements ProductService {
         try {
             Product product = mapper.toEntity(request);
             Product saved = repository.save(product);
-            logger.info("Producto creado exitosamente: {}", saved);
+            searchIndex.index(saved);
+            logger.info("Producto creado exitosamente: {} {}", kv("productoId", saved.getId()), kv("version", saved.getVersion()));
             return mapper.toResponse(saved);
         } catch (Exception ex) {
-            logger.error("Error al crear el producto: {}", request, ex);
+            logger.error("Error al crear el producto: {}", kv("nombre", request.getNombre()), ex);
             throw ex;
         }
     }
 
+    // Sin transacción propia: un acierto de caché no debe tomar una conexión (findById ya es readOnly)
     @Override
     public ProductResponse getById(Long id) {
         if (id == null || id <= 0) {
             throw new IllegalArgumentException("ID de producto inválido");
         }
 
-        Product product = repository.findById(id)
+        return cache.get(id, this::load);
+    }
+
+    private ProductResponse load(Long id) {
+        Optional<Product> found = cache.isRecentlyChanged(id)
+                ? readFromPrimary(() -> repository.findById(id))
+                : repository.findById(id);
+        Product product = found
                 .orElseThrow(() -> {
                     logger.warn("Producto no encontrado con ID: {}", id);
                     return new ResourceNotFoundException("Producto no encontrado");
                 });
 
-        logger.info("Producto recuperado: {}", product);
+        // DEBUG: con la caché solo llega aquí en los fallos, pero no debe registrar la entidad completa
+        logger.debug("Producto recuperado: {}", kv("productoId", id));
         return mapper.toResponse(product);
     }
 
+    // Sin @Transactional(readOnly): si algún producto cambió hace poco, la consulta va al primario
+    @Override
+    public List<ProductResponse> getByIds(List<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            throw new IllegalArgumentException("La lista de IDs no puede estar vacía");
+        }
+
+        List<Long> validIds = ids.stream()
+                .filter(Objects::nonNull)
+                .filter(id -> id > 0)
+                .distinct()
+                .toList();
+        if (validIds.size() > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("No se pueden consultar más de " + MAX_BATCH_SIZE + " productos por solicitud");
+        }
+
+        // Una sola consulta (WHERE id IN ...) en lugar de una por producto
+        List<Product> products = validIds.stream().anyMatch(cache::isRecentlyChanged)
+                ? readFromPrimary(() -> repository.findAllById(validIds))
+                : repository.findAllById(validIds);
+        logger.info(ACCESS, "Productos recuperados por lote: solicitados={}, encontrados={}", validIds.size(), products.size());
+        return products.stream().map(mapper::toResponse).toList();
+    }
+
     @Override
+    @Transactional(readOnly = true)
     public Page<ProductResponse> getAll(Pageable pageable) {
         if (pageable == null) {
             throw new IllegalArgumentException("El parámetro pageable no puede ser nulo");
         }
 
         Page<Product> page = repository.findAll(pageable);
-        logger.info("Productos recuperados: total={}, páginas={}", page.getTotalElements(), page.getTotalPages());
+        logger.info(ACCESS, "Productos recuperados: total={}, páginas={}", page.getTotalElements(), page.getTotalPages());
         return page.map(mapper::toResponse);
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public Slice<ProductResponse> getSlice(Pageable pageable) {
+        if (pageable == null) {
+            throw new IllegalArgumentException("El parámetro pageable no puede ser nulo");
+        }
+
+        Slice<Product> slice = repository.findAllBy(pageable);
+        logger.info(ACCESS, "Productos recuperados sin total: página={}, elementos={}, hayMás={}",
+                slice.getNumber(), slice.getNumberOfElements(), slice.hasNext());
+        return slice.map(mapper::toResponse);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ProductCursorPage getAfter(Long after, int size) {
+        if (after != null && after < 0) {
+            throw new IllegalArgumentException("El cursor no puede ser negativo");
+        }
+        if (size <= 0 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("El tamaño de página debe estar entre 1 y " + MAX_PAGE_SIZE);
+        }
+
+        // Una fila de más indica si hay página siguiente sin contar el resto
+        List<Product> products = repository.findAfter(after == null ? 0L : after, Limit.of(size + 1));
+        boolean hasNext = products.size() > size;
+        List<Product> page = hasNext ? products.subList(0, size) : products;
+        Long nextCursor = hasNext ? page.get(page.size() - 1).getId() : null;
+        logger.info(ACCESS, "Productos recuperados por cursor: after={}, elementos={}, siguiente={}", after, page.size(), nextCursor);
+        return ProductCursorPage.builder()
+                .content(page.stream().map(mapper::toResponse).toList())
+                .nextCursor(nextCursor)
+                .hasNext(hasNext)
+                .build();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ProductSearchPage search(String texto, boolean aproximado, String after, int size) {
+        if (texto == null || texto.isBlank()) {
+            throw new IllegalArgumentException("El texto de búsqueda no puede estar vacío");
+        }
+        if (texto.length() > MAX_SEARCH_LENGTH) {
+            throw new IllegalArgumentException("El texto de búsqueda no puede superar " + MAX_SEARCH_LENGTH + " caracteres");
+        }
+        if (size <= 0 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("El tamaño de página debe estar entre 1 y " + MAX_PAGE_SIZE);
+        }
+
+        String normalizado = texto.trim().toLowerCase(Locale.ROOT);
+        String afterNombre = "";
+        long afterId = 0;
+        if (after != null && !after.isBlank()) {
+            String[] cursor = decodeCursor(after);
+            afterId = Long.parseLong(cursor[0]);
+            afterNombre = cursor[1];
+        }
+
+        List<ProductSearchIndex.Hit> hits = searchIndex.search(normalizado, aproximado, afterNombre, afterId, size + 1);
+        boolean hasNext = hits.size() > size;
+        List<ProductSearchIndex.Hit> page = hasNext ? hits.subList(0, size) : hits;
+        ProductSearchIndex.Hit last = page.isEmpty() ? null : page.get(page.size() - 1);
+        // La clave de orden viene del índice: la base la calcula con lower(), no con las reglas de Java
+        String nextCursor = hasNext ? encodeCursor(last.product().getId(), last.sortKey()) : null;
+        logger.info(ACCESS, "Búsqueda de productos: texto='{}', aproximado={}, elementos={}, hayMás={}",
+                normalizado, aproximado, page.size(), hasNext);
+        return ProductSearchPage.builder()
+                .content(page.stream().map(hit -> mapper.toResponse(hit.product())).toList())
+                .nextCursor(nextCursor)
+                .hasNext(hasNext)
+                .build();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ProductSearchPage getByPriceRange(BigDecimal min, BigDecimal max, Sort.Direction direction, String after, int size) {
+        BigDecimal desde = min == null ? BigDecimal.ZERO : min;
+        BigDecimal hasta = max == null ? MAX_PRICE : max;
+        if (desde.compareTo(BigDecimal.ZERO) < 0 || hasta.compareTo(desde) < 0) {
+            throw new IllegalArgumentException("Rango de precios inválido");
+        }
+        if (size <= 0 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("El tamaño de página debe estar entre 1 y " + MAX_PAGE_SIZE);
+        }
+        boolean ascendente = direction == null || direction.isAscending();
+
+        // Sin cursor se empieza en el extremo del rango; los IDs son siempre mayores que 0
+        BigDecimal afterPrecio = ascendente ? desde : hasta;
+        long afterId = ascendente ? 0L : Long.MAX_VALUE;
+        if (after != null && !after.isBlank()) {
+            String[] cursor = decodeCursor(after);
+            afterId = Long.parseLong(cursor[0]);
+            afterPrecio = parsePrice(cursor[1]);
+        }
+
+        List<Product> products = ascendente
+                ? repository.findByPrecioAsc(desde, hasta, afterPrecio, afterId, size + 1)
+                : repository.findByPrecioDesc(desde, hasta, afterPrecio, afterId, size + 1);
+        boolean hasNext = products.size() > size;
+        List<Product> page = hasNext ? products.subList(0, size) : products;
+        Product last = page.isEmpty() ? null : page.get(page.size() - 1);
+        String nextCursor = hasNext ? encodeCursor(last.getId(), last.getPrecio().toPlainString()) : null;
+        logger.info(ACCESS, "Productos por precio: rango=[{}, {}], ascendente={}, elementos={}, hayMás={}",
+                desde, hasta, ascendente, page.size(), hasNext);
+        return ProductSearchPage.builder()
+                .content(page.stream().map(mapper::toResponse).toList())
+                .nextCursor(nextCursor)
+                .hasNext(hasNext)
+                .build();
+    }
+
+    @Override
+    @Transactional
     public ProductResponse update(Long id, ProductRequest updated) {
         if (id == null || id <= 0 ||
                 updated == null || updated.getNombre() == null ||
@@ -88,12 +274,17 @@ public class ProductServiceImpl implements ProductService {
         existing.setNombre(updated.getNombre());
         existing.setPrecio(updated.getPrecio());
 
-        Product saved = repository.save(existing);
-        logger.info("Producto actualizado: {}", saved);
+        // flush: la respuesta debe llevar la versión ya incrementada
+        Product saved = repository.saveAndFlush(existing);
+        registrarCambio(id, ProductChangeType.ACTUALIZADO);
+        searchIndex.index(saved);
+        cache.evict(id);
+        logger.info("Producto actualizado: {} {}", kv("productoId", id), kv("version", saved.getVersion()));
         return mapper.toResponse(saved);
     }
 
     @Override
+    @Transactional
     public void delete(Long id) {
         if (id == null || id <= 0) {
             throw new IllegalArgumentException("ID inválido para eliminar producto");
@@ -106,6 +297,52 @@ public class ProductServiceImpl implements ProductService {
                 });
 
         repository.delete(existing);
+        registrarCambio(id, ProductChangeType.ELIMINADO);
+        searchIndex.remove(id);
+        cache.evict(id);
         logger.info("Producto eliminado: ID={}", id);
     }
+
+    // Transacción de lectura y escritura: con réplicas, LazyConnectionDataSourceProxy la envía al primario
+    // y las consultas readOnly del repositorio se unen a ella
+    private <T> T readFromPrimary(Supplier<T> query) {
+        return transactionTemplate.execute(status -> query.get());
+    }
+
+    // Cursor opaco de los listados por keyset: "id:clave de orden" en Base64 URL-safe
+    static String encodeCursor(Long id, String key) {
+        String value = id + ":" + key;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static BigDecimal parsePrice(String value) {
+        try {
+            return new BigDecimal(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Cursor inválido", e);
+        }
+    }
+
+    private static String[] decodeCursor(String cursor) {
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = value.split(":", 2);
+            if (parts.length != 2 || Long.parseLong(parts[0]) < 0) {
+                throw new IllegalArgumentException("Cursor inválido");
+            }
+            return parts;
+        } catch (IllegalArgumentException e) {
+            // Incluye NumberFormatException y el Base64 mal formado
+            throw new IllegalArgumentException("Cursor inválido", e);
+        }
+    }
+
+    // Misma transacción que el cambio: o se confirman ambos o ninguno
+    private void registrarCambio(Long id, ProductChangeType tipo) {
+        outboxRepository.save(ProductOutboxEvent.builder()
+                .productId(id)
+                .tipo(tipo)
+                .creadoEn(Instant.now())
+                .build());
+    }
 }
@@ -0,0 +1,10 @@
+-- Se ejecuta después de que Hibernate actualice el esquema (spring.jpa.defer-datasource-initialization).
+-- Índices de la búsqueda por nombre (GET /api/v1/products/search) y por precio (GET /api/v1/products/by-price):
+--  * B-tree sobre lower(nombre) en collation "C": resuelve el prefijo (LIKE 'abc%') como un rango y ya devuelve
+--    las filas en el orden del cursor (nombre, id), así cada página se lee sin ordenar.
+--  * GIN de trigramas (pg_trgm): LIKE y similitud por palabra (<%) para las búsquedas tolerantes a errores.
+--  * B-tree sobre (precio, id): el rango de precios y el cursor en una sola lectura ordenada, en ambos sentidos.
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE INDEX IF NOT EXISTS idx_products_nombre_prefix ON products ((lower(nombre) COLLATE "C"), id);
+CREATE INDEX IF NOT EXISTS idx_products_nombre_trgm ON products USING gin (lower(nombre) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_products_precio_id ON products (precio, id);
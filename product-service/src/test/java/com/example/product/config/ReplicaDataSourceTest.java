@@ -0,0 +1,125 @@
+package com.example.product.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ReplicaDataSourceTest {
+
+    private DataSource primary;
+    private DataSource replica1;
+    private DataSource replica2;
+    private Connection primaryConnection;
+    private Connection connection1;
+    private Connection connection2;
+    private SimpleMeterRegistry meterRegistry;
+    private ReplicaDataSource dataSource;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        primary = mock(DataSource.class);
+        replica1 = mock(DataSource.class);
+        replica2 = mock(DataSource.class);
+        primaryConnection = mock(Connection.class);
+        connection1 = mock(Connection.class);
+        connection2 = mock(Connection.class);
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        when(replica1.getConnection()).thenReturn(connection1);
+        when(replica2.getConnection()).thenReturn(connection2);
+        lag(connection1, 0.0);
+        lag(connection2, 0.0);
+
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        replicas.put("replica-1", replica1);
+        replicas.put("replica-2", replica2);
+        meterRegistry = new SimpleMeterRegistry();
+        dataSource = new ReplicaDataSource(primary, replicas, Duration.ofSeconds(5), Duration.ofSeconds(1), meterRegistry);
+    }
+
+    /**
+     * Test que verifica que pedir una conexión con otras credenciales falle como indica JDBC.
+     */
+    @Test
+    void getConnectionWithCredentials_shouldNotBeSupported() {
+        assertThrows(SQLFeatureNotSupportedException.class, () -> dataSource.getConnection("otro", "secreto"));
+    }
+
+    /**
+     * Test que verifica que antes de la primera revisión las lecturas vayan al primario.
+     */
+    @Test
+    void getConnection_shouldUsePrimary_beforeFirstHealthCheck() throws SQLException {
+        assertSame(primaryConnection, dataSource.getConnection());
+        assertEquals(1.0, meterRegistry.get("product.datasource.replica.fallbacks").counter().count());
+    }
+
+    /**
+     * Test que verifica el reparto round-robin entre réplicas sanas.
+     */
+    @Test
+    void getConnection_shouldRoundRobinBetweenHealthyReplicas() throws SQLException {
+        dataSource.checkHealth();
+
+        assertSame(connection1, dataSource.getConnection());
+        assertSame(connection2, dataSource.getConnection());
+        assertSame(connection1, dataSource.getConnection());
+        verify(primary, never()).getConnection();
+    }
+
+    /**
+     * Test que verifica que una réplica con demasiado retraso se excluya y vuelva al alcanzar al primario.
+     */
+    @Test
+    void checkHealth_shouldExcludeLaggingReplicaUntilItCatchesUp() throws SQLException {
+        lag(connection2, 30.0);
+        dataSource.checkHealth();
+
+        assertTrue(dataSource.isAvailable("replica-1"));
+        assertFalse(dataSource.isAvailable("replica-2"));
+        assertSame(connection1, dataSource.getConnection());
+        assertSame(connection1, dataSource.getConnection());
+        assertEquals(30.0, meterRegistry.get("product.datasource.replica.lag").tag("replica", "replica-2").gauge().value());
+
+        lag(connection2, 1.0);
+        dataSource.checkHealth();
+
+        assertTrue(dataSource.isAvailable("replica-2"));
+    }
+
+    /**
+     * Test que verifica que si ninguna réplica responde las lecturas vuelvan al primario.
+     */
+    @Test
+    void getConnection_shouldFallBackToPrimary_whenReplicasFail() throws SQLException {
+        dataSource.checkHealth();
+        when(replica1.getConnection()).thenThrow(new SQLException("connection refused"));
+        when(replica2.getConnection()).thenThrow(new SQLException("connection refused"));
+
+        assertSame(primaryConnection, dataSource.getConnection());
+        assertFalse(dataSource.isAvailable("replica-1"));
+        assertFalse(dataSource.isAvailable("replica-2"));
+        assertEquals(0.0, meterRegistry.get("product.datasource.replica.available").tag("replica", "replica-1").gauge().value());
+    }
+
+    private static void lag(Connection connection, double seconds) throws SQLException {
+        Statement statement = mock(Statement.class);
+        ResultSet resultSet = mock(ResultSet.class);
+        when(connection.createStatement()).thenReturn(statement);
+        when(statement.executeQuery(ReplicaDataSource.LAG_QUERY)).thenReturn(resultSet);
+        when(resultSet.next()).thenReturn(true);
+        when(resultSet.getDouble(1)).thenReturn(seconds);
+    }
+}
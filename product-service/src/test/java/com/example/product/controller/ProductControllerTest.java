@@ -1,8 +1,12 @@
 package com.example.product.controller;
 
+import com.example.product.dto.ProductCursorPage;
+import com.example.product.dto.ProductImportReport;
 import com.example.product.dto.ProductRequest;
 import com.example.product.dto.ProductResponse;
+import com.example.product.dto.ProductSearchPage;
 import com.example.product.exception.ResourceNotFoundException;
+import com.example.product.service.ProductImportService;
 import com.example.product.service.ProductService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -12,7 +16,16 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
-
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
 import java.math.BigDecimal;
 import java.util.List;
 
@@ -28,17 +41,29 @@ class ProductControllerTest {
     @Mock
     private ProductService productService;
 
+    @Mock
+    private ProductImportService productImportService;
+
     @InjectMocks
     private ProductController productController;
 
     private ProductResponse sampleResponse;
 
+    private MockHttpServletRequest httpRequest;
+    private MockHttpServletResponse httpResponse;
+    private ServletWebRequest webRequest;
+
     @BeforeEach
     void setup() {
+        httpRequest = new MockHttpServletRequest("GET", "/api/v1/products");
+        httpResponse = new MockHttpServletResponse();
+        webRequest = new ServletWebRequest(httpRequest, httpResponse);
+
         sampleResponse = ProductResponse.builder()
                 .id(1L)
                 .nombre("Test Product")
                 .precio(new BigDecimal("1500.00"))
+                .version(3L)
                 .build();
     }
 
@@ -67,11 +92,64 @@ class ProductControllerTest {
     void testGetById_shouldReturnProduct() {
         when(productService.getById(1L)).thenReturn(sampleResponse);
 
-        ProductResponse result = productController.getById(1L);
+        ProductResponse result = productController.getById(1L, webRequest);
 
         assertNotNull(result);
         assertEquals(1L, result.getId());
         assertEquals("Test Product", result.getNombre());
+        assertEquals("\"3\"", httpResponse.getHeader(HttpHeaders.ETAG));
+    }
+
+    /**
+     * Test que verifica que se responda 304 sin cuerpo cuando el ETag coincide con la versión servida.
+     */
+    @Test
+    void testGetById_shouldReturnNotModified_whenEtagMatches() {
+        httpRequest.addHeader(HttpHeaders.IF_NONE_MATCH, "\"3\"");
+        when(productService.getById(1L)).thenReturn(sampleResponse);
+
+        ProductResponse result = productController.getById(1L, webRequest);
+
+        assertNull(result);
+        assertEquals(304, httpResponse.getStatus());
+        verify(productService, times(1)).getById(1L);
+    }
+
+    /**
+     * Test que verifica que un ETag de una versión anterior devuelva el producto completo.
+     */
+    @Test
+    void testGetById_shouldReturnProduct_whenEtagIsStale() {
+        httpRequest.addHeader(HttpHeaders.IF_NONE_MATCH, "\"2\"");
+        when(productService.getById(1L)).thenReturn(sampleResponse);
+
+        assertNotNull(productController.getById(1L, webRequest));
+        assertEquals(200, httpResponse.getStatus());
+    }
+
+    /**
+     * Test que verifica que se obtengan varios productos por lote desde el controlador.
+     */
+    @Test
+    void testGetByIds_shouldReturnProducts() {
+        when(productService.getByIds(List.of(1L, 2L))).thenReturn(List.of(sampleResponse));
+
+        List<ProductResponse> result = productController.getByIds(List.of(1L, 2L));
+
+        assertEquals(1, result.size());
+        assertEquals("Test Product", result.get(0).getNombre());
+    }
+
+    /**
+     * Test que verifica que se lance IllegalArgumentException si la lista de IDs está vacía.
+     */
+    @Test
+    void testGetByIds_shouldThrowException_whenIdsEmpty() {
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> {
+            productController.getByIds(List.of());
+        });
+
+        assertEquals("Debe indicar al menos un ID", exception.getMessage());
     }
 
     /**
@@ -82,11 +160,97 @@ class ProductControllerTest {
         Page<ProductResponse> pagedResponse = new PageImpl<>(List.of(sampleResponse));
         when(productService.getAll(PageRequest.of(0, 10))).thenReturn(pagedResponse);
 
-        Page<ProductResponse> result = productController.getAll(PageRequest.of(0, 10));
+        Page<ProductResponse> result = productController.getAll(PageRequest.of(0, 10), webRequest);
 
         assertNotNull(result);
         assertEquals(1, result.getTotalElements());
         assertEquals("Test Product", result.getContent().get(0).getNombre());
+        assertEquals("\"" + ProductController.pageFingerprint(pagedResponse) + "\"", httpResponse.getHeader(HttpHeaders.ETAG));
+    }
+
+    /**
+     * Test que verifica que se responda 304 en el listado cuando la página servida no cambió.
+     */
+    @Test
+    void testGetAll_shouldReturnNotModified_whenPageEtagMatches() {
+        Page<ProductResponse> pagedResponse = new PageImpl<>(List.of(sampleResponse));
+        httpRequest.addHeader(HttpHeaders.IF_NONE_MATCH, "\"" + ProductController.pageFingerprint(pagedResponse) + "\"");
+        when(productService.getAll(PageRequest.of(0, 10))).thenReturn(pagedResponse);
+
+        assertNull(productController.getAll(PageRequest.of(0, 10), webRequest));
+        assertEquals(304, httpResponse.getStatus());
+    }
+
+    /**
+     * Test que verifica que el ETag de la página cambie con la versión de un producto y con el total.
+     */
+    @Test
+    void testPageFingerprint_shouldChangeWithVersionsAndTotal() {
+        ProductResponse updated = ProductResponse.builder().id(1L).nombre("Test Product")
+                .precio(new BigDecimal("1500.00")).version(1L).build();
+        String original = ProductController.pageFingerprint(new PageImpl<>(List.of(sampleResponse), PageRequest.of(0, 1), 5));
+
+        assertEquals(original, ProductController.pageFingerprint(new PageImpl<>(List.of(sampleResponse), PageRequest.of(0, 1), 5)));
+        assertNotEquals(original, ProductController.pageFingerprint(new PageImpl<>(List.of(updated), PageRequest.of(0, 1), 5)));
+        assertNotEquals(original, ProductController.pageFingerprint(new PageImpl<>(List.of(sampleResponse), PageRequest.of(0, 1), 6)));
+    }
+
+    /**
+     * Test que verifica que el listado sin total delegue en el servicio.
+     */
+    @Test
+    void testGetSlice_shouldReturnSliceOfProducts() {
+        Slice<ProductResponse> slice = new SliceImpl<>(List.of(sampleResponse), PageRequest.of(0, 1), true);
+        when(productService.getSlice(PageRequest.of(0, 1))).thenReturn(slice);
+
+        Slice<ProductResponse> result = productController.getSlice(PageRequest.of(0, 1));
+
+        assertTrue(result.hasNext());
+        assertEquals("Test Product", result.getContent().get(0).getNombre());
+    }
+
+    /**
+     * Test que verifica que el listado por cursor devuelva la página y el cursor siguiente.
+     */
+    @Test
+    void testGetAfter_shouldReturnCursorPage() {
+        ProductCursorPage page = new ProductCursorPage(List.of(sampleResponse), 1L, true);
+        when(productService.getAfter(0L, 1)).thenReturn(page);
+
+        ProductCursorPage result = productController.getAfter(0L, 1);
+
+        assertEquals(1L, result.getNextCursor());
+        assertEquals(1, result.getContent().size());
+    }
+
+    /**
+     * Test que verifica que la búsqueda por nombre delegue en el servicio con sus parámetros.
+     */
+    @Test
+    void testSearch_shouldReturnSearchPage() {
+        ProductSearchPage page = new ProductSearchPage(List.of(sampleResponse), "abc", true);
+        when(productService.search("test", true, null, 10)).thenReturn(page);
+
+        ProductSearchPage result = productController.search("test", true, null, 10);
+
+        assertEquals("abc", result.getNextCursor());
+        assertEquals("Test Product", result.getContent().get(0).getNombre());
+    }
+
+    /**
+     * Test que verifica que el listado por precio convierta el sentido del orden sin importar mayúsculas.
+     */
+    @Test
+    void testGetByPriceRange_shouldParseDirection() {
+        ProductSearchPage page = new ProductSearchPage(List.of(sampleResponse), null, false);
+        when(productService.getByPriceRange(BigDecimal.ONE, BigDecimal.TEN, Sort.Direction.DESC, null, 5)).thenReturn(page);
+
+        ProductSearchPage result = productController.getByPriceRange(BigDecimal.ONE, BigDecimal.TEN, "DESC", null, 5);
+
+        assertFalse(result.isHasNext());
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> productController.getByPriceRange(null, null, "arriba", null, 5));
+        assertEquals("El sentido debe ser asc o desc", exception.getMessage());
     }
 
     /**
@@ -133,7 +297,7 @@ class ProductControllerTest {
         when(productService.getById(missingId)).thenThrow(new ResourceNotFoundException("Producto no encontrado"));
 
         ResourceNotFoundException exception = assertThrows(ResourceNotFoundException.class, () -> {
-            productController.getById(missingId);
+            productController.getById(missingId, webRequest);
         });
 
         assertEquals("Producto no encontrado", exception.getMessage());
@@ -191,7 +355,7 @@ class ProductControllerTest {
     @Test
     void testGetById_shouldThrowException_whenIdIsNull() {
         IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> {
-            productController.getById(null);
+            productController.getById(null, webRequest);
         });
 
         assertEquals("El ID debe ser mayor que cero", exception.getMessage());
@@ -203,7 +367,7 @@ class ProductControllerTest {
     @Test
     void testGetById_shouldThrowException_whenIdIsInvalid() {
         IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> {
-            productController.getById(0L);
+            productController.getById(0L, webRequest);
         });
 
         assertEquals("El ID debe ser mayor que cero", exception.getMessage());
@@ -249,5 +413,17 @@ class ProductControllerTest {
         assertEquals("El ID debe ser mayor que cero", exception.getMessage());
     }
 
-
+    /**
+     * Test que verifica que la importación CSV y la NDJSON se deleguen al servicio con su formato.
+     */
+    @Test
+    void testImport_shouldDelegateWithFormat() {
+        InputStream body = new ByteArrayInputStream(new byte[0]);
+        ProductImportReport report = ProductImportReport.builder().completo(true).build();
+        when(productImportService.importProducts(body, ProductImportService.Format.CSV)).thenReturn(report);
+        when(productImportService.importProducts(body, ProductImportService.Format.NDJSON)).thenReturn(report);
+
+        assertSame(report, productController.importCsv(body));
+        assertSame(report, productController.importNdjson(body));
+    }
 }
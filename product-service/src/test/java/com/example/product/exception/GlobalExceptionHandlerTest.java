@@ -1,23 +1,43 @@
 package com.example.product.exception;
 
+import com.example.product.controller.ProductController;
+import com.example.product.service.ProductImportService;
+import com.example.product.service.ProductService;
 import jakarta.servlet.http.HttpServletRequest;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
 import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 class GlobalExceptionHandlerTest {
 
     private GlobalExceptionHandler exceptionHandler;
+    private ProductService productService;
+    private ProductImportService productImportService;
+    private MockMvc mockMvc;
 
     @BeforeEach
     void setUp() {
         exceptionHandler = new GlobalExceptionHandler();
+        productService = mock(ProductService.class);
+        productImportService = mock(ProductImportService.class);
+        ProductController controller = new ProductController();
+        ReflectionTestUtils.setField(controller, "productService", productService);
+        ReflectionTestUtils.setField(controller, "productImportService", productImportService);
+        mockMvc = MockMvcBuilders.standaloneSetup(controller).setControllerAdvice(exceptionHandler).build();
     }
 
     /**
@@ -59,4 +79,106 @@ class GlobalExceptionHandlerTest {
         assertEquals("Internal Server Error", body.get("error"));
         assertNotNull(body.get("timestamp"));
     }
+
+    /**
+     * Test que verifica la respuesta cuando se lanza IllegalArgumentException.
+     */
+    @Test
+    void handleBadRequest_shouldReturn400WithMessage() {
+        IllegalArgumentException ex = new IllegalArgumentException("Debe indicar al menos un ID");
+        HttpServletRequest request = mock(HttpServletRequest.class);
+        when(request.getRequestURI()).thenReturn("/api/v1/products/batch");
+
+        ResponseEntity<Object> response = exceptionHandler.handleBadRequest(ex, request);
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        Map<String, Object> body = (Map<String, Object>) response.getBody();
+        assertEquals(400, body.get("status"));
+        assertEquals("Debe indicar al menos un ID", body.get("message"));
+        assertEquals("Bad Request", body.get("error"));
+    }
+
+    /**
+     * Test que verifica que una consulta por lote demasiado grande llegue al cliente como 400 y no como 500.
+     */
+    @Test
+    void batch_shouldReturn400_whenServiceRejectsIds() throws Exception {
+        when(productService.getByIds(anyList()))
+                .thenThrow(new IllegalArgumentException("No se pueden consultar más de 500 productos por solicitud"));
+
+        mockMvc.perform(get("/api/v1/products/batch").param("ids", "1,2,3"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("No se pueden consultar más de 500 productos por solicitud"));
+    }
+
+    /**
+     * Test que verifica que un cursor negativo o un tamaño fuera de rango en /cursor respondan 400.
+     */
+    @Test
+    void cursor_shouldReturn400_whenCursorOrSizeIsInvalid() throws Exception {
+        when(productService.getAfter(-1L, 20)).thenThrow(new IllegalArgumentException("El cursor no puede ser negativo"));
+        when(productService.getAfter(null, 501))
+                .thenThrow(new IllegalArgumentException("El tamaño de página debe estar entre 1 y 500"));
+
+        mockMvc.perform(get("/api/v1/products/cursor").param("after", "-1"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("El cursor no puede ser negativo"));
+        mockMvc.perform(get("/api/v1/products/cursor").param("size", "501"))
+                .andExpect(status().isBadRequest());
+    }
+
+    /**
+     * Test que verifica que un texto vacío, un cursor mal formado o un tamaño inválido en /search respondan 400.
+     */
+    @Test
+    void search_shouldReturn400_whenQueryCursorOrSizeIsInvalid() throws Exception {
+        when(productService.search(eq(" "), anyBoolean(), any(), anyInt()))
+                .thenThrow(new IllegalArgumentException("El texto de búsqueda no puede estar vacío"));
+        when(productService.search(eq("lap"), anyBoolean(), eq("%%%"), anyInt()))
+                .thenThrow(new IllegalArgumentException("Cursor inválido"));
+        when(productService.search(eq("lap"), anyBoolean(), isNull(), eq(0)))
+                .thenThrow(new IllegalArgumentException("El tamaño de página debe estar entre 1 y 500"));
+
+        mockMvc.perform(get("/api/v1/products/search").param("q", " "))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("El texto de búsqueda no puede estar vacío"));
+        mockMvc.perform(get("/api/v1/products/search").param("q", "lap").param("after", "%%%"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Cursor inválido"));
+        mockMvc.perform(get("/api/v1/products/search").param("q", "lap").param("size", "0"))
+                .andExpect(status().isBadRequest());
+    }
+
+    /**
+     * Test que verifica que un sentido desconocido o un rango con min mayor que max en /by-price respondan 400.
+     */
+    @Test
+    void byPrice_shouldReturn400_whenDirectionOrRangeIsInvalid() throws Exception {
+        when(productService.getByPriceRange(any(), any(), any(), any(), anyInt()))
+                .thenThrow(new IllegalArgumentException("Rango de precios inválido"));
+
+        mockMvc.perform(get("/api/v1/products/by-price").param("direction", "arriba"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("El sentido debe ser asc o desc"));
+        mockMvc.perform(get("/api/v1/products/by-price").param("min", "10").param("max", "1"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Rango de precios inválido"));
+    }
+
+    /**
+     * Test que verifica que importar un CSV vacío o sin las columnas nombre y precio responda 400.
+     */
+    @Test
+    void importCsv_shouldReturn400_whenFileIsEmptyOrHeaderIsInvalid() throws Exception {
+        when(productImportService.importProducts(any(), eq(ProductImportService.Format.CSV)))
+                .thenThrow(new IllegalArgumentException("El CSV está vacío"))
+                .thenThrow(new IllegalArgumentException("La cabecera del CSV debe incluir las columnas nombre y precio"));
+
+        mockMvc.perform(post("/api/v1/products/import").contentType("text/csv").content(""))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("El CSV está vacío"));
+        mockMvc.perform(post("/api/v1/products/import").contentType("text/csv").content("name,price\nLaptop,10\n"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("La cabecera del CSV debe incluir las columnas nombre y precio"));
+    }
 }
@@ -0,0 +1,75 @@
+package com.example.product.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.core.spi.FilterReply;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoggerRateSamplingFilterTest {
+
+    private LoggerContext context;
+    private LoggerRateSamplingFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        context = new LoggerContext();
+        filter = new LoggerRateSamplingFilter();
+        filter.setContext(context);
+        filter.setMaxPerSecond(2);
+        filter.start();
+    }
+
+    /**
+     * Test que verifica que pasado el cupo por segundo se descarten los INFO de lectura de cada logger.
+     */
+    @Test
+    void decide_shouldDenyInfoOverTheLimit() {
+        Logger logger = context.getLogger("com.example.product.service.ProductServiceImpl");
+
+        int passed = 0;
+        for (int i = 0; i < 100; i++) {
+            if (decide(logger, Level.INFO) == FilterReply.NEUTRAL) {
+                passed++;
+            }
+        }
+
+        // Como mucho dos ventanas de un segundo si el bucle cruza el cambio de segundo
+        assertTrue(passed >= 2 && passed <= 4, "Pasaron " + passed);
+        assertEquals(100 - passed, filter.getDropped(logger.getName()));
+    }
+
+    /**
+     * Test que verifica que WARN, ERROR y los INFO sin la marca de lectura no se muestreen.
+     */
+    @Test
+    void decide_shouldNeverDenyWarningsOrUnmarkedEvents() {
+        filter.setMaxPerSecond(0);
+        Logger logger = context.getLogger("com.example.product.service.ProductServiceImpl");
+
+        assertEquals(FilterReply.DENY, decide(logger, Level.INFO));
+        assertEquals(FilterReply.NEUTRAL, decide(logger, Level.WARN));
+        assertEquals(FilterReply.NEUTRAL, decide(logger, Level.ERROR));
+        assertEquals(FilterReply.NEUTRAL, filter.decide(null, logger, Level.INFO, "Producto actualizado: {}", new Object[]{1L}, null));
+        assertEquals(1, filter.getDropped(logger.getName()));
+    }
+
+    /**
+     * Test que verifica que consultar isInfoEnabled no consuma cupo.
+     */
+    @Test
+    void decide_shouldIgnoreLevelChecks() {
+        filter.setMaxPerSecond(0);
+        Logger logger = context.getLogger("com.example.product.service.ProductServiceImpl");
+
+        assertEquals(FilterReply.NEUTRAL, filter.decide(LogMarkers.ACCESS, logger, Level.INFO, null, null, null));
+        assertEquals(0, filter.getDropped(logger.getName()));
+    }
+
+    private FilterReply decide(Logger logger, Level level) {
+        return filter.decide(LogMarkers.ACCESS, logger, level, "Producto recuperado: {}", new Object[]{1L}, null);
+    }
+}
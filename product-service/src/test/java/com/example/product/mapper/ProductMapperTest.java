@@ -44,6 +44,7 @@ class ProductMapperTest {
                 .id(5L)
                 .nombre("Teclado Mecánico")
                 .precio(new BigDecimal("129.50"))
+                .version(2L)
                 .build();
 
         ProductResponse response = mapper.toResponse(product);
@@ -52,5 +53,6 @@ class ProductMapperTest {
         assertEquals(5L, response.getId());
         assertEquals("Teclado Mecánico", response.getNombre());
         assertEquals(new BigDecimal("129.50"), response.getPrecio());
+        assertEquals(2L, response.getVersion());
     }
 }
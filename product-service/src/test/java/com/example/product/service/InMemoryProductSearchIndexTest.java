@@ -0,0 +1,126 @@
+package com.example.product.service;
+
+import com.example.product.model.Product;
+import com.example.product.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Limit;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.when;
+
+class InMemoryProductSearchIndexTest {
+
+    @Mock
+    private ProductRepository repository;
+
+    @InjectMocks
+    private InMemoryProductSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(repository.findAfter(anyLong(), any(Limit.class))).thenReturn(List.of());
+        when(repository.findAfter(0L, Limit.of(1000))).thenReturn(List.of(
+                product(1L, "Smartphone Samsung"),
+                product(2L, "Smart TV LG"),
+                product(3L, "Teclado mecánico"),
+                product(4L, "Funda para smartphone"),
+                product(5L, "Smartwatch")));
+        index.load();
+    }
+
+    /**
+     * Test que verifica que la carga inicial indexe todos los productos.
+     */
+    @Test
+    void load_shouldIndexAllProducts() {
+        assertEquals(5, index.size());
+    }
+
+    /**
+     * Test que verifica que tras una importación se indexen los productos con ID mayor que el indicado.
+     */
+    @Test
+    void indexAfter_shouldIndexImportedProducts() {
+        when(repository.findAfter(5L, Limit.of(1000))).thenReturn(List.of(product(6L, "Smart Band")));
+
+        index.indexAfter(5L);
+
+        assertEquals(6, index.size());
+        assertEquals(List.of(6L, 2L), ids(index.search("smart ", false, "", 0L, 10)));
+    }
+
+    /**
+     * Test que verifica que el prefijo devuelva los nombres que empiezan por el texto, ordenados por nombre e ID.
+     */
+    @Test
+    void search_prefix_shouldReturnMatchesInCursorOrder() {
+        List<ProductSearchIndex.Hit> result = index.search("smart", false, "", 0L, 10);
+
+        assertEquals(List.of(2L, 1L, 5L), ids(result));
+    }
+
+    /**
+     * Test que verifica que el cursor continúe después del último resultado de la página anterior.
+     */
+    @Test
+    void search_prefix_shouldContinueAfterCursor() {
+        List<ProductSearchIndex.Hit> first = index.search("smart", false, "", 0L, 2);
+        ProductSearchIndex.Hit last = first.get(first.size() - 1);
+
+        List<ProductSearchIndex.Hit> next = index.search("smart", false, last.sortKey(), last.product().getId(), 2);
+
+        assertEquals(List.of(2L, 1L), ids(first));
+        assertEquals(List.of(5L), ids(next));
+    }
+
+    /**
+     * Test que verifica que la búsqueda aproximada tolere errores de tipeo y encuentre palabras en medio del nombre.
+     */
+    @Test
+    void search_fuzzy_shouldTolerateTypos() {
+        assertEquals(List.of(1L), ids(index.search("samsnug", true, "", 0L, 10)));
+        assertEquals(List.of(3L), ids(index.search("teclaod", true, "", 0L, 10)));
+        assertEquals(List.of(4L, 2L, 1L, 5L), ids(index.search("smart", true, "", 0L, 10)));
+        assertTrue(index.search("samsnug", false, "", 0L, 10).isEmpty());
+    }
+
+    /**
+     * Test que verifica que un cambio de nombre o una baja se reflejen en el índice.
+     */
+    @Test
+    void indexAndRemove_shouldKeepIndexUpToDate() {
+        index.index(product(3L, "Smart teclado"));
+        index.remove(5L);
+
+        assertEquals(List.of(3L, 2L, 1L), ids(index.search("smart", false, "", 0L, 10)));
+        assertTrue(index.search("teclado m", false, "", 0L, 10).isEmpty());
+        assertEquals(4, index.size());
+    }
+
+    /**
+     * Test que verifica el corte de la distancia de edición.
+     */
+    @Test
+    void editDistance_shouldStopAboveMaximum() {
+        assertEquals(1, InMemoryProductSearchIndex.editDistance("samsung", "samsnng", 2));
+        assertEquals(3, InMemoryProductSearchIndex.editDistance("abc", "xyzabc", 2));
+    }
+
+    private static Product product(Long id, String nombre) {
+        return new Product(id, nombre, BigDecimal.TEN, 0L);
+    }
+
+    private static List<Long> ids(List<ProductSearchIndex.Hit> hits) {
+        return hits.stream().map(hit -> hit.product().getId()).toList();
+    }
+}
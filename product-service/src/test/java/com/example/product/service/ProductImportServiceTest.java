@@ -0,0 +1,245 @@
+package com.example.product.service;
+
+import com.example.product.dto.ProductImportError;
+import com.example.product.dto.ProductImportReport;
+import com.example.product.repository.ProductRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.postgresql.copy.CopyManager;
+
+import javax.sql.DataSource;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ProductImportServiceTest {
+
+    private static final Validator VALIDATOR = Validation.buildDefaultValidatorFactory().getValidator();
+
+    private DataSource dataSource;
+    private Connection connection;
+    private CopyManager copyManager;
+    private ProductRepository repository;
+    private ProductSearchIndex searchIndex;
+
+    // Contenido enviado en cada COPY, en orden
+    private final List<String> batches = new ArrayList<>();
+    private final ByteArrayOutputStream current = new ByteArrayOutputStream();
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        dataSource = mock(DataSource.class);
+        connection = mock(Connection.class);
+        PGConnection pgConnection = mock(PGConnection.class);
+        copyManager = mock(CopyManager.class);
+        repository = mock(ProductRepository.class);
+        searchIndex = mock(ProductSearchIndex.class);
+
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.unwrap(PGConnection.class)).thenReturn(pgConnection);
+        when(pgConnection.getCopyAPI()).thenReturn(copyManager);
+        when(copyManager.copyIn(ProductImportService.COPY_SQL)).thenAnswer(invocation -> copyIn());
+        when(repository.findMaxId()).thenReturn(10L);
+    }
+
+    private CopyIn copyIn() throws SQLException {
+        CopyIn copyIn = mock(CopyIn.class);
+        doAnswer(invocation -> {
+            current.write(invocation.getArgument(0), invocation.getArgument(1), invocation.getArgument(2));
+            return null;
+        }).when(copyIn).writeToCopy(any(byte[].class), anyInt(), anyInt());
+        when(copyIn.endCopy()).thenAnswer(invocation -> {
+            String batch = current.toString(StandardCharsets.UTF_8);
+            current.reset();
+            batches.add(batch);
+            return batch.lines().count();
+        });
+        return copyIn;
+    }
+
+    private ProductImportService service(int batchSize, int maxReportedErrors) {
+        return new ProductImportService(dataSource, repository, searchIndex, VALIDATOR, new ObjectMapper(),
+                batchSize, maxReportedErrors);
+    }
+
+    private static ByteArrayInputStream body(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Test que verifica que las filas válidas de un CSV se carguen con COPY y que las inválidas
+     * se informen con su número de fila.
+     */
+    @Test
+    void importCsv_shouldCopyValidRowsAndReportInvalidOnes() {
+        String csv = """
+                nombre,precio
+                Laptop,1500.00
+                "Mouse, inalámbrico ""pro""",25.5
+                ,10
+                Teclado,-3
+                Monitor,abc
+                Cable,1,extra
+                """;
+
+        ProductImportReport report = service(1000, 100).importProducts(body(csv), ProductImportService.Format.CSV);
+
+        assertTrue(report.isCompleto());
+        assertEquals(6, report.getFilasLeidas());
+        assertEquals(2, report.getImportados());
+        assertEquals(4, report.getRechazados());
+        assertEquals(6, report.getUltimaFilaConfirmada());
+        assertEquals(List.of(3L, 4L, 5L, 6L), report.getErrores().stream().map(ProductImportError::getFila).toList());
+        assertTrue(report.getErrores().get(1).getMensaje().startsWith("precio:"));
+        assertEquals("precio: no es un número válido", report.getErrores().get(2).getMensaje());
+        assertEquals(List.of("\"Laptop\",1500.00,0\n\"Mouse, inalámbrico \"\"pro\"\"\",25.5,0\n"), batches);
+        verify(searchIndex).indexAfter(10L);
+    }
+
+    /**
+     * Test que verifica que en NDJSON una línea mal formada se rechace sin detener la importación
+     * y que las líneas vacías no cuenten como filas.
+     */
+    @Test
+    void importNdjson_shouldRejectMalformedLinesAndContinue() {
+        String ndjson = """
+                {"nombre":"Laptop","precio":1500.00}
+
+                {"nombre":"Mouse",
+                {"nombre":"Tablet","precio":"300.10"}
+                """;
+
+        ProductImportReport report = service(1000, 100).importProducts(body(ndjson), ProductImportService.Format.NDJSON);
+
+        assertTrue(report.isCompleto());
+        assertEquals(3, report.getFilasLeidas());
+        assertEquals(2, report.getImportados());
+        assertEquals(1, report.getRechazados());
+        assertEquals(2, report.getErrores().get(0).getFila());
+        assertTrue(report.getErrores().get(0).getMensaje().startsWith("JSON inválido"));
+        assertEquals(List.of("\"Laptop\",1500.00,0\n\"Tablet\",300.10,0\n"), batches);
+    }
+
+    /**
+     * Test que verifica que cada lote de batch-size productos se cargue en un COPY propio, con una conexión
+     * que se devuelve al pool al terminar el lote.
+     */
+    @Test
+    void importProducts_shouldSplitIntoBatches() throws SQLException {
+        StringBuilder csv = new StringBuilder("precio,nombre\n");
+        for (int i = 1; i <= 5; i++) {
+            csv.append(i).append(",Producto ").append(i).append('\n');
+        }
+
+        ProductImportReport report = service(2, 100).importProducts(body(csv.toString()), ProductImportService.Format.CSV);
+
+        assertEquals(5, report.getImportados());
+        assertEquals(5, report.getUltimaFilaConfirmada());
+        assertEquals(3, batches.size());
+        assertEquals("\"Producto 5\",5,0\n", batches.get(2));
+        verify(copyManager, times(3)).copyIn(ProductImportService.COPY_SQL);
+        verify(connection, times(3)).setAutoCommit(true);
+        verify(connection, times(3)).close();
+    }
+
+    /**
+     * Test que verifica que mientras se recibe el archivo no se tome ninguna conexión: si la subida se corta
+     * antes de completar un lote, la base ni se entera.
+     */
+    @Test
+    void importProducts_shouldNotHoldConnectionWhileReadingUpload() throws SQLException {
+        InputStream brokenUpload = new SequenceInputStream(body("nombre,precio\nA1,1\nA2,2\n"), new InputStream() {
+            @Override
+            public int read() throws IOException {
+                throw new IOException("Conexión cerrada por el cliente");
+            }
+        });
+
+        ProductImportReport report = service(1000, 100).importProducts(brokenUpload, ProductImportService.Format.CSV);
+
+        assertFalse(report.isCompleto());
+        assertEquals(0, report.getImportados());
+        verify(dataSource, never()).getConnection();
+    }
+
+    /**
+     * Test que verifica que el reporte incluya como máximo max-reported-errors errores y cuente el resto.
+     */
+    @Test
+    void importProducts_shouldCapReportedErrors() throws SQLException {
+        String ndjson = """
+                {"nombre":"A","precio":1}
+                {"nombre":"Mouse","precio":0}
+                {"precio":5}
+                """;
+
+        ProductImportReport report = service(1000, 1).importProducts(body(ndjson), ProductImportService.Format.NDJSON);
+
+        assertEquals(3, report.getRechazados());
+        assertEquals(1, report.getErrores().size());
+        assertEquals(2, report.getErroresOmitidos());
+        assertEquals(3, report.getUltimaFilaConfirmada());
+        verify(copyManager, never()).copyIn(anyString());
+        verify(searchIndex, never()).indexAfter(anyLong());
+    }
+
+    /**
+     * Test que verifica que si falla un lote se conserven los anteriores y el reporte indique
+     * la última fila confirmada.
+     */
+    @Test
+    void importProducts_shouldKeepConfirmedBatchesWhenCopyFails() throws SQLException {
+        CopyIn failing = mock(CopyIn.class);
+        when(failing.endCopy()).thenThrow(new SQLException("numeric field overflow"));
+        when(failing.isActive()).thenReturn(true);
+        when(copyManager.copyIn(ProductImportService.COPY_SQL))
+                .thenAnswer(invocation -> copyIn())
+                .thenReturn(failing);
+        String csv = "nombre,precio\nA1,1\nA2,2\nA3,3\nA4,4\n";
+
+        ProductImportReport report = service(2, 100).importProducts(body(csv), ProductImportService.Format.CSV);
+
+        assertFalse(report.isCompleto());
+        assertEquals(2, report.getImportados());
+        assertEquals(2, report.getUltimaFilaConfirmada());
+        assertEquals(4, report.getErrores().get(0).getFila());
+        assertTrue(report.getErrores().get(0).getMensaje().contains("numeric field overflow"));
+        verify(failing).cancelCopy();
+        verify(searchIndex).indexAfter(10L);
+    }
+
+    /**
+     * Test que verifica que un CSV vacío o sin las columnas obligatorias se rechace como solicitud inválida,
+     * sin consultar la base ni abrir ningún COPY.
+     */
+    @Test
+    void importCsv_shouldRejectEmptyFileOrMissingHeader() throws SQLException {
+        ProductImportService service = service(1000, 100);
+
+        IllegalArgumentException sinCabecera = assertThrows(IllegalArgumentException.class,
+                () -> service.importProducts(body("name,price\nLaptop,10\n"), ProductImportService.Format.CSV));
+        IllegalArgumentException vacio = assertThrows(IllegalArgumentException.class,
+                () -> service.importProducts(body(""), ProductImportService.Format.CSV));
+
+        assertTrue(sinCabecera.getMessage().contains("nombre y precio"));
+        assertEquals("El CSV está vacío", vacio.getMessage());
+        verify(repository, never()).findMaxId();
+        verify(copyManager, never()).copyIn(anyString());
+    }
+}
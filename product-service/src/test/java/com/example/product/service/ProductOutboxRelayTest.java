@@ -0,0 +1,100 @@
+package com.example.product.service;
+
+import com.example.product.model.ProductChangeType;
+import com.example.product.model.ProductOutboxEvent;
+import com.example.product.repository.ProductOutboxRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.client.RestClient;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.*;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withServerError;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+class ProductOutboxRelayTest {
+
+    private static final String SUBSCRIBER = "http://inventory-service:8082/internal/product-events";
+
+    private ProductOutboxRepository outboxRepository;
+    private PlatformTransactionManager transactionManager;
+    private MockRestServiceServer server;
+    private ProductOutboxRelay relay;
+
+    @BeforeEach
+    void setUp() {
+        outboxRepository = mock(ProductOutboxRepository.class);
+        RestClient.Builder builder = RestClient.builder();
+        server = MockRestServiceServer.bindTo(builder).build();
+        transactionManager = mock(PlatformTransactionManager.class);
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        relay = new ProductOutboxRelay(outboxRepository, transactionTemplate, builder, List.of(SUBSCRIBER), 10,
+                500, Duration.ofSeconds(30));
+    }
+
+    private ProductOutboxEvent row(long id, long productId, ProductChangeType tipo) {
+        return new ProductOutboxEvent(id, productId, tipo, Instant.parse("2024-01-01T00:00:00Z"), null);
+    }
+
+    /**
+     * Test que verifica que los cambios de un mismo producto se envían una sola vez y que el lote se borra tras
+     * publicarlo, reclamándolo y borrándolo en transacciones cortas separadas del envío.
+     */
+    @Test
+    void relay_shouldPublishCoalescedBatchAndDeleteRows() {
+        List<ProductOutboxEvent> rows = List.of(
+                row(1, 5, ProductChangeType.ACTUALIZADO),
+                row(2, 6, ProductChangeType.ACTUALIZADO),
+                row(3, 5, ProductChangeType.ELIMINADO));
+        when(outboxRepository.claimNextBatch(10, 30_000L)).thenReturn(rows);
+
+        server.expect(requestTo(SUBSCRIBER))
+                .andExpect(method(HttpMethod.POST))
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].productId").value(5))
+                .andExpect(jsonPath("$[0].tipo").value("ELIMINADO"))
+                .andRespond(withSuccess());
+
+        relay.relay();
+
+        server.verify();
+        verify(outboxRepository).deleteAllByIdInBatch(List.of(1L, 2L, 3L));
+        verify(transactionManager, times(2)).commit(any());
+    }
+
+    /**
+     * Test que verifica que si un suscriptor falla el lote se conserva y se libera su lease para reintentarlo.
+     */
+    @Test
+    void relay_shouldKeepRowsWhenSubscriberFails() {
+        when(outboxRepository.claimNextBatch(10, 30_000L)).thenReturn(List.of(row(1, 5, ProductChangeType.ACTUALIZADO)));
+        server.expect(requestTo(SUBSCRIBER)).andRespond(withServerError());
+
+        relay.relay();
+
+        server.verify();
+        verify(outboxRepository).releaseClaim(List.of(1L));
+        verify(outboxRepository, never()).deleteAllByIdInBatch(anyList());
+    }
+
+    /**
+     * Test que verifica que no se envía nada cuando no hay cambios pendientes.
+     */
+    @Test
+    void relay_shouldDoNothingWhenOutboxIsEmpty() {
+        when(outboxRepository.claimNextBatch(10, 30_000L)).thenReturn(List.of());
+
+        relay.relay();
+
+        server.verify();
+        verify(outboxRepository, never()).deleteAllByIdInBatch(anyList());
+    }
+}
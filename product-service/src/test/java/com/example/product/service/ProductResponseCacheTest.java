@@ -0,0 +1,164 @@
+package com.example.product.service;
+
+import com.example.product.dto.ProductResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ProductResponseCacheTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private SimpleMeterRegistry meterRegistry;
+    private ProductResponseCache cache;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new ProductResponseCache(meterRegistry, jdbcTemplate, 100, Duration.ofMinutes(10), Duration.ofSeconds(10));
+        cache.get(1L, id -> new ProductResponse(id, "Tablet", BigDecimal.TEN, 0L));
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    /**
+     * Test que verifica que las estadísticas de la caché se publiquen como métricas.
+     */
+    @Test
+    void get_shouldPublishCacheStatistics() {
+        cache.get(1L, id -> fail("No debería volver a cargarse"));
+
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", ProductResponseCache.CACHE_NAME)
+                .tag("result", "hit").functionCounter().count());
+    }
+
+    /**
+     * Test que verifica que una carga fallida no quede en la caché y que la siguiente vuelva a consultar.
+     */
+    @Test
+    void get_shouldNotKeepFailedLoads() {
+        RuntimeException failure = new IllegalStateException("sin conexión");
+
+        RuntimeException thrown = assertThrows(RuntimeException.class, () -> cache.get(2L, id -> {
+            throw failure;
+        }));
+
+        assertSame(failure, thrown);
+        assertNull(cache.getIfPresent(2L));
+        assertEquals("Monitor", cache.get(2L, id -> new ProductResponse(id, "Monitor", BigDecimal.ONE, 0L)).getNombre());
+    }
+
+    /**
+     * Test que verifica que un ID que otro hilo está cargando espere esa carga en lugar de repetirla.
+     */
+    @Test
+    void get_shouldShareInFlightLoad() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger loads = new AtomicInteger();
+        Function<Long, ProductResponse> loader = id -> {
+            loads.incrementAndGet();
+            loading.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return new ProductResponse(id, "Teclado", BigDecimal.ONE, 0L);
+        };
+
+        CompletableFuture<ProductResponse> first = CompletableFuture.supplyAsync(() -> cache.get(3L, loader));
+        assertTrue(loading.await(5, TimeUnit.SECONDS));
+        CompletableFuture<ProductResponse> second = CompletableFuture.supplyAsync(() -> cache.get(3L, loader));
+        release.countDown();
+
+        assertEquals("Teclado", first.get(5, TimeUnit.SECONDS).getNombre());
+        assertEquals("Teclado", second.get(5, TimeUnit.SECONDS).getNombre());
+        assertEquals(1, loads.get());
+    }
+
+    /**
+     * Test que verifica que dentro de una transacción la invalidación local espere al commit
+     * y que el aviso a las demás instancias se envíe por NOTIFY.
+     */
+    @Test
+    void evict_shouldInvalidateAfterCommitAndNotifyOtherInstances() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        cache.evict(1L);
+
+        assertNotNull(cache.getIfPresent(1L));
+        verify(jdbcTemplate).queryForObject("SELECT pg_notify(?, ?)", String.class, ProductResponseCache.CHANNEL, "1");
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertNull(cache.getIfPresent(1L));
+    }
+
+    /**
+     * Test que verifica que un rollback deje la entrada en caché.
+     */
+    @Test
+    void evict_shouldKeepEntry_whenTransactionRollsBack() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        cache.evict(1L);
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        assertNotNull(cache.getIfPresent(1L));
+    }
+
+    /**
+     * Test que verifica que el listener invalide el producto recibido en el aviso e ignore avisos mal formados.
+     */
+    @Test
+    void listener_shouldInvalidateNotifiedProduct() {
+        ProductCacheListener listener = new ProductCacheListener(cache, mock(ObjectProvider.class),
+                new DataSourceProperties(), Duration.ofSeconds(5));
+
+        listener.handle("no-es-un-id");
+        assertNotNull(cache.getIfPresent(1L));
+
+        listener.handle("1");
+        assertNull(cache.getIfPresent(1L));
+    }
+
+    /**
+     * Test que verifica que un producto invalidado, o todos tras vaciar la caché, queden marcados
+     * para leerse del primario.
+     */
+    @Test
+    void invalidate_shouldMarkProductsAsRecentlyChanged() {
+        assertFalse(cache.isRecentlyChanged(1L));
+
+        cache.evict(1L);
+
+        assertTrue(cache.isRecentlyChanged(1L));
+        assertFalse(cache.isRecentlyChanged(2L));
+
+        cache.invalidateAllLocal();
+        assertTrue(cache.isRecentlyChanged(2L));
+    }
+}
@@ -1,25 +1,41 @@
 package com.example.product.service;
 
+import com.example.product.dto.ProductCursorPage;
 import com.example.product.dto.ProductRequest;
 import com.example.product.dto.ProductResponse;
+import com.example.product.dto.ProductSearchPage;
 import com.example.product.exception.ResourceNotFoundException;
 import com.example.product.mapper.ProductMapper;
 import com.example.product.model.Product;
+import com.example.product.model.ProductChangeType;
+import com.example.product.repository.ProductOutboxRepository;
 import com.example.product.repository.ProductRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.LongStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -32,6 +48,20 @@ class ProductServiceImplTest {
     @Mock
     private ProductMapper mapper;
 
+    @Mock
+    private ProductOutboxRepository outboxRepository;
+
+    @Mock
+    private ProductSearchIndex searchIndex;
+
+    @Spy
+    private ProductResponseCache cache =
+            new ProductResponseCache(new SimpleMeterRegistry(), mock(JdbcTemplate.class), 100, Duration.ofMinutes(10),
+                    Duration.ofSeconds(10));
+
+    @Spy
+    private TransactionTemplate transactionTemplate = new TransactionTemplate(mock(PlatformTransactionManager.class));
+
     @InjectMocks
     private ProductServiceImpl service;
 
@@ -89,6 +119,108 @@ class ProductServiceImplTest {
         assertThrows(ResourceNotFoundException.class, () -> service.getById(1L));
     }
 
+    /**
+     * Test que verifica que las lecturas repetidas de un producto se sirvan desde la caché.
+     */
+    @Test
+    void getById_shouldServeRepeatedReadsFromCache() {
+        Product product = new Product(1L, "Tablet", new BigDecimal("299.00"), 2L);
+        when(repository.findById(1L)).thenReturn(Optional.of(product));
+        when(mapper.toResponse(product)).thenReturn(new ProductResponse(1L, "Tablet", new BigDecimal("299.00"), 2L));
+
+        service.getById(1L);
+        service.getById(1L);
+
+        verify(repository, times(1)).findById(1L);
+    }
+
+    /**
+     * Test que verifica que una actualización invalide el producto en caché y que la recarga
+     * se lea del primario y no de una réplica que aún no tenga el cambio.
+     */
+    @Test
+    void update_shouldEvictCachedProduct() {
+        Product product = new Product(1L, "Tablet", new BigDecimal("299.00"));
+        ProductRequest request = new ProductRequest();
+        request.setNombre("Tablet Pro");
+        request.setPrecio(new BigDecimal("399.00"));
+        when(repository.findById(1L)).thenReturn(Optional.of(product));
+        when(repository.saveAndFlush(product)).thenReturn(product);
+        when(mapper.toResponse(product)).thenReturn(new ProductResponse(1L, "Tablet", new BigDecimal("299.00")));
+        service.getById(1L);
+
+        service.update(1L, request);
+        service.getById(1L);
+
+        verify(cache).evict(1L);
+        verify(repository, times(3)).findById(1L);
+        verify(transactionTemplate, times(1)).execute(any());
+    }
+
+    /**
+     * Test que verifica que, sin cambios recientes, los fallos de caché no abran una transacción en el primario.
+     */
+    @Test
+    void getById_shouldNotReadFromPrimary_whenNotRecentlyChanged() {
+        Product product = new Product(1L, "Tablet", new BigDecimal("299.00"));
+        when(repository.findById(1L)).thenReturn(Optional.of(product));
+        when(mapper.toResponse(product)).thenReturn(new ProductResponse(1L, "Tablet", new BigDecimal("299.00")));
+
+        service.getById(1L);
+
+        verify(transactionTemplate, never()).execute(any());
+    }
+
+    /**
+     * Test que verifica que el producto y el lote de un producto recién invalidado se consulten en el primario.
+     */
+    @Test
+    void getByIdAndGetByIds_shouldReadFromPrimary_whenRecentlyChanged() {
+        cache.invalidateLocal(2L);
+        Product product = new Product(2L, "Monitor", new BigDecimal("180.00"), 3L);
+        when(repository.findById(2L)).thenReturn(Optional.of(product));
+        when(mapper.toResponse(product)).thenReturn(new ProductResponse(2L, "Monitor", new BigDecimal("180.00"), 3L));
+        when(repository.findAllById(List.of(1L, 2L))).thenReturn(List.of());
+
+        assertEquals(3L, service.getById(2L).getVersion());
+        service.getByIds(List.of(1L, 2L));
+
+        verify(transactionTemplate, times(2)).execute(any());
+    }
+
+    /**
+     * Test que verifica que la consulta por lote use una sola llamada al repositorio.
+     */
+    @Test
+    void getByIds_shouldReturnFoundProductsWithSingleQuery() {
+        Product p1 = new Product(1L, "Mouse", new BigDecimal("20.00"));
+        Product p2 = new Product(2L, "Teclado", new BigDecimal("45.00"));
+        ProductResponse r1 = new ProductResponse(1L, "Mouse", new BigDecimal("20.00"));
+        ProductResponse r2 = new ProductResponse(2L, "Teclado", new BigDecimal("45.00"));
+
+        when(repository.findAllById(List.of(1L, 2L, 3L))).thenReturn(List.of(p1, p2));
+        when(mapper.toResponse(p1)).thenReturn(r1);
+        when(mapper.toResponse(p2)).thenReturn(r2);
+
+        List<ProductResponse> result = service.getByIds(List.of(1L, 2L, 2L, 3L, -4L));
+
+        assertEquals(2, result.size());
+        assertEquals("Teclado", result.get(1).getNombre());
+        verify(repository, times(1)).findAllById(List.of(1L, 2L, 3L));
+    }
+
+    @Test
+    @DisplayName("Debe lanzar IllegalArgumentException cuando la lista de IDs es vacía o excede el límite")
+    void getByIds_InvalidIds_ThrowsException() {
+        assertThrows(IllegalArgumentException.class, () -> service.getByIds(null));
+        assertThrows(IllegalArgumentException.class, () -> service.getByIds(List.of()));
+
+        List<Long> tooMany = LongStream.rangeClosed(1, ProductServiceImpl.MAX_BATCH_SIZE + 1)
+                .boxed()
+                .toList();
+        assertThrows(IllegalArgumentException.class, () -> service.getByIds(tooMany));
+    }
+
     /**
      * Test que verifica que se devuelvan todos los productos paginados.
      */
@@ -122,13 +254,15 @@ class ProductServiceImplTest {
         ProductResponse response = new ProductResponse(id, "Smart TV", new BigDecimal("700.00"));
 
         when(repository.findById(id)).thenReturn(Optional.of(existing));
-        when(repository.save(existing)).thenReturn(updatedProduct);
+        when(repository.saveAndFlush(existing)).thenReturn(updatedProduct);
         when(mapper.toResponse(updatedProduct)).thenReturn(response);
 
         ProductResponse result = service.update(id, update);
 
         assertEquals("Smart TV", result.getNombre());
         assertEquals(new BigDecimal("700.00"), result.getPrecio());
+        verify(outboxRepository, times(1)).save(argThat(e ->
+                e.getProductId().equals(id) && e.getTipo() == ProductChangeType.ACTUALIZADO));
     }
 
     /**
@@ -157,6 +291,8 @@ class ProductServiceImplTest {
         service.delete(id);
 
         verify(repository, times(1)).delete(product);
+        verify(outboxRepository, times(1)).save(argThat(e ->
+                e.getProductId().equals(id) && e.getTipo() == ProductChangeType.ELIMINADO));
     }
 
     /**
@@ -166,6 +302,7 @@ class ProductServiceImplTest {
     void delete_shouldThrowException_whenNotFound() {
         when(repository.findById(1L)).thenReturn(Optional.empty());
         assertThrows(ResourceNotFoundException.class, () -> service.delete(1L));
+        verifyNoInteractions(outboxRepository);
     }
     @Test
     @DisplayName("Debe lanzar IllegalArgumentException cuando el request de creación es nulo o inválido")
@@ -227,4 +364,189 @@ class ProductServiceImplTest {
         assertThrows(IllegalArgumentException.class, () -> service.delete(null));
         assertThrows(IllegalArgumentException.class, () -> service.delete(0L));
     }
+
+    /**
+     * Test que verifica que el listado en modo Slice no ejecute el conteo total.
+     */
+    @Test
+    void getSlice_shouldNotCountProducts() {
+        Pageable pageable = PageRequest.of(3, 1);
+        Product product = new Product(4L, "Monitor", new BigDecimal("200.00"));
+        ProductResponse response = new ProductResponse(4L, "Monitor", new BigDecimal("200.00"));
+        when(repository.findAllBy(pageable)).thenReturn(new SliceImpl<>(List.of(product), pageable, true));
+        when(mapper.toResponse(product)).thenReturn(response);
+
+        Slice<ProductResponse> result = service.getSlice(pageable);
+
+        assertEquals(List.of(response), result.getContent());
+        assertTrue(result.hasNext());
+        verify(repository, never()).count();
+        verify(repository, never()).findAll(any(Pageable.class));
+        assertThrows(IllegalArgumentException.class, () -> service.getSlice(null));
+    }
+
+    /**
+     * Test que verifica que el cursor pida una fila de más y devuelva el ID del último producto como siguiente cursor.
+     */
+    @Test
+    void getAfter_shouldReturnNextCursor_whenMoreProductsExist() {
+        List<Product> products = LongStream.rangeClosed(11, 13)
+                .mapToObj(id -> new Product(id, "Producto " + id, BigDecimal.TEN))
+                .toList();
+        when(repository.findAfter(10L, Limit.of(3))).thenReturn(products);
+        when(mapper.toResponse(any(Product.class)))
+                .thenAnswer(inv -> new ProductResponse(inv.<Product>getArgument(0).getId(), "p", BigDecimal.TEN));
+
+        ProductCursorPage result = service.getAfter(10L, 2);
+
+        assertEquals(List.of(11L, 12L), result.getContent().stream().map(ProductResponse::getId).toList());
+        assertEquals(12L, result.getNextCursor());
+        assertTrue(result.isHasNext());
+    }
+
+    /**
+     * Test que verifica que la última página no tenga cursor siguiente y que sin cursor se empiece desde el principio.
+     */
+    @Test
+    void getAfter_shouldReturnLastPageWithoutCursor() {
+        Product product = new Product(1L, "Teclado", BigDecimal.ONE);
+        when(repository.findAfter(0L, Limit.of(21))).thenReturn(List.of(product));
+        when(mapper.toResponse(product)).thenReturn(new ProductResponse(1L, "Teclado", BigDecimal.ONE));
+
+        ProductCursorPage result = service.getAfter(null, 20);
+
+        assertEquals(1, result.getContent().size());
+        assertNull(result.getNextCursor());
+        assertFalse(result.isHasNext());
+    }
+
+    /**
+     * Test que verifica que se rechacen cursores negativos y tamaños de página fuera de rango.
+     */
+    @Test
+    void getAfter_shouldRejectInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> service.getAfter(-1L, 20));
+        assertThrows(IllegalArgumentException.class, () -> service.getAfter(0L, 0));
+        assertThrows(IllegalArgumentException.class, () -> service.getAfter(0L, ProductServiceImpl.MAX_PAGE_SIZE + 1));
+        verifyNoInteractions(repository);
+    }
+
+    /**
+     * Test que verifica que la búsqueda normalice el texto y que el cursor devuelto retome la página siguiente
+     * desde la clave de orden que entregó el índice.
+     */
+    @Test
+    void search_shouldNormalizeTextAndContinueFromCursor() {
+        // lower() con ctype C deja la İ como está y toLowerCase de Java no: el cursor debe usar la clave del índice
+        ProductSearchIndex.Hit first = new ProductSearchIndex.Hit(
+                new Product(7L, "Smartphone İstanbul", BigDecimal.TEN), "smartphone İstanbul");
+        ProductSearchIndex.Hit second = new ProductSearchIndex.Hit(
+                new Product(3L, "Smartwatch", BigDecimal.ONE), "smartwatch");
+        when(searchIndex.search("smart", false, "", 0L, 2)).thenReturn(List.of(first, second));
+        when(mapper.toResponse(any(Product.class)))
+                .thenAnswer(inv -> new ProductResponse(inv.<Product>getArgument(0).getId(), "p", BigDecimal.TEN));
+
+        ProductSearchPage page = service.search("  Smart ", false, null, 1);
+
+        assertEquals(1, page.getContent().size());
+        assertTrue(page.isHasNext());
+        assertNotNull(page.getNextCursor());
+
+        when(searchIndex.search("smart", false, "smartphone İstanbul", 7L, 2)).thenReturn(List.of(second));
+        ProductSearchPage next = service.search("smart", false, page.getNextCursor(), 1);
+
+        assertEquals(3L, next.getContent().get(0).getId());
+        assertFalse(next.isHasNext());
+        assertNull(next.getNextCursor());
+    }
+
+    /**
+     * Test que verifica que se rechacen textos vacíos o largos, cursores mal formados y tamaños fuera de rango.
+     */
+    @Test
+    void search_shouldRejectInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> service.search(" ", false, null, 20));
+        assertThrows(IllegalArgumentException.class, () -> service.search("x".repeat(101), false, null, 20));
+        assertThrows(IllegalArgumentException.class, () -> service.search("tv", false, "no-es-un-cursor", 20));
+        assertThrows(IllegalArgumentException.class, () -> service.search("tv", true, null, 0));
+        verifyNoInteractions(searchIndex);
+    }
+
+    /**
+     * Test que verifica que las altas, modificaciones y bajas lleguen al índice de búsqueda.
+     */
+    @Test
+    void changes_shouldBeReportedToSearchIndex() {
+        ProductRequest request = new ProductRequest();
+        request.setNombre("Tablet");
+        request.setPrecio(new BigDecimal("300.00"));
+        Product product = new Product(5L, "Tablet", new BigDecimal("300.00"));
+        when(mapper.toEntity(request)).thenReturn(product);
+        when(repository.save(product)).thenReturn(product);
+        when(repository.findById(5L)).thenReturn(Optional.of(product));
+        when(repository.saveAndFlush(product)).thenReturn(product);
+
+        service.create(request);
+        service.update(5L, request);
+        service.delete(5L);
+
+        verify(searchIndex, times(2)).index(product);
+        verify(searchIndex).remove(5L);
+    }
+
+    /**
+     * Test que verifica que el listado por precio empiece en el extremo del rango y continúe desde el cursor.
+     */
+    @Test
+    void getByPriceRange_shouldPageAscendingWithCursor() {
+        Product cheap = new Product(8L, "Cable", new BigDecimal("10.00"));
+        Product other = new Product(2L, "Mouse", new BigDecimal("25.50"));
+        BigDecimal min = new BigDecimal("5");
+        BigDecimal max = new BigDecimal("100");
+        when(repository.findByPrecioAsc(min, max, min, 0L, 2)).thenReturn(List.of(cheap, other));
+        when(mapper.toResponse(any(Product.class)))
+                .thenAnswer(inv -> new ProductResponse(inv.<Product>getArgument(0).getId(), "p", BigDecimal.TEN));
+
+        ProductSearchPage page = service.getByPriceRange(min, max, Sort.Direction.ASC, null, 1);
+
+        assertEquals(8L, page.getContent().get(0).getId());
+        assertTrue(page.isHasNext());
+
+        when(repository.findByPrecioAsc(min, max, new BigDecimal("10.00"), 8L, 2)).thenReturn(List.of(other));
+        ProductSearchPage next = service.getByPriceRange(min, max, Sort.Direction.ASC, page.getNextCursor(), 1);
+
+        assertEquals(2L, next.getContent().get(0).getId());
+        assertFalse(next.isHasNext());
+    }
+
+    /**
+     * Test que verifica que el orden descendente empiece en el precio máximo, sin límite si no se indica.
+     */
+    @Test
+    void getByPriceRange_shouldStartFromTopWhenDescending() {
+        when(repository.findByPrecioDesc(BigDecimal.ZERO, ProductServiceImpl.MAX_PRICE,
+                ProductServiceImpl.MAX_PRICE, Long.MAX_VALUE, 21)).thenReturn(List.of());
+
+        ProductSearchPage page = service.getByPriceRange(null, null, Sort.Direction.DESC, null, 20);
+
+        assertTrue(page.getContent().isEmpty());
+        assertNull(page.getNextCursor());
+        verify(repository, never()).findByPrecioAsc(any(), any(), any(), anyLong(), anyInt());
+    }
+
+    /**
+     * Test que verifica que se rechacen rangos de precio inválidos y tamaños fuera de rango.
+     */
+    @Test
+    void getByPriceRange_shouldRejectInvalidArguments() {
+        assertThrows(IllegalArgumentException.class,
+                () -> service.getByPriceRange(new BigDecimal("-1"), null, Sort.Direction.ASC, null, 20));
+        assertThrows(IllegalArgumentException.class,
+                () -> service.getByPriceRange(BigDecimal.TEN, BigDecimal.ONE, Sort.Direction.ASC, null, 20));
+        assertThrows(IllegalArgumentException.class,
+                () -> service.getByPriceRange(null, null, Sort.Direction.ASC, null, 0));
+        assertThrows(IllegalArgumentException.class,
+                () -> service.getByPriceRange(null, null, Sort.Direction.ASC, "bm8tdmFsaWRv", 20));
+        verifyNoInteractions(repository);
+    }
 }